@@ -55,6 +55,11 @@ public class RemoteConstant {
      */
     public static final String S4W_HANDLER_WORKER_NEED_DEPLOY_CONTAINER = "queryContainer";
 
+    /**
+     * server 处理 worker 批量上报的调度请求回执
+     */
+    public static final String S4W_HANDLER_REPORT_DISPATCH_RECEIPT = "reportDispatchReceipt";
+
     /* ************************ Worker-TaskTracker ************************ */
     public static final String WTT_PATH = "taskTracker";
 
@@ -62,6 +67,10 @@ public class RemoteConstant {
      * server 任务执行命令
      */
     public static final String WTT_HANDLER_RUN_JOB = "runJob";
+    /**
+     * server 批量任务执行命令
+     */
+    public static final String WTT_HANDLER_RUN_JOB_BATCH = "runJobBatch";
     /**
      * server 停止任务实例命令
      */
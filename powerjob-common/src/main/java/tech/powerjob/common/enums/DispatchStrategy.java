@@ -14,10 +14,33 @@ import lombok.Getter;
 public enum DispatchStrategy {
 
     HEALTH_FIRST(1),
-    RANDOM(2);
+    RANDOM(2),
+    /**
+     * 随机选择两台机器，取健康分较高者
+     */
+    POWER_OF_TWO_CHOICES(3),
+    /**
+     * 在途实例数最少（两次随机选择近似）
+     */
+    LEAST_OUTSTANDING(4),
+    /**
+     * 按 jobId 一致性哈希，同一个任务尽量派发到同一台机器
+     */
+    CONSISTENT_HASH(5),
+    /**
+     * 按健康分加权轮询
+     */
+    WEIGHTED_ROUND_ROBIN(6);
 
     private final int v;
 
+    /**
+     * 是否基于预计算的候选快照进行 O(1) 选择
+     */
+    public boolean isLoadAware() {
+        return this != HEALTH_FIRST && this != RANDOM;
+    }
+
     public static DispatchStrategy of(Integer v) {
         if (v == null) {
             return HEALTH_FIRST;
@@ -0,0 +1,22 @@
+package tech.powerjob.common.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tech.powerjob.common.PowerSerializable;
+
+import java.util.List;
+
+/**
+ * 服务端批量调度任务请求（同一时刻派发到同一个 TaskTracker 的任务实例合并为一次请求）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerScheduleJobBatchReq implements PowerSerializable {
+
+    private List<ServerScheduleJobReq> requests;
+}
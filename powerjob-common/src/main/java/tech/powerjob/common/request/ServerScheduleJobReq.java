@@ -97,4 +97,9 @@ public class ServerScheduleJobReq implements PowerSerializable {
      * 日志配置
      */
     private String logConfig;
+
+    /**
+     * 接收回执的 server 地址，为空代表不需要回执
+     */
+    private String receiptAddress;
 }
@@ -0,0 +1,27 @@
+package tech.powerjob.common.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tech.powerjob.common.PowerSerializable;
+
+import java.util.List;
+
+/**
+ * worker 批量上报的调度请求回执（{@link ServerScheduleJobReq#getReceiptAddress()} 不为空时上报）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerDispatchReceiptReq implements PowerSerializable {
+
+    private String workerAddress;
+
+    /**
+     * 已收到调度请求的任务实例ID
+     */
+    private List<Long> instanceIds;
+}
@@ -65,6 +65,10 @@ public class WorkerHeartbeat implements PowerSerializable {
     private int lightTaskTrackerNum;
 
     private int heavyTaskTrackerNum;
+    /**
+     * 是否支持批量调度请求（runJobBatch），旧版本 worker 默认为 false
+     */
+    private boolean supportBatchDispatch;
 
 
     private SystemMetrics systemMetrics;
@@ -23,4 +23,9 @@ public class PJThreadPool {
      */
     public static final String LOCAL_DB_POOL = "PowerJobLocalDbPool";
 
+    /**
+     * 任务调度（扫描、创建实例、推入时间轮）专用线程池
+     */
+    public static final String SCHEDULE_POOL = "PowerJobSchedulePool";
+
 }
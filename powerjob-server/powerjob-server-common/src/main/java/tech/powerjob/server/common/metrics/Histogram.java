@@ -0,0 +1,141 @@
+package tech.powerjob.server.common.metrics;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 轻量级直方图，用于统计耗时、延迟等非负数值的分布
+ * 按 2 的幂次划分区间，每个区间再等分为 2^subBucketBits 个子区间（HdrHistogram 的对数-线性分桶），
+ * 写入无锁且内存占用固定，分位数为所在子区间的上界，相对误差不超过 1/2^subBucketBits
+ * 默认不划分子区间（第 i 个区间为 [2^(i-1), 2^i)，误差不超过一倍）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class Histogram {
+
+    private static final int MAX_SUB_BUCKET_BITS = 10;
+
+    private final int subBucketBits;
+
+    private final int subBucketNum;
+    /**
+     * 小于该值的数值每个数值一个区间
+     */
+    private final int linearLimit;
+
+    private final AtomicLongArray buckets;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Histogram() {
+        this(0);
+    }
+
+    /**
+     * @param subBucketBits 每个 2 的幂次区间再划分为 2^subBucketBits 个子区间，取值范围 [0, 10]
+     */
+    public Histogram(int subBucketBits) {
+        this.subBucketBits = Math.min(Math.max(subBucketBits, 0), MAX_SUB_BUCKET_BITS);
+        this.subBucketNum = 1 << this.subBucketBits;
+        this.linearLimit = subBucketNum << 1;
+        this.buckets = new AtomicLongArray(linearLimit + (Long.SIZE - 1 - this.subBucketBits - 1) * subBucketNum);
+    }
+
+    /**
+     * 记录数值，负数按 0 处理
+     * @param value 数值
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        buckets.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long c = count.sum();
+        return c == 0 ? 0 : (double) sum.sum() / c;
+    }
+
+    /**
+     * 获取分位数
+     * @param percentile 分位，取值范围 (0, 100]
+     * @return 分位数所在区间的上界（不超过最大值）
+     */
+    public long getPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * percentile / 100);
+        long accumulated = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= threshold) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * 生成快照，用于展示
+     * @return count/mean/max 以及常用分位数
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = Maps.newLinkedHashMap();
+        snapshot.put("count", getCount());
+        snapshot.put("mean", String.format("%.2f", getMean()));
+        snapshot.put("p50", getPercentile(50));
+        snapshot.put("p90", getPercentile(90));
+        snapshot.put("p99", getPercentile(99));
+        snapshot.put("p999", getPercentile(99.9));
+        snapshot.put("max", getMax());
+        return snapshot;
+    }
+
+    private int indexOf(long v) {
+        if (v < linearLimit) {
+            return (int) v;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(v);
+        int subIndex = (int) (v >>> (exponent - subBucketBits)) - subBucketNum;
+        return linearLimit + (exponent - subBucketBits - 1) * subBucketNum + subIndex;
+    }
+
+    private long lowerBoundOf(int index) {
+        if (index < linearLimit) {
+            return index;
+        }
+        int group = (index - linearLimit) / subBucketNum;
+        int subIndex = (index - linearLimit) % subBucketNum;
+        return (long) (subBucketNum + subIndex) << (group + 1);
+    }
+
+    private long upperBoundOf(int index) {
+        return index == buckets.length() - 1 ? Long.MAX_VALUE : lowerBoundOf(index + 1) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
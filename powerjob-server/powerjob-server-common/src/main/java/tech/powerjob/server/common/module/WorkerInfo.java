@@ -36,6 +36,8 @@ public class WorkerInfo {
 
     private boolean overloading;
 
+    private boolean supportBatchDispatch;
+
     private SystemMetrics systemMetrics;
 
     private List<DeployedContainerInfo> containerInfos;
@@ -53,6 +55,7 @@ public class WorkerInfo {
 
         lightTaskTrackerNum = workerHeartbeat.getLightTaskTrackerNum();
         heavyTaskTrackerNum = workerHeartbeat.getHeavyTaskTrackerNum();
+        supportBatchDispatch = workerHeartbeat.isSupportBatchDispatch();
 
         if (workerHeartbeat.isOverload()) {
             overloading = true;
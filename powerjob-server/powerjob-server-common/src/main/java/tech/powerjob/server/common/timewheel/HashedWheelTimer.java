@@ -2,22 +2,24 @@ package tech.powerjob.server.common.timewheel;
 
 import tech.powerjob.common.utils.CommonUtils;
 import tech.powerjob.server.common.RejectedExecutionHandlerFactory;
+import tech.powerjob.server.common.metrics.Histogram;
 import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
 /**
  * 时间轮定时器
- * 支持的最小精度：1ms（Thread.sleep本身不精确导致精度没法提高）
- * 最小误差：1ms，理由同上
+ * 支持的最小精度：1ms
+ * 指针线程基于 System.nanoTime 计算每一格的绝对到期时间（不累积误差），并直接 park 到下一个非空时间格，空闲时不再逐格空转；
+ * 新任务早于当前等待的时间点时会唤醒指针线程重新计算；非空时间格记录在位图中，查找下一个非空时间格时按 64 格一组跳过空格
  *
  * @author tjq
  * @since 2020/4/2
@@ -28,16 +30,32 @@ public class HashedWheelTimer implements Timer {
     private final long tickDuration;
     private final HashedWheelBucket[] wheel;
     private final int mask;
+    /**
+     * 非空时间格位图（第 i 位对应 wheel[i]），只由指针线程访问
+     */
+    private final long[] occupied;
 
     private final Indicator indicator;
 
     private final long startTime;
+    private final long startNanos;
+    private final long tickDurationNanos;
 
-    private final Queue<HashedWheelTimerFuture> waitingTasks = Queues.newLinkedBlockingQueue();
-    private final Queue<HashedWheelTimerFuture> canceledTasks = Queues.newLinkedBlockingQueue();
+    /**
+     * 任务实际触发时间与预期时间的差值（ms）
+     */
+    private final Histogram lateness = new Histogram();
+
+    /**
+     * 多生产者（调度线程）单消费者（指针线程）的无锁队列，避免整点大量任务同时提交时的锁竞争
+     */
+    private final Queue<HashedWheelTimerFuture> waitingTasks = Queues.newConcurrentLinkedQueue();
+    private final Queue<HashedWheelTimerFuture> canceledTasks = Queues.newConcurrentLinkedQueue();
 
     private final ExecutorService taskProcessPool;
 
+    private static final int MAX_PUSH_PER_ROUND = 10000;
+
     public HashedWheelTimer(long tickDuration, int ticksPerWheel) {
         this(tickDuration, ticksPerWheel, 0);
     }
@@ -56,9 +74,10 @@ public class HashedWheelTimer implements Timer {
         int ticksNum = CommonUtils.formatSize(ticksPerWheel);
         wheel = new HashedWheelBucket[ticksNum];
         for (int i = 0; i < ticksNum; i++) {
-            wheel[i] = new HashedWheelBucket();
+            wheel[i] = new HashedWheelBucket(i);
         }
         mask = wheel.length - 1;
+        occupied = new long[(ticksNum + Long.SIZE - 1) / Long.SIZE];
 
         // 初始化执行线程池
         if (processThreadNum <= 0) {
@@ -75,10 +94,13 @@ public class HashedWheelTimer implements Timer {
         }
 
         startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        tickDurationNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
 
         // 启动后台线程
         indicator = new Indicator();
-        new Thread(indicator, "HashedWheelTimer-Indicator").start();
+        indicator.thread = new Thread(indicator, "HashedWheelTimer-Indicator");
+        indicator.thread.start();
     }
 
     @Override
@@ -93,14 +115,30 @@ public class HashedWheelTimer implements Timer {
             return timerFuture;
         }
 
-        // 写入阻塞队列，保证并发安全（性能进一步优化可以考虑 Netty 的 Multi-Producer-Single-Consumer队列）
+        // 写入无锁队列，由指针线程统一推入时间格，保证并发安全
         waitingTasks.add(timerFuture);
+        // 指针线程正在等待更晚的时间格，需要唤醒后重新计算
+        if (targetTime < indicator.parkDeadline) {
+            LockSupport.unpark(indicator.thread);
+        }
         return timerFuture;
     }
 
+    /**
+     * 获取任务触发延迟（实际触发时间 - 预期触发时间）的分布
+     * @return 直方图，单位毫秒
+     */
+    public Histogram getLateness() {
+        return lateness;
+    }
+
     @Override
     public Set<TimerTask> stop() {
         indicator.stop.set(true);
+        LockSupport.unpark(indicator.thread);
+        if (taskProcessPool == null) {
+            return indicator.getUnprocessedTasks();
+        }
         taskProcessPool.shutdown();
         while (!taskProcessPool.isTerminated()) {
             try {
@@ -120,12 +158,14 @@ public class HashedWheelTimer implements Timer {
         private final long targetTime;
         private final TimerTask timerTask;
 
-        // 所属的时间格，用于快速删除该任务
+        // 所属的时间格以及链表前后节点，用于 O(1) 删除该任务
         private HashedWheelBucket bucket;
+        private HashedWheelTimerFuture prev;
+        private HashedWheelTimerFuture next;
         // 总圈数
         private long totalTicks;
         // 当前状态 0 - 初始化等待中，1 - 运行中，2 - 完成，3 - 已取消
-        private int status;
+        private volatile int status;
 
         // 状态枚举值
         private static final int WAITING = 0;
@@ -168,30 +208,81 @@ public class HashedWheelTimer implements Timer {
 
     /**
      * 时间格（本质就是链表，维护了这个时刻可能需要执行的所有任务）
+     * 任务本身即为链表节点（侵入式双向链表），插入与删除均为 O(1)，且不需要额外分配节点对象，仅由指针线程访问
      */
-    private final class HashedWheelBucket extends LinkedList<HashedWheelTimerFuture> {
+    private final class HashedWheelBucket {
+
+        private final int index;
+        private HashedWheelTimerFuture head;
+        private HashedWheelTimerFuture tail;
+
+        HashedWheelBucket(int index) {
+            this.index = index;
+        }
+
+        public boolean isEmpty() {
+            return head == null;
+        }
+
+        public void add(HashedWheelTimerFuture timerFuture) {
+            timerFuture.bucket = this;
+            if (head == null) {
+                head = tail = timerFuture;
+                occupied[index >>> 6] |= 1L << index;
+            } else {
+                tail.next = timerFuture;
+                timerFuture.prev = tail;
+                tail = timerFuture;
+            }
+        }
+
+        public void remove(HashedWheelTimerFuture timerFuture) {
+            HashedWheelTimerFuture next = timerFuture.next;
+            if (timerFuture.prev != null) {
+                timerFuture.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timerFuture.prev;
+            }
+            if (timerFuture == head) {
+                head = next;
+            }
+            if (timerFuture == tail) {
+                tail = timerFuture.prev;
+            }
+            if (head == null) {
+                occupied[index >>> 6] &= ~(1L << index);
+            }
+            timerFuture.prev = null;
+            timerFuture.next = null;
+            timerFuture.bucket = null;
+        }
+
+        public void forEach(Consumer<HashedWheelTimerFuture> consumer) {
+            for (HashedWheelTimerFuture timerFuture = head; timerFuture != null; timerFuture = timerFuture.next) {
+                consumer.accept(timerFuture);
+            }
+        }
 
         public void expireTimerTasks(long currentTick) {
 
-            removeIf(timerFuture -> {
+            HashedWheelTimerFuture timerFuture = head;
+            while (timerFuture != null) {
+
+                HashedWheelTimerFuture next = timerFuture.next;
 
                 // processCanceledTasks 后外部操作取消任务会导致 BUCKET 中仍存在 CANCELED 任务的情况
                 if (timerFuture.status == HashedWheelTimerFuture.CANCELED) {
-                    return true;
-                }
-
-                if (timerFuture.status != HashedWheelTimerFuture.WAITING) {
+                    remove(timerFuture);
+                } else if (timerFuture.status != HashedWheelTimerFuture.WAITING) {
                     log.warn("[HashedWheelTimer] impossible, please fix the bug");
-                    return true;
-                }
-
-                // 本轮直接调度
-                if (timerFuture.totalTicks <= currentTick) {
-
+                    remove(timerFuture);
+                } else if (timerFuture.totalTicks <= currentTick) {
+                    // 本轮直接调度
                     if (timerFuture.totalTicks < currentTick) {
                         log.warn("[HashedWheelTimer] timerFuture.totalTicks < currentTick, please fix the bug");
                     }
-
+                    remove(timerFuture);
                     try {
                         // 提交执行
                         runTask(timerFuture);
@@ -199,17 +290,15 @@ public class HashedWheelTimer implements Timer {
                     } finally {
                         timerFuture.status = HashedWheelTimerFuture.FINISHED;
                     }
-                    return true;
                 }
-
-                return false;
-            });
-
+                timerFuture = next;
+            }
         }
     }
 
     private void runTask(HashedWheelTimerFuture timerFuture) {
         timerFuture.status = HashedWheelTimerFuture.RUNNING;
+        lateness.record(System.currentTimeMillis() - timerFuture.targetTime);
         if (taskProcessPool == null) {
             timerFuture.timerTask.run();
         }else {
@@ -224,6 +313,12 @@ public class HashedWheelTimer implements Timer {
 
         private long tick = 0;
 
+        private Thread thread;
+        /**
+         * 当前等待的时间格对应的毫秒时间戳，早于该时间的新任务需要唤醒指针线程
+         */
+        private volatile long parkDeadline = Long.MAX_VALUE;
+
         private final AtomicBoolean stop = new AtomicBoolean(false);
         private final CountDownLatch latch = new CountDownLatch(1);
 
@@ -236,9 +331,13 @@ public class HashedWheelTimer implements Timer {
                 pushTaskToBucket();
                 // 2. 处理取消的任务
                 processCanceledTasks();
-                // 3. 等待指针跳向下一刻
-                tickTack();
-                // 4. 执行定时任务
+                // 3. 等待指针跳向下一个非空时间格，期间有新任务加入时提前返回，重新推入时间轮后再计算
+                long targetTick = nextNonEmptyTick();
+                if (!tickTack(targetTick)) {
+                    continue;
+                }
+                // 4. 执行定时任务（中间跳过的均为空时间格）
+                tick = targetTick;
                 int currentIndex = (int) (tick & mask);
                 HashedWheelBucket bucket = wheel[currentIndex];
                 bucket.expireTimerTasks(tick);
@@ -249,19 +348,69 @@ public class HashedWheelTimer implements Timer {
         }
 
         /**
-         * 模拟指针转动，当返回时指针已经转到了下一个刻度
+         * 查找下一个存在任务的时间格
+         * @return 对应的指针刻度，时间轮为空时返回 -1
          */
-        private void tickTack() {
+        private long nextNonEmptyTick() {
+            int start = (int) (tick & mask);
+            int index = nextOccupiedIndex(start);
+            if (index >= 0) {
+                return tick + index - start;
+            }
+            // 绕回轮盘开头
+            index = nextOccupiedIndex(0);
+            return index < 0 ? -1 : tick + wheel.length - start + index;
+        }
 
-            // 下一次调度的绝对时间
-            long nextTime = startTime + (tick + 1) * tickDuration;
-            long sleepTime = nextTime - System.currentTimeMillis();
+        /**
+         * @return 下标不小于 from 的第一个非空时间格，不存在时返回 -1
+         */
+        private int nextOccupiedIndex(int from) {
+            int word = from >>> 6;
+            long bits = occupied[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == occupied.length) {
+                    return -1;
+                }
+                bits = occupied[word];
+            }
+        }
+
+        /**
+         * 模拟指针转动，等待至目标刻度到期
+         * @param targetTick 目标刻度，-1 代表一直等待直到有新任务加入
+         * @return 是否到达目标刻度，新任务加入或停止时返回 false
+         */
+        private boolean tickTack(long targetTick) {
 
-            if (sleepTime > 0) {
-                try {
-                    Thread.sleep(sleepTime);
-                }catch (Exception ignore) {
+            // 目标刻度的绝对到期时间，按启动时间计算，不会累积误差
+            long deadlineNanos = targetTick < 0 ? Long.MAX_VALUE : startNanos + (targetTick + 1) * tickDurationNanos;
+            parkDeadline = targetTick < 0 ? Long.MAX_VALUE : startTime + (targetTick + 1) * tickDuration;
+            try {
+                while (true) {
+                    if (stop.get()) {
+                        return false;
+                    }
+                    // 先检查是否到期，持续提交的新任务不会让已经到期的时间格一直得不到执行
+                    long sleepNanos = deadlineNanos - System.nanoTime();
+                    if (sleepNanos <= 0) {
+                        return true;
+                    }
+                    // 先发布 parkDeadline 再检查队列，与 schedule 中先入队再检查 parkDeadline 配合，保证不会漏掉唤醒
+                    if (!waitingTasks.isEmpty()) {
+                        return false;
+                    }
+                    if (targetTick < 0) {
+                        LockSupport.park(this);
+                    } else {
+                        LockSupport.parkNanos(this, sleepNanos);
+                    }
                 }
+            } finally {
+                parkDeadline = Long.MAX_VALUE;
             }
         }
 
@@ -274,7 +423,7 @@ public class HashedWheelTimer implements Timer {
                 if (canceledTask == null) {
                     return;
                 }
-                // 从链表中删除该任务（bucket为null说明还没被正式推入时间格中，不需要处理）
+                // 从链表中删除该任务（bucket为null说明还没被正式推入时间格中或已被移出，不需要处理）
                 if (canceledTask.bucket != null) {
                     canceledTask.bucket.remove(canceledTask);
                 }
@@ -282,11 +431,11 @@ public class HashedWheelTimer implements Timer {
         }
 
         /**
-         * 将队列中的任务推入时间轮中
+         * 将队列中的任务推入时间轮中，每轮最多推入 MAX_PUSH_PER_ROUND 个，持续提交任务时也不会阻塞指针转动
          */
         private void pushTaskToBucket() {
 
-            while (true) {
+            for (int i = 0; i < MAX_PUSH_PER_ROUND; i++) {
                 HashedWheelTimerFuture timerTask = waitingTasks.poll();
                 if (timerTask == null) {
                     return;
@@ -294,15 +443,13 @@ public class HashedWheelTimer implements Timer {
 
                 // 总共的偏移量
                 long offset = timerTask.targetTime - startTime;
-                // 总共需要走的指针步数
-                timerTask.totalTicks = offset / tickDuration;
+                // 总共需要走的指针步数（指针已经走过的任务放入当前格，避免延迟一整圈）
+                timerTask.totalTicks = Math.max(offset / tickDuration, tick);
                 // 取余计算 bucket index
                 int index = (int) (timerTask.totalTicks & mask);
                 HashedWheelBucket bucket = wheel[index];
 
                 // TimerTask 维护 Bucket 引用，用于删除该任务
-                timerTask.bucket = bucket;
-
                 if (timerTask.status == HashedWheelTimerFuture.WAITING) {
                     bucket.add(timerTask);
                 }
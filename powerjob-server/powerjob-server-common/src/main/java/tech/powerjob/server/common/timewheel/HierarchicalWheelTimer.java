@@ -0,0 +1,423 @@
+package tech.powerjob.server.common.timewheel;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import tech.powerjob.common.utils.CommonUtils;
+import tech.powerjob.server.common.RejectedExecutionHandlerFactory;
+import tech.powerjob.server.common.metrics.Histogram;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮定时器（参考 Kafka TimingWheel）
+ * 第一层时间轮精度为 tickDuration，超出当前层范围的任务放入按需创建的上层时间轮（每层范围为下层的 wheelSize 倍），
+ * 上层时间格到期后将任务重新插入下层，直到最终到期执行，因此任意延迟的任务插入、取消的时间复杂度均为 O(1)
+ * 时间格按到期时间放入 DelayQueue，指针只在有任务到期时推进，没有空转；任务直接挂在时间格的双向链表上，内存占用与任务数量线性相关
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+public class HierarchicalWheelTimer implements Timer {
+
+    private final TimingWheel timingWheel;
+
+    private final DelayQueue<TimerTaskList> delayQueue = new DelayQueue<>();
+
+    /**
+     * 添加任务时持读锁，推进时间轮时持写锁，保证上层时间轮任务降级时不会与新任务插入发生冲突
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ExecutorService taskProcessPool;
+
+    private final Thread reaper;
+
+    private volatile boolean stopped;
+
+    /**
+     * 任务实际触发时间与预期时间的差值（ms）
+     */
+    private final Histogram lateness = new Histogram();
+
+    /**
+     * 新建分层时间轮定时器
+     * @param tickDuration 最底层时间轮的时间间隔，单位毫秒（ms）
+     * @param ticksPerWheel 每层时间轮的轮盘个数
+     * @param processThreadNum 处理任务的线程个数，0代表不启用新线程（如果定时任务需要耗时操作，请启用线程池）
+     */
+    public HierarchicalWheelTimer(long tickDuration, int ticksPerWheel, int processThreadNum) {
+
+        timingWheel = new TimingWheel(tickDuration, CommonUtils.formatSize(ticksPerWheel), System.currentTimeMillis());
+
+        if (processThreadNum <= 0) {
+            taskProcessPool = null;
+        } else {
+            ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("HierarchicalWheelTimer-Executor-%d").build();
+            BlockingQueue<Runnable> queue = Queues.newLinkedBlockingQueue(8192);
+            int core = Math.max(Runtime.getRuntime().availableProcessors(), processThreadNum);
+            taskProcessPool = new ThreadPoolExecutor(core, 2 * core,
+                    60, TimeUnit.SECONDS,
+                    queue, threadFactory, RejectedExecutionHandlerFactory.newCallerRun("PowerJobTimeWheelPool"));
+        }
+
+        reaper = new Thread(this::reap, "HierarchicalWheelTimer-Reaper");
+        reaper.start();
+    }
+
+    @Override
+    public TimerFuture schedule(TimerTask task, long delay, TimeUnit unit) {
+
+        TimerTaskEntry entry = new TimerTaskEntry(task, System.currentTimeMillis() + unit.toMillis(delay));
+
+        // 直接运行到期、过期任务
+        if (delay <= 0) {
+            runTask(entry);
+            return entry;
+        }
+
+        boolean added;
+        lock.readLock().lock();
+        try {
+            added = timingWheel.add(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+        // 任务已到期，释放锁后再执行，避免任务在调用线程中执行时阻塞时间轮推进
+        if (!added) {
+            runTask(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 获取任务触发延迟（实际触发时间 - 预期触发时间）的分布
+     * @return 直方图，单位毫秒
+     */
+    public Histogram getLateness() {
+        return lateness;
+    }
+
+    @Override
+    public Set<TimerTask> stop() {
+        stopped = true;
+        reaper.interrupt();
+        try {
+            reaper.join();
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        if (taskProcessPool != null) {
+            taskProcessPool.shutdown();
+        }
+
+        Set<TimerTask> tasks = Sets.newHashSet();
+        timingWheel.forEachEntry(entry -> {
+            if (entry.status == TimerTaskEntry.WAITING) {
+                tasks.add(entry.timerTask);
+            }
+        });
+        return tasks;
+    }
+
+    private void runTask(TimerTaskEntry entry) {
+        synchronized (entry) {
+            if (entry.status != TimerTaskEntry.WAITING) {
+                return;
+            }
+            entry.status = TimerTaskEntry.RUNNING;
+        }
+        lateness.record(System.currentTimeMillis() - entry.targetTime);
+        if (taskProcessPool == null) {
+            runQuietly(entry);
+        } else {
+            taskProcessPool.execute(() -> runQuietly(entry));
+        }
+    }
+
+    private static void runQuietly(TimerTaskEntry entry) {
+        try {
+            entry.timerTask.run();
+        } catch (Throwable t) {
+            log.warn("[HierarchicalWheelTimer] run timer task failed.", t);
+        } finally {
+            entry.status = TimerTaskEntry.FINISHED;
+        }
+    }
+
+    /**
+     * 后台线程：等待最近到期的时间格，推进时间轮并处理格内任务（降级到下层时间轮或者到期执行）
+     * 持有写锁时只收集到期的任务，释放锁后再执行（未启用线程池或线程池饱和时任务在当前线程执行），避免阻塞 schedule
+     */
+    private void reap() {
+        List<TimerTaskEntry> expired = Lists.newArrayList();
+        while (!stopped) {
+            try {
+                TimerTaskList bucket = delayQueue.take();
+                lock.writeLock().lock();
+                try {
+                    while (bucket != null) {
+                        timingWheel.advanceClock(bucket.getExpiration());
+                        bucket.flush(entry -> {
+                            if (!timingWheel.add(entry)) {
+                                expired.add(entry);
+                            }
+                        });
+                        bucket = delayQueue.poll();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                try {
+                    expired.forEach(this::runTask);
+                } finally {
+                    expired.clear();
+                }
+            } catch (InterruptedException ignore) {
+                // stop() 中断，由循环条件判断是否退出
+            } catch (Throwable t) {
+                log.error("[HierarchicalWheelTimer] reaper thread meet unexpected exception.", t);
+            }
+        }
+    }
+
+    /**
+     * 单层时间轮，范围为 tickDuration * wheelSize，超出范围的任务交由上层时间轮处理
+     */
+    private final class TimingWheel {
+
+        private final long tickDuration;
+        private final int mask;
+        private final long interval;
+        private final TimerTaskList[] buckets;
+
+        /**
+         * 当前时间，tickDuration 的整数倍
+         */
+        private long currentTime;
+
+        private volatile TimingWheel overflowWheel;
+
+        TimingWheel(long tickDuration, int wheelSize, long startTime) {
+            this.tickDuration = tickDuration;
+            this.mask = wheelSize - 1;
+            this.interval = tickDuration * wheelSize;
+            this.currentTime = startTime - (startTime % tickDuration);
+            this.buckets = new TimerTaskList[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new TimerTaskList();
+            }
+        }
+
+        /**
+         * 插入任务
+         * @return 任务已经到期时返回 false，由调用方直接执行
+         */
+        boolean add(TimerTaskEntry entry) {
+            long targetTime = entry.targetTime;
+            // 已取消的任务直接丢弃
+            if (entry.status != TimerTaskEntry.WAITING) {
+                return true;
+            }
+            if (targetTime < currentTime + tickDuration) {
+                return false;
+            }
+            if (targetTime < currentTime + interval) {
+                long virtualId = targetTime / tickDuration;
+                TimerTaskList bucket = buckets[(int) (virtualId & mask)];
+                bucket.add(entry);
+                // 时间格到期时间变化说明该时间格被复用，需要重新放入 DelayQueue
+                if (bucket.setExpiration(virtualId * tickDuration)) {
+                    delayQueue.offer(bucket);
+                }
+                return true;
+            }
+            return getOverflowWheel().add(entry);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickDuration) {
+                currentTime = timeMs - (timeMs % tickDuration);
+                TimingWheel overflow = overflowWheel;
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+
+        void forEachEntry(Consumer<TimerTaskEntry> consumer) {
+            for (TimerTaskList bucket : buckets) {
+                bucket.forEach(consumer);
+            }
+            TimingWheel overflow = overflowWheel;
+            if (overflow != null) {
+                overflow.forEachEntry(consumer);
+            }
+        }
+
+        private TimingWheel getOverflowWheel() {
+            if (overflowWheel == null) {
+                synchronized (this) {
+                    if (overflowWheel == null) {
+                        overflowWheel = new TimingWheel(interval, buckets.length, currentTime);
+                    }
+                }
+            }
+            return overflowWheel;
+        }
+    }
+
+    /**
+     * 时间格，使用哨兵节点的双向链表，任务的插入与删除均为 O(1)
+     */
+    private static final class TimerTaskList implements Delayed {
+
+        private final TimerTaskEntry root = new TimerTaskEntry(null, -1);
+
+        private final AtomicLong expiration = new AtomicLong(-1);
+
+        TimerTaskList() {
+            root.next = root;
+            root.prev = root;
+        }
+
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        void add(TimerTaskEntry entry) {
+            boolean done = false;
+            while (!done) {
+                // 先从原有时间格中移除（降级场景），保证同一任务只存在于一个时间格中
+                entry.remove();
+                synchronized (this) {
+                    synchronized (entry) {
+                        if (entry.list == null) {
+                            TimerTaskEntry tail = root.prev;
+                            entry.next = root;
+                            entry.prev = tail;
+                            entry.list = this;
+                            tail.next = entry;
+                            root.prev = entry;
+                            done = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized void remove(TimerTaskEntry entry) {
+            synchronized (entry) {
+                if (entry.list == this) {
+                    entry.next.prev = entry.prev;
+                    entry.prev.next = entry.next;
+                    entry.next = null;
+                    entry.prev = null;
+                    entry.list = null;
+                }
+            }
+        }
+
+        /**
+         * 取出所有任务并重置到期时间
+         */
+        synchronized void flush(Consumer<TimerTaskEntry> consumer) {
+            TimerTaskEntry head = root.next;
+            while (head != root) {
+                remove(head);
+                consumer.accept(head);
+                head = root.next;
+            }
+            expiration.set(-1);
+        }
+
+        synchronized void forEach(Consumer<TimerTaskEntry> consumer) {
+            for (TimerTaskEntry entry = root.next; entry != root; entry = entry.next) {
+                consumer.accept(entry);
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getExpiration(), ((TimerTaskList) o).getExpiration());
+        }
+    }
+
+    /**
+     * 包装 TimerTask，同时作为时间格链表的节点（侵入式链表，无需额外分配节点）
+     */
+    private static final class TimerTaskEntry implements TimerFuture {
+
+        private static final int WAITING = 0;
+        private static final int RUNNING = 1;
+        private static final int FINISHED = 2;
+        private static final int CANCELED = 3;
+
+        private final TimerTask timerTask;
+        private final long targetTime;
+
+        private volatile int status = WAITING;
+
+        private volatile TimerTaskList list;
+        private TimerTaskEntry prev;
+        private TimerTaskEntry next;
+
+        TimerTaskEntry(TimerTask timerTask, long targetTime) {
+            this.timerTask = timerTask;
+            this.targetTime = targetTime;
+        }
+
+        void remove() {
+            TimerTaskList currentList = list;
+            // 并发降级时任务可能被移动到其他时间格，需要循环直到确实被移除
+            while (currentList != null) {
+                currentList.remove(this);
+                currentList = list;
+            }
+        }
+
+        @Override
+        public TimerTask getTask() {
+            return timerTask;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (this) {
+                if (status != WAITING) {
+                    return false;
+                }
+                status = CANCELED;
+            }
+            remove();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return status == CANCELED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return status == FINISHED;
+        }
+    }
+}
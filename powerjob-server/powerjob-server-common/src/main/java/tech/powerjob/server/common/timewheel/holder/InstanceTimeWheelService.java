@@ -1,7 +1,7 @@
 package tech.powerjob.server.common.timewheel.holder;
 
-import tech.powerjob.server.common.timewheel.HashedWheelTimer;
-import tech.powerjob.server.common.timewheel.Timer;
+import tech.powerjob.server.common.timewheel.HierarchicalWheelTimer;
+import tech.powerjob.server.common.metrics.Histogram;
 import tech.powerjob.server.common.timewheel.TimerFuture;
 import tech.powerjob.server.common.timewheel.TimerTask;
 import com.google.common.collect.Maps;
@@ -11,31 +11,30 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * 定时调度任务实例
+ * 使用分层时间轮，任意延迟的任务都只需调度一次，不再需要借助非精确时间轮中转长延迟任务
  *
  * @author tjq
  * @since 2020/7/25
  */
 public class InstanceTimeWheelService {
 
-    private static final Map<Long, TimerFuture> CARGO = Maps.newConcurrentMap();
-
     /**
-     * 精确调度时间轮，每 1MS 走一格
+     * 唯一 ID -> 时间轮任务句柄
+     * 时间轮的句柄本身支持取消，但取消请求（{@code InstanceService#cancelInstance}）只携带实例 ID，来自 OpenAPI 或者其他 server 的转发，
+     * 调用方并不持有句柄，因此仍需要按 ID 索引；任务执行或者被取消后移出索引
      */
-    private static final Timer TIMER = new HashedWheelTimer(1, 4096, Runtime.getRuntime().availableProcessors() * 4);
+    private static final Map<Long, TimerFuture> CARGO = Maps.newConcurrentMap();
+
     /**
-     * 非精确调度时间轮，用于处理高延迟任务，每 10S 走一格
+     * 精确调度时间轮，最底层每 1MS 走一格，超出范围的任务自动进入上层时间轮
      */
-    private static final Timer SLOW_TIMER = new HashedWheelTimer(10000, 12, 0);
+    private static final HierarchicalWheelTimer TIMER = new HierarchicalWheelTimer(1, 512, Runtime.getRuntime().availableProcessors() * 4);
 
     /**
      * 支持取消的时间间隔，低于该阈值则不会放进 CARGO
+     * 延迟过短的任务在取消请求到达前大概率已经触发，且可能先于写入索引触发，写入后无法再被移除
      */
     private static final long MIN_INTERVAL_MS = 1000;
-    /**
-     * 长延迟阈值
-     */
-    private static final long LONG_DELAY_THRESHOLD_MS = 60000;
 
     /**
      * 定时调度
@@ -44,17 +43,13 @@ public class InstanceTimeWheelService {
      * @param timerTask 需要执行的目标方法
      */
     public static void schedule(Long uniqueId, Long delayMS, TimerTask timerTask) {
-        if (delayMS <= LONG_DELAY_THRESHOLD_MS) {
-            realSchedule(uniqueId, delayMS, timerTask);
-            return;
-        }
-
-        long expectTriggerTime = System.currentTimeMillis() + delayMS;
-        TimerFuture longDelayTask = SLOW_TIMER.schedule(() -> {
+        TimerFuture timerFuture = TIMER.schedule(() -> {
             CARGO.remove(uniqueId);
-            realSchedule(uniqueId, expectTriggerTime - System.currentTimeMillis(), timerTask);
-        }, delayMS - LONG_DELAY_THRESHOLD_MS, TimeUnit.MILLISECONDS);
-        CARGO.put(uniqueId, longDelayTask);
+            timerTask.run();
+        }, delayMS, TimeUnit.MILLISECONDS);
+        if (delayMS > MIN_INTERVAL_MS) {
+            CARGO.put(uniqueId, new IndexedTimerFuture(uniqueId, timerFuture));
+        }
     }
 
     /**
@@ -66,14 +61,50 @@ public class InstanceTimeWheelService {
         return CARGO.get(uniqueId);
     }
 
+    /**
+     * 获取任务触发延迟分布，用于确认任务是否准时触发
+     * @return 直方图，单位毫秒
+     */
+    public static Histogram fetchLateness() {
+        return TIMER.getLateness();
+    }
 
-    private static void realSchedule(Long uniqueId, Long delayMS, TimerTask timerTask) {
-        TimerFuture timerFuture = TIMER.schedule(() -> {
-            CARGO.remove(uniqueId);
-            timerTask.run();
-        }, delayMS, TimeUnit.MILLISECONDS);
-        if (delayMS > MIN_INTERVAL_MS) {
-            CARGO.put(uniqueId, timerFuture);
+    /**
+     * 取消成功后移出索引，避免已取消的任务一直留在 CARGO 中
+     */
+    private static final class IndexedTimerFuture implements TimerFuture {
+
+        private final Long uniqueId;
+
+        private final TimerFuture delegate;
+
+        private IndexedTimerFuture(Long uniqueId, TimerFuture delegate) {
+            this.uniqueId = uniqueId;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TimerTask getTask() {
+            return delegate.getTask();
+        }
+
+        @Override
+        public boolean cancel() {
+            boolean success = delegate.cancel();
+            if (success) {
+                CARGO.remove(uniqueId, this);
+            }
+            return success;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return delegate.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return delegate.isDone();
         }
     }
 
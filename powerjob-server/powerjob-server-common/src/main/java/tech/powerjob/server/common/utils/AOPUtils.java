@@ -11,6 +11,8 @@ import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
@@ -26,6 +28,10 @@ import java.lang.reflect.Method;
 public class AOPUtils {
 
     private static final ExpressionParser PARSER = new SpelExpressionParser();
+    /**
+     * 表达式多次执行后编译为字节码，编译失败时退化为解释执行
+     */
+    private static final ExpressionParser COMPILED_PARSER = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, AOPUtils.class.getClassLoader()));
     private static final ParameterNameDiscoverer DISCOVERER = new LocalVariableTableParameterNameDiscoverer();
 
     public static String parseRealClassName(JoinPoint joinPoint) {
@@ -49,6 +55,19 @@ public class AOPUtils {
         return method;
     }
 
+    public static String[] parseParameterNames(Method method) {
+        return DISCOVERER.getParameterNames(method);
+    }
+
+    /**
+     * 预先解析 SpEL 表达式，供需要反复执行的场景复用
+     * @param spEl SpEL 表达式
+     * @return 表达式
+     */
+    public static Expression compileSpEl(String spEl) {
+        return COMPILED_PARSER.parseExpression(spEl);
+    }
+
     public static <T> T parseSpEl(Method method, Object[] arguments, String spEl, Class<T> clazz, T defaultResult) {
         String[] params = DISCOVERER.getParameterNames(method);
         assert params != null;
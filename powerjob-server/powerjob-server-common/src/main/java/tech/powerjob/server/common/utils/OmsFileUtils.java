@@ -62,6 +62,14 @@ public class OmsFileUtils {
         return genH2BasePath() + CommonUtils.genUUID() + "/";
     }
 
+    /**
+     * 获取调度日志（待触发实例）的存放路径
+     * @return 调度日志存放路径
+     */
+    public static String genJournalPath() {
+        return COMMON_PATH + "journal/";
+    }
+
     /**
      * 将文本写入文件
      * @param content 文本内容
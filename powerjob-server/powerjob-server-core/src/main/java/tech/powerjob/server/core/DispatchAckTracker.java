@@ -0,0 +1,232 @@
+package tech.powerjob.server.core;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.RemoteConstant;
+import tech.powerjob.common.request.ServerQueryInstanceStatusReq;
+import tech.powerjob.common.response.AskResponse;
+import tech.powerjob.remote.framework.base.URL;
+import tech.powerjob.server.common.module.WorkerInfo;
+import tech.powerjob.server.common.utils.SpringUtils;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.remote.transporter.TransportService;
+import tech.powerjob.server.remote.transporter.impl.ServerURLFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static tech.powerjob.common.enums.InstanceStatus.WAITING_WORKER_RECEIVE;
+
+/**
+ * 派发回执跟踪
+ * 派发时要求 worker 回执（{@link tech.powerjob.common.request.ServerScheduleJobReq#getReceiptAddress()}），超过 deadline 仍未收到回执的实例
+ * 立即重置为等待派发并重新派发，目标机器在一段时间内降低优先级，派发到下一台候选机器；无需等待 WAITING_WORKER_RECEIVE 的超时检查
+ * 回执可能因为 GC、网络抖动而延迟，因此 deadline 至少为数秒，且重新派发前先向原 TaskTracker 确认实例尚未被接收，避免同一实例被执行两次
+ * 注意：开启后要求所有 worker 均支持回执上报（reportDispatchReceipt）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class DispatchAckTracker implements DisposableBean {
+
+    /**
+     * 单个实例因未收到回执而重新派发的最大次数，超过后交由 InstanceStatusCheckService 处理
+     */
+    private static final int MAX_REDISPATCH_TIMES = 2;
+
+    /**
+     * worker 批量上报回执的间隔（10ms）以及共享线程池的排队时间都会延迟回执，deadline 不允许低于该值
+     */
+    private static final long MIN_DEADLINE_MS = 5000;
+
+    private static final int REDISPATCH_THREAD_NUM = 4;
+
+    private final long deadline;
+
+    /**
+     * instanceId -> 等待回执的派发记录
+     */
+    private final Map<Long, PendingDispatch> instanceId2Pending = Maps.newConcurrentMap();
+    /**
+     * 未按时回执的机器，在一段时间内降低优先级
+     */
+    private final Cache<String, Long> suspectWorkers = CacheBuilder.newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
+
+    private final Cache<Long, Integer> instanceId2RedispatchTimes = CacheBuilder.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 登记之前就已经到达的回执（instanceId -> worker 地址），登记时直接视为已回执
+     */
+    private final Cache<Long, String> earlyReceipts = CacheBuilder.newBuilder()
+            .maximumSize(100000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    private final TransportService transportService;
+
+    private final ScheduledExecutorService checkPool;
+    /**
+     * 重新派发涉及查询 worker 以及数据库操作，不占用检查线程
+     */
+    private final ExecutorService redispatchPool;
+
+    public DispatchAckTracker(@Value("${oms.schedule.dispatch-ack.deadline:0}") long deadline,
+                              TransportService transportService) {
+        this.deadline = deadline > 0 ? Math.max(deadline, MIN_DEADLINE_MS) : 0;
+        this.transportService = transportService;
+        if (isEnable()) {
+            long checkInterval = Math.max(this.deadline / 4, 10);
+            checkPool = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("DispatchAckTracker-%d").setDaemon(true).build());
+            checkPool.scheduleWithFixedDelay(this::checkExpired, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+            redispatchPool = new ThreadPoolExecutor(REDISPATCH_THREAD_NUM, REDISPATCH_THREAD_NUM, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("DispatchAckTracker-redispatch-%d").setDaemon(true).build());
+        } else {
+            checkPool = null;
+            redispatchPool = null;
+        }
+        log.info("[DispatchAckTracker] dispatch ack deadline: {}ms", this.deadline);
+    }
+
+    public boolean isEnable() {
+        return deadline > 0;
+    }
+
+    /**
+     * 登记等待回执的派发，需要在实例状态成功更新为 WAITING_WORKER_RECEIVE 之后调用（此前到达的回执会被暂存）
+     * @param jobInfo 任务信息
+     * @param instanceId 任务实例ID
+     * @param protocol 目标 TaskTracker 使用的协议
+     * @param workerAddress 目标 TaskTracker 地址
+     */
+    public void track(JobInfoDO jobInfo, Long instanceId, String protocol, String workerAddress) {
+        if (earlyReceipts.asMap().remove(instanceId, workerAddress)) {
+            return;
+        }
+        instanceId2Pending.put(instanceId, new PendingDispatch(jobInfo, protocol, workerAddress, System.currentTimeMillis() + deadline));
+    }
+
+    /**
+     * 处理 worker 上报的回执
+     * @param workerAddress worker 地址
+     * @param instanceIds 已收到调度请求的实例
+     */
+    public void ack(String workerAddress, List<Long> instanceIds) {
+        for (Long instanceId : instanceIds) {
+            if (instanceId2Pending.computeIfPresent(instanceId, (ignore, pending) -> pending.workerAddress.equals(workerAddress) ? null : pending) == null) {
+                earlyReceipts.put(instanceId, workerAddress);
+            }
+        }
+    }
+
+    /**
+     * 将近期未按时回执的机器移动到列表末尾（全部未按时回执时仍然可以派发）
+     * @param workers 候选机器
+     * @return 调整后的候选机器
+     */
+    public List<WorkerInfo> deprioritizeSuspects(List<WorkerInfo> workers) {
+        if (suspectWorkers.size() == 0) {
+            return workers;
+        }
+        List<WorkerInfo> res = Lists.newArrayListWithCapacity(workers.size());
+        List<WorkerInfo> suspects = Lists.newArrayList();
+        for (WorkerInfo worker : workers) {
+            if (suspectWorkers.getIfPresent(worker.getAddress()) == null) {
+                res.add(worker);
+            } else {
+                suspects.add(worker);
+            }
+        }
+        res.addAll(suspects);
+        return res;
+    }
+
+    private void checkExpired() {
+        long now = System.currentTimeMillis();
+        instanceId2Pending.forEach((instanceId, pending) -> {
+            if (pending.deadline > now || !instanceId2Pending.remove(instanceId, pending)) {
+                return;
+            }
+            redispatchPool.execute(() -> {
+                try {
+                    redispatch(instanceId, pending);
+                } catch (Throwable t) {
+                    log.error("[DispatchAckTracker] redispatch instance({}) failed.", instanceId, t);
+                }
+            });
+        });
+    }
+
+    private void redispatch(Long instanceId, PendingDispatch pending) {
+        if (acceptedByWorker(instanceId, pending)) {
+            log.info("[DispatchAckTracker] receipt of instance({}) from TaskTracker({}) is late but the instance has been accepted, skip redispatch.", instanceId, pending.workerAddress);
+            return;
+        }
+        suspectWorkers.put(pending.workerAddress, System.currentTimeMillis());
+        int times = instanceId2RedispatchTimes.asMap().merge(instanceId, 1, Integer::sum);
+        if (times > MAX_REDISPATCH_TIMES) {
+            log.warn("[DispatchAckTracker] no receipt of instance({}) from TaskTracker({}) and redispatch times exceed the limit, waiting for InstanceStatusChecker.", instanceId, pending.workerAddress);
+            return;
+        }
+        log.warn("[DispatchAckTracker] no receipt of instance({}) from TaskTracker({}) within {}ms, try to redispatch.", instanceId, pending.workerAddress, deadline);
+        // 通过代理对象调用，保证锁生效；实例已经被 worker 接收（状态不再是 WAITING_WORKER_RECEIVE）时重置失败，再次派发也会直接跳过
+        DispatchService dispatchService = SpringUtils.getBean(DispatchService.class);
+        dispatchService.redispatchAsync(instanceId, WAITING_WORKER_RECEIVE.getV());
+        dispatchService.dispatch(pending.jobInfo, instanceId, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * 向原 TaskTracker 查询实例，存在说明回执只是迟到，实例已经被接收
+     * 无法连接时视为未接收（与 WAITING_WORKER_RECEIVE 的超时检查一致）
+     */
+    private boolean acceptedByWorker(Long instanceId, PendingDispatch pending) {
+        try {
+            URL url = ServerURLFactory.queryInstance2Worker(pending.workerAddress);
+            AskResponse askResponse = transportService.ask(pending.protocol, url, new ServerQueryInstanceStatusReq(instanceId), AskResponse.class)
+                    .toCompletableFuture()
+                    .get(RemoteConstant.DEFAULT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return askResponse.isSuccess();
+        } catch (Exception e) {
+            log.warn("[DispatchAckTracker] query instance({}) from TaskTracker({}) failed: {}", instanceId, pending.workerAddress, e.toString());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (checkPool != null) {
+            checkPool.shutdownNow();
+        }
+        if (redispatchPool != null) {
+            redispatchPool.shutdownNow();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class PendingDispatch {
+        private final JobInfoDO jobInfo;
+        private final String protocol;
+        private final String workerAddress;
+        private final long deadline;
+    }
+}
@@ -0,0 +1,281 @@
+package tech.powerjob.server.core;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.server.common.module.WorkerInfo;
+import tech.powerjob.server.common.utils.SpringUtils;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.remote.worker.ClusterStatusHolder;
+import tech.powerjob.server.remote.worker.WorkerClusterQueryService;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 派发准入控制
+ * 1. 每个应用一个令牌桶，限制派发速率，超出速率的实例在内存中排队
+ * 2. 所有 worker 均超载时实例同样在内存中排队，而不是保持 WAITING_DISPATCH 等待 InstanceStatusCheckService 反复查库重试
+ * 3. 后台线程定期按应用轮流释放排队的实例（公平共享），跳过所有 worker 均超载（心跳上报）的应用，
+ *    以及候选 worker（过滤、指定机器后）均超载的任务，这部分实例保持排队且不消耗令牌
+ * 4. 释放的实例交给派发线程池执行，释放线程不执行数据库操作
+ * 排队的实例在数据库中仍然是 WAITING_DISPATCH，队列已满或 server 重启时由 InstanceStatusCheckService 兜底
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class DispatchAdmissionController implements DisposableBean {
+
+    private static final long RELEASE_INTERVAL_MS = 100;
+    /**
+     * 单次最多释放的实例数量，由各个应用轮流分享
+     */
+    private static final int MAX_RELEASE_PER_ROUND = 1024;
+
+    private final boolean enable;
+
+    private final double permitsPerApp;
+
+    private final int queueSizePerApp;
+
+    private final WorkerClusterQueryService workerClusterQueryService;
+
+    private final Map<Long, AppAdmission> appId2Admission = Maps.newConcurrentMap();
+
+    private final Set<Long> parkedInstanceIds = Sets.newConcurrentHashSet();
+    /**
+     * 释放时已经获取过令牌的实例，再次进入派发流程时不重复获取
+     */
+    private final Cache<Long, Boolean> admittedInstanceIds = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    private final ScheduledExecutorService releasePool;
+    /**
+     * 执行释放的实例的派发
+     */
+    private final ThreadPoolExecutor dispatchPool;
+
+    public DispatchAdmissionController(@Value("${oms.schedule.admission.enable:false}") boolean enable,
+                                       @Value("${oms.schedule.admission.rate-per-app:0}") double permitsPerApp,
+                                       @Value("${oms.schedule.admission.queue-size-per-app:10000}") int queueSizePerApp,
+                                       WorkerClusterQueryService workerClusterQueryService) {
+        this.enable = enable;
+        this.permitsPerApp = permitsPerApp;
+        this.queueSizePerApp = Math.max(queueSizePerApp, 1);
+        this.workerClusterQueryService = workerClusterQueryService;
+        if (enable) {
+            releasePool = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("DispatchAdmission-%d").setDaemon(true).build());
+            releasePool.scheduleWithFixedDelay(this::releaseSafely, RELEASE_INTERVAL_MS, RELEASE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            int dispatchThreads = Runtime.getRuntime().availableProcessors();
+            dispatchPool = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("DispatchAdmission-dispatch-%d").setDaemon(true).build());
+            log.info("[DispatchAdmission] admission control enabled, permits per app: {}/s, queue size per app: {}", permitsPerApp, queueSizePerApp);
+        } else {
+            releasePool = null;
+            dispatchPool = null;
+        }
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * 申请派发，无可用令牌或者应用已有排队的实例（保证先来先派发）时进入等待队列
+     * @param jobInfo 任务信息
+     * @param instanceId 任务实例ID
+     * @return 允许立即派发时返回 true
+     */
+    public boolean tryAdmit(JobInfoDO jobInfo, Long instanceId) {
+        if (admittedInstanceIds.asMap().remove(instanceId) != null) {
+            return true;
+        }
+        AppAdmission admission = fetchAdmission(jobInfo.getAppId());
+        synchronized (admission) {
+            if (admission.queue.isEmpty() && admission.tryAcquire(System.currentTimeMillis())) {
+                return true;
+            }
+        }
+        park(jobInfo, instanceId);
+        return false;
+    }
+
+    /**
+     * 实例进入等待队列，队列已满时放弃（实例保持 WAITING_DISPATCH，由 InstanceStatusCheckService 重新派发）
+     * @param jobInfo 任务信息
+     * @param instanceId 任务实例ID
+     */
+    public void park(JobInfoDO jobInfo, Long instanceId) {
+        if (!parkedInstanceIds.add(instanceId)) {
+            return;
+        }
+        AppAdmission admission = fetchAdmission(jobInfo.getAppId());
+        synchronized (admission) {
+            if (admission.queue.size() < queueSizePerApp) {
+                admission.queue.offer(new ParkedInstance(jobInfo, instanceId));
+                return;
+            }
+        }
+        parkedInstanceIds.remove(instanceId);
+        log.warn("[DispatchAdmission] admission queue of app({}) is full, instance({}) will be redispatched by InstanceStatusChecker later.", jobInfo.getAppId(), instanceId);
+    }
+
+    /**
+     * 实例是否在内存中排队
+     * @param instanceId 任务实例ID
+     * @return 排队中返回 true
+     */
+    public boolean isParked(Long instanceId) {
+        return parkedInstanceIds.contains(instanceId);
+    }
+
+    private AppAdmission fetchAdmission(Long appId) {
+        return appId2Admission.computeIfAbsent(appId, ignore -> new AppAdmission(permitsPerApp > 0 ? new TokenBucket(permitsPerApp, System.currentTimeMillis()) : null));
+    }
+
+    private void releaseSafely() {
+        try {
+            release();
+        } catch (Throwable t) {
+            log.error("[DispatchAdmission] release parked instances failed.", t);
+        }
+    }
+
+    private void release() {
+        // 上一轮释放的实例尚未派发完成时减少本轮释放的数量
+        int releaseLimit = MAX_RELEASE_PER_ROUND - dispatchPool.getQueue().size();
+        if (releaseLimit <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<AppAdmission> releasable = Lists.newLinkedList();
+        Map<Long, ClusterStatusHolder> appId2ClusterStatus = workerClusterQueryService.getAppId2ClusterStatus();
+        appId2Admission.forEach((appId, admission) -> {
+            if (!admission.queue.isEmpty() && !allWorkerOverload(appId2ClusterStatus.get(appId))) {
+                releasable.add(admission);
+            }
+        });
+        // 本轮中候选 worker 是否均超载（按任务缓存），以及因此暂缓释放的实例（保持原有顺序）
+        Map<Long, Boolean> jobId2Blocked = Maps.newHashMap();
+        Map<AppAdmission, List<ParkedInstance>> deferred = Maps.newHashMap();
+        List<ParkedInstance> released = Lists.newArrayList();
+        // 各个应用轮流释放一个实例，直到令牌耗尽、队列为空或者达到单次释放上限
+        while (!releasable.isEmpty() && released.size() < releaseLimit) {
+            Iterator<AppAdmission> iterator = releasable.iterator();
+            while (iterator.hasNext() && released.size() < releaseLimit) {
+                AppAdmission admission = iterator.next();
+                ParkedInstance parkedInstance = null;
+                boolean exhausted = false;
+                synchronized (admission) {
+                    ParkedInstance head;
+                    while ((head = admission.queue.peek()) != null) {
+                        JobInfoDO jobInfo = head.jobInfo;
+                        if (jobId2Blocked.computeIfAbsent(jobInfo.getId(), ignore -> workerClusterQueryService.allSuitableWorkersOverload(jobInfo))) {
+                            deferred.computeIfAbsent(admission, ignore -> Lists.newArrayList()).add(admission.queue.poll());
+                            continue;
+                        }
+                        if (admission.tryAcquire(now)) {
+                            parkedInstance = admission.queue.poll();
+                        }
+                        break;
+                    }
+                    if (parkedInstance == null) {
+                        exhausted = true;
+                    }
+                }
+                if (exhausted) {
+                    iterator.remove();
+                    continue;
+                }
+                released.add(parkedInstance);
+            }
+        }
+        // 暂缓释放的实例放回队首
+        deferred.forEach((admission, instances) -> {
+            synchronized (admission) {
+                for (int i = instances.size() - 1; i >= 0; i--) {
+                    admission.queue.offerFirst(instances.get(i));
+                }
+            }
+        });
+        if (released.isEmpty()) {
+            return;
+        }
+        DispatchService dispatchService = SpringUtils.getBean(DispatchService.class);
+        for (ParkedInstance parkedInstance : released) {
+            admittedInstanceIds.put(parkedInstance.instanceId, Boolean.TRUE);
+            parkedInstanceIds.remove(parkedInstance.instanceId);
+            dispatchPool.execute(() -> {
+                try {
+                    dispatchService.dispatchOnTrigger(parkedInstance.jobInfo, parkedInstance.instanceId);
+                } catch (Throwable t) {
+                    log.error("[DispatchAdmission] dispatch released instance({}) failed.", parkedInstance.instanceId, t);
+                }
+            });
+        }
+        log.info("[DispatchAdmission] release {} parked instances.", released.size());
+    }
+
+    /**
+     * 存在存活的 worker 且全部超载（没有存活的 worker 时照常释放，由派发流程标记失败）
+     */
+    private static boolean allWorkerOverload(ClusterStatusHolder clusterStatusHolder) {
+        if (clusterStatusHolder == null) {
+            return false;
+        }
+        boolean anyAlive = false;
+        for (WorkerInfo workerInfo : clusterStatusHolder.getAllWorkers().values()) {
+            if (workerInfo.timeout()) {
+                continue;
+            }
+            if (!workerInfo.overload()) {
+                return false;
+            }
+            anyAlive = true;
+        }
+        return anyAlive;
+    }
+
+    @Override
+    public void destroy() {
+        if (releasePool != null) {
+            releasePool.shutdownNow();
+            dispatchPool.shutdown();
+        }
+    }
+
+    private static class AppAdmission {
+
+        private final TokenBucket tokenBucket;
+
+        private final Deque<ParkedInstance> queue = new ArrayDeque<>();
+
+        AppAdmission(TokenBucket tokenBucket) {
+            this.tokenBucket = tokenBucket;
+        }
+
+        /**
+         * 未限制速率时总是成功
+         */
+        boolean tryAcquire(long now) {
+            return tokenBucket == null || tokenBucket.tryAcquire(now);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ParkedInstance {
+        private final JobInfoDO jobInfo;
+        private final Long instanceId;
+    }
+}
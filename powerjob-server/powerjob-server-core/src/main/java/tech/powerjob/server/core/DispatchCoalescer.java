@@ -0,0 +1,241 @@
+package tech.powerjob.server.core;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.request.ServerScheduleJobBatchReq;
+import tech.powerjob.common.request.ServerScheduleJobReq;
+import tech.powerjob.remote.framework.base.URL;
+import tech.powerjob.server.common.module.WorkerInfo;
+import tech.powerjob.server.core.instance.RunningInstanceCounter;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+import tech.powerjob.server.remote.transporter.TransportService;
+import tech.powerjob.server.remote.transporter.impl.ServerURLFactory;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static tech.powerjob.common.enums.InstanceStatus.WAITING_DISPATCH;
+import static tech.powerjob.common.enums.InstanceStatus.WAITING_WORKER_RECEIVE;
+
+/**
+ * 派发请求合并器
+ * 短时间窗口内派发到同一个 TaskTracker 的任务实例合并为一次请求（{@link ServerScheduleJobBatchReq}），
+ * 实例状态同样合并为一条 UPDATE 语句，适用于大量任务在同一时刻触发的场景
+ * 合并期间实例在数据库中仍然是 WAITING_DISPATCH，由内存中的待发送标记（{@link #isPending(Long)}）防止重复派发
+ * 不支持批量调度请求（runJobBatch）的 worker 仍然逐个发送调度请求，只合并状态更新，中途发送失败时只有已发送的实例更新状态
+ * 等待发送期间被取消（{@link #cancel(Long)}）的实例不再发送
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class DispatchCoalescer implements DisposableBean {
+
+    /**
+     * 单个请求最多包含的实例数量，达到后立即发送
+     */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final long window;
+
+    private final TransportService transportService;
+
+    private final InstanceInfoRepository instanceInfoRepository;
+
+    private final RunningInstanceCounter runningInstanceCounter;
+
+    private final Map<WorkerKey, PendingQueue> worker2PendingReqs = Maps.newConcurrentMap();
+    /**
+     * 已提交但尚未发送并更新状态的实例 -> 是否已开始发送（开始发送后不允许取消）
+     */
+    private final Map<Long, Boolean> pendingInstances = Maps.newConcurrentMap();
+
+    private final ScheduledExecutorService flushPool;
+
+    public DispatchCoalescer(@Value("${oms.schedule.dispatch-batch.window:0}") long window, TransportService transportService,
+                             InstanceInfoRepository instanceInfoRepository, RunningInstanceCounter runningInstanceCounter) {
+        this.window = Math.max(window, 0);
+        this.transportService = transportService;
+        this.instanceInfoRepository = instanceInfoRepository;
+        this.runningInstanceCounter = runningInstanceCounter;
+        if (isEnable()) {
+            flushPool = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("DispatchCoalescer-%d").setDaemon(true).build());
+            flushPool.scheduleWithFixedDelay(this::flushAll, this.window, this.window, TimeUnit.MILLISECONDS);
+        } else {
+            flushPool = null;
+        }
+        log.info("[DispatchCoalescer] dispatch batch window: {}ms", this.window);
+    }
+
+    public boolean isEnable() {
+        return window > 0;
+    }
+
+    /**
+     * 实例是否已提交、等待合并发送
+     * @param instanceId 任务实例ID
+     * @return 等待发送时返回 true
+     */
+    public boolean isPending(Long instanceId) {
+        return pendingInstances.containsKey(instanceId);
+    }
+
+    /**
+     * 取消等待发送的实例
+     * @param instanceId 任务实例ID
+     * @return 实例尚未开始发送、取消成功时返回 true
+     */
+    public boolean cancel(Long instanceId) {
+        return pendingInstances.remove(instanceId, Boolean.FALSE);
+    }
+
+    /**
+     * 提交派发请求，在下一个窗口统一发送并更新实例状态（WAITING_DISPATCH -> WAITING_WORKER_RECEIVE）
+     * 需要在持有实例（任务）维度的派发锁时调用
+     * @param taskTracker 目标 TaskTracker
+     * @param req 调度请求
+     */
+    public void submit(WorkerInfo taskTracker, ServerScheduleJobReq req) {
+        pendingInstances.put(req.getInstanceId(), Boolean.FALSE);
+        WorkerKey key = new WorkerKey(taskTracker.getProtocol(), taskTracker.getAddress(), taskTracker.isSupportBatchDispatch());
+        // 与移除空队列互斥，防止请求写入已经被移除的队列
+        PendingQueue pendingQueue = worker2PendingReqs.compute(key, (ignore, queue) -> {
+            PendingQueue q = queue == null ? new PendingQueue() : queue;
+            q.offer(req);
+            return q;
+        });
+        if (pendingQueue.size() >= MAX_BATCH_SIZE) {
+            flush(key, pendingQueue);
+        }
+    }
+
+    private void flushAll() {
+        worker2PendingReqs.forEach((key, pendingQueue) -> {
+            try {
+                flush(key, pendingQueue);
+            } catch (Throwable t) {
+                log.error("[DispatchCoalescer] flush dispatch requests to {} failed.", key.address, t);
+            }
+            worker2PendingReqs.computeIfPresent(key, (ignore, queue) -> queue.size() == 0 ? null : queue);
+        });
+    }
+
+    private void flush(WorkerKey key, PendingQueue pendingQueue) {
+        List<ServerScheduleJobReq> reqs = Lists.newArrayListWithCapacity(Math.min(pendingQueue.size(), MAX_BATCH_SIZE));
+        ServerScheduleJobReq req;
+        while ((req = pendingQueue.poll()) != null) {
+            reqs.add(req);
+            if (reqs.size() >= MAX_BATCH_SIZE) {
+                send(key, reqs);
+                reqs = Lists.newArrayListWithCapacity(MAX_BATCH_SIZE);
+            }
+        }
+        if (!reqs.isEmpty()) {
+            send(key, reqs);
+        }
+    }
+
+    private void send(WorkerKey key, List<ServerScheduleJobReq> reqs) {
+        long current = System.currentTimeMillis();
+        try {
+            // 标记为发送中，标记失败说明等待期间已被取消
+            List<ServerScheduleJobReq> sendingReqs = Lists.newArrayListWithCapacity(reqs.size());
+            for (ServerScheduleJobReq r : reqs) {
+                if (pendingInstances.replace(r.getInstanceId(), Boolean.FALSE, Boolean.TRUE)) {
+                    sendingReqs.add(r);
+                } else {
+                    log.info("[DispatchCoalescer] instance({}) has been canceled, skip dispatch.", r.getInstanceId());
+                    runningInstanceCounter.release(r.getInstanceId());
+                }
+            }
+            if (sendingReqs.isEmpty()) {
+                return;
+            }
+            List<Long> sentInstanceIds = Lists.newArrayListWithCapacity(sendingReqs.size());
+            try {
+                if (key.supportBatch) {
+                    transportService.tell(key.protocol, ServerURLFactory.dispatchJobBatch2Worker(key.address), new ServerScheduleJobBatchReq(sendingReqs));
+                    sendingReqs.forEach(r -> sentInstanceIds.add(r.getInstanceId()));
+                } else {
+                    URL workerUrl = ServerURLFactory.dispatchJob2Worker(key.address);
+                    for (ServerScheduleJobReq r : sendingReqs) {
+                        transportService.tell(key.protocol, workerUrl, r);
+                        sentInstanceIds.add(r.getInstanceId());
+                    }
+                }
+            } catch (Exception e) {
+                // 未发送的实例保持 WAITING_DISPATCH，由 InstanceStatusCheckService 重新派发；已发送的实例照常更新状态
+                List<Long> unsentInstanceIds = Lists.newArrayListWithCapacity(sendingReqs.size() - sentInstanceIds.size());
+                sendingReqs.subList(sentInstanceIds.size(), sendingReqs.size()).forEach(r -> unsentInstanceIds.add(r.getInstanceId()));
+                log.error("[DispatchCoalescer] send {} schedule requests to TaskTracker[protocol:{},address:{}] failed, instances will be redispatched later: {}.", unsentInstanceIds.size(), key.protocol, key.address, unsentInstanceIds, e);
+                unsentInstanceIds.forEach(runningInstanceCounter::release);
+            }
+            if (sentInstanceIds.isEmpty()) {
+                return;
+            }
+            log.info("[DispatchCoalescer] send {} schedule requests to TaskTracker[protocol:{},address:{}] successfully: {}.", sentInstanceIds.size(), key.protocol, key.address, sentInstanceIds);
+            instanceInfoRepository.update4TriggerSucceedBatch(sentInstanceIds, WAITING_WORKER_RECEIVE.getV(), current, key.address, new Date(), WAITING_DISPATCH.getV());
+        } finally {
+            // 状态更新后再移除标记
+            reqs.forEach(r -> pendingInstances.remove(r.getInstanceId()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (flushPool != null) {
+            flushPool.shutdown();
+            flushAll();
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class WorkerKey {
+        private String protocol;
+        private String address;
+        /**
+         * worker 是否支持批量调度请求
+         */
+        private boolean supportBatch;
+    }
+
+    /**
+     * 待发送的请求，单独计数避免 ConcurrentLinkedQueue#size 的遍历开销
+     */
+    private static class PendingQueue {
+
+        private final Queue<ServerScheduleJobReq> reqs = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        void offer(ServerScheduleJobReq req) {
+            reqs.offer(req);
+            size.incrementAndGet();
+        }
+
+        ServerScheduleJobReq poll() {
+            ServerScheduleJobReq req = reqs.poll();
+            if (req != null) {
+                size.decrementAndGet();
+            }
+            return req;
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+}
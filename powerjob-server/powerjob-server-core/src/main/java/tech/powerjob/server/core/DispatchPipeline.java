@@ -0,0 +1,73 @@
+package tech.powerjob.server.core;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+
+/**
+ * 异步派发流水线
+ * 时间轮到期后只把派发任务投递到有界队列，数据库读写、机器选择等工作由独立的线程池完成，时间轮线程不会被阻塞；
+ * 队列已满时直接丢弃，实例保持 WAITING_DISPATCH 状态，由 InstanceStatusCheckService 兜底重新派发
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class DispatchPipeline implements DisposableBean {
+
+    private final boolean enable;
+
+    private final ThreadPoolExecutor executor;
+
+    public DispatchPipeline(@Value("${oms.schedule.dispatch-async.enable:false}") boolean enable,
+                            @Value("${oms.schedule.dispatch-async.thread-num:0}") int threadNum,
+                            @Value("${oms.schedule.dispatch-async.queue-size:8192}") int queueSize) {
+        this.enable = enable;
+        if (enable) {
+            int threads = threadNum > 0 ? threadNum : Runtime.getRuntime().availableProcessors() * 4;
+            executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(Math.max(queueSize, 1)),
+                    new ThreadFactoryBuilder().setNameFormat("DispatchPipeline-%d").setDaemon(true).build(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            log.info("[DispatchPipeline] async dispatch enabled, threads: {}, queue size: {}", threads, queueSize);
+        } else {
+            executor = null;
+        }
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * 投递任务，不会阻塞调用方
+     * @param task 派发相关的任务
+     * @return 队列已满时返回 false
+     */
+    public boolean submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    log.error("[DispatchPipeline] process task failed.", t);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -3,26 +3,27 @@ package tech.powerjob.server.core;
 import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import tech.powerjob.common.RemoteConstant;
 import tech.powerjob.common.SystemInstanceResult;
-import tech.powerjob.common.enums.ExecuteType;
 import tech.powerjob.common.enums.InstanceStatus;
-import tech.powerjob.common.enums.ProcessorType;
+import tech.powerjob.common.enums.Protocol;
 import tech.powerjob.common.enums.TimeExpressionType;
 import tech.powerjob.common.request.ServerScheduleJobReq;
 import tech.powerjob.remote.framework.base.URL;
 import tech.powerjob.server.common.Holder;
 import tech.powerjob.server.common.module.WorkerInfo;
+import tech.powerjob.server.common.utils.SpringUtils;
 import tech.powerjob.server.core.instance.InstanceManager;
 import tech.powerjob.server.core.instance.InstanceMetadataService;
+import tech.powerjob.server.core.instance.RunningInstanceCounter;
 import tech.powerjob.server.core.lock.UseCacheLock;
+import tech.powerjob.server.core.service.JobInfoCacheService;
 import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
 import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+import tech.powerjob.server.remote.transporter.ProtocolInfo;
 import tech.powerjob.server.remote.transporter.TransportService;
 import tech.powerjob.server.remote.transporter.impl.ServerURLFactory;
 import tech.powerjob.server.remote.worker.WorkerClusterQueryService;
@@ -31,7 +32,8 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static tech.powerjob.common.enums.InstanceStatus.*;
 
@@ -58,6 +60,36 @@ public class DispatchService {
 
     private final InstanceInfoRepository instanceInfoRepository;
 
+    private final RunningInstanceCounter runningInstanceCounter;
+
+    private final DispatchCoalescer dispatchCoalescer;
+
+    private final DispatchPipeline dispatchPipeline;
+
+    private final DispatchAckTracker dispatchAckTracker;
+
+    private final DispatchAdmissionController dispatchAdmissionController;
+
+    private final JobInfoCacheService jobInfoCacheService;
+
+    /**
+     * 时间轮到期后的派发入口，开启异步派发时只投递到派发流水线，不占用时间轮的线程
+     *
+     * @param jobInfo    任务的元信息
+     * @param instanceId 任务实例ID
+     */
+    public void dispatchOnTrigger(JobInfoDO jobInfo, Long instanceId) {
+        // 通过代理对象调用，保证任务维度的锁生效
+        DispatchService self = SpringUtils.getBean(DispatchService.class);
+        if (!dispatchPipeline.isEnable()) {
+            self.dispatch(jobInfo, instanceId, Optional.empty(), Optional.empty());
+            return;
+        }
+        if (!dispatchPipeline.submit(() -> self.dispatch(jobInfo, instanceId, Optional.empty(), Optional.empty()))) {
+            log.warn("[Dispatcher-{}|{}] dispatch pipeline is full, the instance will be redispatched by InstanceStatusChecker later.", jobInfo.getId(), instanceId);
+        }
+    }
+
     /**
      * 异步重新派发
      *
@@ -67,6 +99,7 @@ public class DispatchService {
     public void redispatchAsync(Long instanceId, int originStatus) {
         // 将状态重置为等待派发
         instanceInfoRepository.updateStatusAndGmtModifiedByInstanceIdAndOriginStatus(instanceId, originStatus, InstanceStatus.WAITING_DISPATCH.getV(), new Date());
+        runningInstanceCounter.release(instanceId);
     }
 
     /**
@@ -75,6 +108,7 @@ public class DispatchService {
     public void redispatchBatchAsyncLockFree(List<Long> instanceIdList, int originStatus) {
         // 将状态重置为等待派发
         instanceInfoRepository.updateStatusAndGmtModifiedByInstanceIdListAndOriginStatus(instanceIdList, originStatus, InstanceStatus.WAITING_DISPATCH.getV(), new Date());
+        instanceIdList.forEach(runningInstanceCounter::release);
     }
 
 
@@ -110,6 +144,11 @@ public class DispatchService {
             log.info("[Dispatcher-{}|{}] cancel dispatch due to instance has been dispatched", jobId, instanceId);
             return;
         }
+        // 已经提交给合并器、尚未更新状态
+        if (dispatchCoalescer.isEnable() && dispatchCoalescer.isPending(instanceId)) {
+            log.info("[Dispatcher-{}|{}] cancel dispatch due to instance is waiting for coalesced sending", jobId, instanceId);
+            return;
+        }
         // 任务信息已经被删除
         if (jobInfo.getId() == null) {
             log.warn("[Dispatcher-{}|{}] cancel dispatch due to job(id={}) has been deleted!", jobId, instanceId, jobId);
@@ -117,6 +156,12 @@ public class DispatchService {
             return;
         }
 
+        // 准入控制：超出应用的派发速率时在内存中排队
+        if (dispatchAdmissionController.isEnable() && !dispatchAdmissionController.tryAdmit(jobInfo, instanceId)) {
+            log.info("[Dispatcher-{}|{}] dispatch is throttled, the instance is parked in admission queue.", jobId, instanceId);
+            return;
+        }
+
         Date now = new Date();
         String dbInstanceParams = instanceInfo.getInstanceParams() == null ? "" : instanceInfo.getInstanceParams();
         log.info("[Dispatcher-{}|{}] start to dispatch job: {};instancePrams: {}.", jobId, instanceId, jobInfo, dbInstanceParams);
@@ -133,7 +178,9 @@ public class DispatchService {
         if (maxInstanceNum > 0) {
             // 不统计 WAITING_DISPATCH 的状态：使用 OpenAPI 触发的延迟任务不应该统计进去（比如 delay 是 1 天）
             // 由于不统计 WAITING_DISPATCH，所以这个 runningInstanceCount 不包含本任务自身
-            long runningInstanceCount = instanceInfoRepository.countByJobIdAndStatusIn(jobId, Lists.newArrayList(WAITING_WORKER_RECEIVE.getV(), RUNNING.getV()));
+            // 开启内存计数后直接使用内存中的数据（当前方法持有任务维度的锁，计数与派发成功后的记录不会交叉）
+            long runningInstanceCount = runningInstanceCounter.isEnable() ? runningInstanceCounter.count(jobId)
+                    : instanceInfoRepository.countByJobIdAndStatusIn(jobId, Lists.newArrayList(WAITING_WORKER_RECEIVE.getV(), RUNNING.getV()));
             // 超出最大同时运行限制，不执行调度
             if (runningInstanceCount >= maxInstanceNum) {
                 String result = String.format(SystemInstanceResult.TOO_MANY_INSTANCES, runningInstanceCount, maxInstanceNum);
@@ -160,9 +207,19 @@ public class DispatchService {
             // 直接取消派发，减少一次数据库 io
             overloadOptional.ifPresent(booleanHolder -> booleanHolder.set(true));
             log.warn("[Dispatcher-{}|{}] cancel to dispatch job due to all worker is overload", jobId, instanceId);
+            // 在内存中排队，worker 心跳显示存在空闲时再派发
+            if (dispatchAdmissionController.isEnable()) {
+                dispatchAdmissionController.park(jobInfo, instanceId);
+            }
             return;
         }
-        List<String> workerIpList = suitableWorkers.stream().map(WorkerInfo::getAddress).collect(Collectors.toList());
+        if (dispatchAckTracker.isEnable()) {
+            suitableWorkers = dispatchAckTracker.deprioritizeSuspects(suitableWorkers);
+        }
+        List<String> workerIpList = new ArrayList<>(suitableWorkers.size());
+        for (WorkerInfo suitableWorker : suitableWorkers) {
+            workerIpList.add(suitableWorker.getAddress());
+        }
         // 构造任务调度请求
         ServerScheduleJobReq req = constructServerScheduleJobReq(jobInfo, instanceInfo, workerIpList);
 
@@ -170,16 +227,75 @@ public class DispatchService {
         WorkerInfo taskTracker = suitableWorkers.get(0);
         String taskTrackerAddress = taskTracker.getAddress();
 
+        // 合并发送：实例状态延迟到窗口结束时批量更新，因此只用于不依赖数据库统计运行实例数的任务
+        if (dispatchCoalescer.isEnable() && (maxInstanceNum <= 0 || runningInstanceCounter.isEnable())) {
+            runningInstanceCounter.record(jobId, instanceId);
+            instanceMetadataService.loadJobInfo(instanceId, jobInfo);
+            dispatchCoalescer.submit(taskTracker, req);
+            return;
+        }
+
         URL workerUrl = ServerURLFactory.dispatchJob2Worker(taskTrackerAddress);
+        // 异步派发（仅 HTTP 协议的 worker 会应答调度请求）：先修改状态再发送，发送失败时立即重置为等待派发
+        if (dispatchPipeline.isEnable() && Protocol.of(taskTracker.getProtocol()) == Protocol.HTTP) {
+            instanceInfoRepository.update4TriggerSucceed(instanceId, WAITING_WORKER_RECEIVE.getV(), current, taskTrackerAddress, now, instanceInfo.getStatus());
+            runningInstanceCounter.record(jobId, instanceId);
+            instanceMetadataService.loadJobInfo(instanceId, jobInfo);
+            sendAsync(taskTracker, workerUrl, req);
+            return;
+        }
+
+        // 要求 worker 回执，未按时回执时立即重新派发
+        if (dispatchAckTracker.isEnable()) {
+            req.setReceiptAddress(fetchReceiptAddress(taskTracker.getProtocol()));
+        }
         transportService.tell(taskTracker.getProtocol(), workerUrl, req);
         log.info("[Dispatcher-{}|{}] send schedule request to TaskTracker[protocol:{},address:{}] successfully: {}.", jobId, instanceId, taskTracker.getProtocol(), taskTrackerAddress, req);
 
         // 修改状态
-        instanceInfoRepository.update4TriggerSucceed(instanceId, WAITING_WORKER_RECEIVE.getV(), current, taskTrackerAddress, now, instanceInfo.getStatus());
+        int updated = instanceInfoRepository.update4TriggerSucceed(instanceId, WAITING_WORKER_RECEIVE.getV(), current, taskTrackerAddress, now, instanceInfo.getStatus());
+        runningInstanceCounter.record(jobId, instanceId);
+        // 状态更新成功后再登记，避免未按时回执的重新派发与状态更新交叉
+        if (dispatchAckTracker.isEnable() && updated > 0) {
+            dispatchAckTracker.track(jobInfo, instanceId, taskTracker.getProtocol(), taskTrackerAddress);
+        }
         // 装载缓存
         instanceMetadataService.loadJobInfo(instanceId, jobInfo);
     }
 
+    private void sendAsync(WorkerInfo taskTracker, URL workerUrl, ServerScheduleJobReq req) {
+        Long jobId = req.getJobId();
+        Long instanceId = req.getInstanceId();
+        CompletionStage<Object> future;
+        try {
+            future = transportService.ask(taskTracker.getProtocol(), workerUrl, req, null);
+        } catch (Exception e) {
+            CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            future = failed;
+        }
+        future.whenComplete((ignore, t) -> {
+            if (t == null) {
+                log.info("[Dispatcher-{}|{}] send schedule request to TaskTracker[protocol:{},address:{}] successfully: {}.", jobId, instanceId, taskTracker.getProtocol(), taskTracker.getAddress(), req);
+                return;
+            }
+            log.warn("[Dispatcher-{}|{}] send schedule request to TaskTracker[protocol:{},address:{}] failed, reset the instance to WAITING_DISPATCH.", jobId, instanceId, taskTracker.getProtocol(), taskTracker.getAddress(), t);
+            // 回调运行在网络线程上，数据库操作交给派发流水线；队列已满时由 WAITING_WORKER_RECEIVE 超时检查兜底
+            dispatchPipeline.submit(() -> SpringUtils.getBean(DispatchService.class).redispatchAsync(instanceId, WAITING_WORKER_RECEIVE.getV()));
+        });
+    }
+
+    /**
+     * worker 上报回执的 server 地址（与 worker 使用相同的协议）
+     */
+    private String fetchReceiptAddress(String protocol) {
+        ProtocolInfo protocolInfo = transportService.allProtocols().get(Protocol.of(protocol).name());
+        if (protocolInfo == null) {
+            protocolInfo = transportService.defaultProtocol();
+        }
+        return protocolInfo.getExternalAddress();
+    }
+
     private List<WorkerInfo> filterOverloadWorker(List<WorkerInfo> suitableWorkers) {
 
         List<WorkerInfo> res = new ArrayList<>(suitableWorkers.size());
@@ -193,39 +309,9 @@ public class DispatchService {
     }
 
     /**
-     * 构造任务调度请求
+     * 构造任务调度请求，任务维度的字段来自挂载在任务信息缓存上的模板
      */
     private ServerScheduleJobReq constructServerScheduleJobReq(JobInfoDO jobInfo, InstanceInfoDO instanceInfo, List<String> finalWorkersIpList) {
-        // 构造请求
-        ServerScheduleJobReq req = new ServerScheduleJobReq();
-        BeanUtils.copyProperties(jobInfo, req);
-        // 传入 JobId
-        req.setJobId(jobInfo.getId());
-        // 传入 InstanceParams
-        if (StringUtils.isEmpty(instanceInfo.getInstanceParams())) {
-            req.setInstanceParams(null);
-        } else {
-            req.setInstanceParams(instanceInfo.getInstanceParams());
-        }
-        // 覆盖静态参数
-        if (!StringUtils.isEmpty(instanceInfo.getJobParams())) {
-            req.setJobParams(instanceInfo.getJobParams());
-        }
-        req.setInstanceId(instanceInfo.getInstanceId());
-        req.setAllWorkerAddress(finalWorkersIpList);
-        req.setMaxWorkerCount(jobInfo.getMaxWorkerCount());
-
-        // 设置工作流ID
-        req.setWfInstanceId(instanceInfo.getWfInstanceId());
-
-        req.setExecuteType(ExecuteType.of(jobInfo.getExecuteType()).name());
-        req.setProcessorType(ProcessorType.of(jobInfo.getProcessorType()).name());
-
-        req.setTimeExpressionType(TimeExpressionType.of(jobInfo.getTimeExpressionType()).name());
-        if (jobInfo.getInstanceTimeLimit() != null) {
-            req.setInstanceTimeoutMS(jobInfo.getInstanceTimeLimit());
-        }
-        req.setThreadConcurrency(jobInfo.getConcurrency());
-        return req;
+        return jobInfoCacheService.fetchReqTemplate(jobInfo).newRequest(jobInfo, instanceInfo, finalWorkersIpList);
     }
 }
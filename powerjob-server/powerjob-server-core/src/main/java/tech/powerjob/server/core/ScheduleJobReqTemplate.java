@@ -0,0 +1,111 @@
+package tech.powerjob.server.core;
+
+import org.apache.commons.lang3.StringUtils;
+import tech.powerjob.common.enums.ExecuteType;
+import tech.powerjob.common.enums.ProcessorType;
+import tech.powerjob.common.enums.TimeExpressionType;
+import tech.powerjob.common.request.ServerScheduleJobReq;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 任务调度请求模板
+ * 任务维度的字段（枚举名称等）只在任务信息变化时计算一次，每次派发只需要填充实例维度的字段，无需反射拷贝属性
+ * 时间表达式类型在派发过程中可能被改写（工作流节点统一按 WORKFLOW 派发）且不影响修改时间，因此不放入模板，每次派发时从任务信息中读取
+ * 模板不可变，可以在多个派发线程之间共享，挂载在任务信息缓存（{@link tech.powerjob.server.core.service.JobInfoCacheService}）上，随之一起失效
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public final class ScheduleJobReqTemplate {
+
+    private final Long jobId;
+    /**
+     * 任务信息的最后修改时间，用于判断模板是否过期
+     */
+    private final long gmtModified;
+
+    private final String executeType;
+    private final String processorType;
+    private final String processorInfo;
+    private final Long instanceTimeLimit;
+    private final String jobParams;
+    private final int threadConcurrency;
+    private final int taskRetryNum;
+    private final String timeExpression;
+    private final Integer maxInstanceNum;
+    private final Integer maxWorkerCount;
+    private final String alarmConfig;
+    private final String logConfig;
+
+    private ScheduleJobReqTemplate(JobInfoDO jobInfo) {
+        this.jobId = jobInfo.getId();
+        this.gmtModified = versionOf(jobInfo);
+        this.executeType = ExecuteType.of(jobInfo.getExecuteType()).name();
+        this.processorType = ProcessorType.of(jobInfo.getProcessorType()).name();
+        this.processorInfo = jobInfo.getProcessorInfo();
+        this.instanceTimeLimit = jobInfo.getInstanceTimeLimit();
+        this.jobParams = jobInfo.getJobParams();
+        this.threadConcurrency = jobInfo.getConcurrency() == null ? 0 : jobInfo.getConcurrency();
+        this.taskRetryNum = jobInfo.getTaskRetryNum() == null ? 0 : jobInfo.getTaskRetryNum();
+        this.timeExpression = jobInfo.getTimeExpression();
+        this.maxInstanceNum = jobInfo.getMaxInstanceNum();
+        this.maxWorkerCount = jobInfo.getMaxWorkerCount();
+        this.alarmConfig = jobInfo.getAlarmConfig();
+        this.logConfig = jobInfo.getLogConfig();
+    }
+
+    public static ScheduleJobReqTemplate of(JobInfoDO jobInfo) {
+        return new ScheduleJobReqTemplate(jobInfo);
+    }
+
+    /**
+     * 模板是否由当前版本的任务信息生成（没有修改时间的任务信息总是视为过期）
+     * @param jobInfo 任务信息
+     * @return 可以继续使用时返回 true
+     */
+    public boolean matches(JobInfoDO jobInfo) {
+        return jobInfo.getGmtModified() != null && gmtModified == versionOf(jobInfo) && jobId.equals(jobInfo.getId());
+    }
+
+    /**
+     * 根据模板生成调度请求，只填充实例维度的字段以及时间表达式类型
+     * @param jobInfo 本次派发使用的任务信息
+     * @param instanceInfo 任务实例信息
+     * @param allWorkerAddress 可用的 worker 地址
+     * @return 调度请求
+     */
+    public ServerScheduleJobReq newRequest(JobInfoDO jobInfo, InstanceInfoDO instanceInfo, List<String> allWorkerAddress) {
+        ServerScheduleJobReq req = new ServerScheduleJobReq();
+        req.setJobId(jobId);
+        req.setExecuteType(executeType);
+        req.setProcessorType(processorType);
+        req.setProcessorInfo(processorInfo);
+        if (instanceTimeLimit != null) {
+            req.setInstanceTimeoutMS(instanceTimeLimit);
+        }
+        req.setThreadConcurrency(threadConcurrency);
+        req.setTaskRetryNum(taskRetryNum);
+        req.setTimeExpression(timeExpression);
+        req.setMaxInstanceNum(maxInstanceNum);
+        req.setMaxWorkerCount(maxWorkerCount);
+        req.setAlarmConfig(alarmConfig);
+        req.setLogConfig(logConfig);
+        req.setTimeExpressionType(TimeExpressionType.of(jobInfo.getTimeExpressionType()).name());
+        // 实例维度的字段，实例的静态参数覆盖任务的静态参数
+        req.setJobParams(StringUtils.isEmpty(instanceInfo.getJobParams()) ? jobParams : instanceInfo.getJobParams());
+        req.setInstanceParams(StringUtils.isEmpty(instanceInfo.getInstanceParams()) ? null : instanceInfo.getInstanceParams());
+        req.setInstanceId(instanceInfo.getInstanceId());
+        req.setWfInstanceId(instanceInfo.getWfInstanceId());
+        req.setAllWorkerAddress(allWorkerAddress);
+        return req;
+    }
+
+    private static long versionOf(JobInfoDO jobInfo) {
+        Date gmtModified = jobInfo.getGmtModified();
+        return gmtModified == null ? -1 : gmtModified.getTime();
+    }
+}
@@ -0,0 +1,60 @@
+package tech.powerjob.server.core;
+
+/**
+ * 令牌桶，按固定速率补充令牌，最多积攒 1 秒的令牌以应对突发
+ * 非线程安全，由调用方保证同步
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class TokenBucket {
+
+    /**
+     * 每毫秒补充的令牌数
+     */
+    private final double permitsPerMs;
+
+    private final double capacity;
+
+    private double tokens;
+
+    private long lastRefillTime;
+
+    public TokenBucket(double permitsPerSecond, long now) {
+        this.permitsPerMs = permitsPerSecond / 1000;
+        this.capacity = Math.max(permitsPerSecond, 1);
+        this.tokens = capacity;
+        this.lastRefillTime = now;
+    }
+
+    /**
+     * 尝试获取一个令牌
+     * @param now 当前时间（毫秒）
+     * @return 获取成功返回 true
+     */
+    public boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * 当前可用的令牌数量
+     * @param now 当前时间（毫秒）
+     * @return 可用令牌数
+     */
+    public int available(long now) {
+        refill(now);
+        return (int) tokens;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillTime) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillTime) * permitsPerMs);
+            lastRefillTime = now;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import tech.powerjob.remote.framework.actor.ProcessType;
 import tech.powerjob.server.common.constants.SwitchableStatus;
 import tech.powerjob.server.common.module.WorkerInfo;
 import tech.powerjob.server.common.utils.SpringUtils;
+import tech.powerjob.server.core.service.JobInfoCacheService;
 import tech.powerjob.server.monitor.MonitorService;
 import tech.powerjob.server.monitor.events.w2s.TtReportInstanceStatusEvent;
 import tech.powerjob.server.monitor.events.w2s.WorkerHeartbeatEvent;
@@ -22,7 +23,6 @@ import tech.powerjob.server.monitor.events.w2s.WorkerLogReportEvent;
 import tech.powerjob.server.persistence.remote.model.ContainerInfoDO;
 import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 import tech.powerjob.server.persistence.remote.repository.ContainerInfoRepository;
-import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
 import tech.powerjob.server.remote.worker.WorkerClusterQueryService;
 
 import java.util.List;
@@ -57,6 +57,8 @@ public abstract class AbWorkerRequestHandler implements IWorkerRequestHandler {
 
     protected abstract void processWorkerLogReport0(WorkerLogReportReq req, WorkerLogReportEvent event);
 
+    protected abstract void processDispatchReceipt0(WorkerDispatchReceiptReq req);
+
 
     @Override
     @Handler(path = S4W_HANDLER_WORKER_HEARTBEAT, processType = ProcessType.NO_BLOCKING)
@@ -119,6 +121,16 @@ public abstract class AbWorkerRequestHandler implements IWorkerRequestHandler {
         }
     }
 
+    @Override
+    @Handler(path = S4W_HANDLER_REPORT_DISPATCH_RECEIPT, processType = ProcessType.NO_BLOCKING)
+    public void processDispatchReceipt(WorkerDispatchReceiptReq req) {
+        try {
+            processDispatchReceipt0(req);
+        } catch (Throwable t) {
+            log.warn("[WorkerRequestHandler] process dispatch receipt failed!", t);
+        }
+    }
+
     @Override
     @Handler(path = S4W_HANDLER_QUERY_JOB_CLUSTER, processType = ProcessType.BLOCKING)
     public AskResponse processWorkerQueryExecutorCluster(WorkerQueryExecutorClusterReq req) {
@@ -127,8 +139,7 @@ public abstract class AbWorkerRequestHandler implements IWorkerRequestHandler {
         Long jobId = req.getJobId();
         Long appId = req.getAppId();
 
-        JobInfoRepository jobInfoRepository = SpringUtils.getBean(JobInfoRepository.class);
-        Optional<JobInfoDO> jobInfoOpt = jobInfoRepository.findById(jobId);
+        Optional<JobInfoDO> jobInfoOpt = SpringUtils.getBean(JobInfoCacheService.class).fetchJobInfo(jobId);
         if (jobInfoOpt.isPresent()) {
             JobInfoDO jobInfo = jobInfoOpt.get();
             if (!jobInfo.getAppId().equals(appId)) {
@@ -43,4 +43,10 @@ public interface IWorkerRequestHandler {
      * @return 容器部署信息
      */
     AskResponse processWorkerNeedDeployContainer(WorkerNeedDeployContainerRequest request);
+
+    /**
+     * 处理 worker 批量上报的调度请求回执
+     * @param req 请求
+     */
+    void processDispatchReceipt(WorkerDispatchReceiptReq req);
 }
@@ -7,10 +7,12 @@ import org.springframework.util.CollectionUtils;
 import tech.powerjob.common.RemoteConstant;
 import tech.powerjob.common.enums.InstanceStatus;
 import tech.powerjob.common.request.TaskTrackerReportInstanceStatusReq;
+import tech.powerjob.common.request.WorkerDispatchReceiptReq;
 import tech.powerjob.common.request.WorkerHeartbeat;
 import tech.powerjob.common.request.WorkerLogReportReq;
 import tech.powerjob.common.response.AskResponse;
 import tech.powerjob.remote.framework.actor.Actor;
+import tech.powerjob.server.core.DispatchAckTracker;
 import tech.powerjob.server.core.instance.InstanceLogService;
 import tech.powerjob.server.core.instance.InstanceManager;
 import tech.powerjob.server.core.workflow.WorkflowInstanceManager;
@@ -39,12 +41,15 @@ public class WorkerRequestHandlerImpl extends AbWorkerRequestHandler {
 
     private final InstanceLogService instanceLogService;
 
-    public WorkerRequestHandlerImpl(InstanceManager instanceManager, WorkflowInstanceManager workflowInstanceManager, InstanceLogService instanceLogService,
+    private final DispatchAckTracker dispatchAckTracker;
+
+    public WorkerRequestHandlerImpl(InstanceManager instanceManager, WorkflowInstanceManager workflowInstanceManager, InstanceLogService instanceLogService, DispatchAckTracker dispatchAckTracker,
                                     MonitorService monitorService, Environment environment, ContainerInfoRepository containerInfoRepository, WorkerClusterQueryService workerClusterQueryService) {
         super(monitorService, environment, containerInfoRepository, workerClusterQueryService);
         this.instanceManager = instanceManager;
         this.workflowInstanceManager = workflowInstanceManager;
         this.instanceLogService = instanceLogService;
+        this.dispatchAckTracker = dispatchAckTracker;
     }
 
     @Override
@@ -75,4 +80,9 @@ public class WorkerRequestHandlerImpl extends AbWorkerRequestHandler {
         // 这个效率应该不会拉垮吧...也就是一些判断 + Map#get 吧...
         instanceLogService.submitLogs(req.getWorkerAddress(), req.getInstanceLogContents());
     }
+
+    @Override
+    protected void processDispatchReceipt0(WorkerDispatchReceiptReq req) {
+        dispatchAckTracker.ack(req.getWorkerAddress(), req.getInstanceIds());
+    }
 }
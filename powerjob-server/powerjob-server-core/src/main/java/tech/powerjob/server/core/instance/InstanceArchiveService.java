@@ -0,0 +1,388 @@
+package tech.powerjob.server.core.instance;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.enums.InstanceStatus;
+import tech.powerjob.server.common.constants.PJThreadPool;
+import tech.powerjob.server.common.utils.SpringUtils;
+import tech.powerjob.server.extension.LockService;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoArchiveDO;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoArchiveRepository;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.transaction.Transactional;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 任务实例冷热分离
+ * 已结束超过一定时间的实例分批迁移到归档表（instance_info_archive），instance_info 只保留运行中和近期结束的实例，
+ * 派发、状态检查等热路径上的查询不再受大量历史数据的影响；历史数据的清理也只作用于归档表
+ * 控制台及 OpenAPI 的查询同时查询两张表并合并结果
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class InstanceArchiveService {
+
+    private static final String ARCHIVE_LOCK = "instance_archive_lock";
+
+    private static final long ARCHIVE_INTERVAL_MS = 10 * 60 * 1000L;
+
+    private static final long ARCHIVE_LOCK_TIME_MS = 10 * 60 * 1000L;
+    /**
+     * 单次归档的最长耗时，需要小于锁的有效期，剩余数据在下一次归档时处理
+     */
+    private static final long MAX_ARCHIVE_TIME_MS = 5 * 60 * 1000L;
+
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 以主键作为第二排序字段，保证两张表合并后的顺序唯一（归档表沿用原主键）
+     */
+    private static final Sort SORT_BY_GMT_MODIFIED = Sort.by(Sort.Direction.DESC, "gmtModified", "id");
+
+    private static final Comparator<InstanceInfoDO> MERGE_ORDER = Comparator.comparing(InstanceInfoDO::getGmtModified, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(InstanceInfoDO::getId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed();
+
+    private final boolean enable;
+
+    private final int archiveAfterHours;
+
+    private final InstanceInfoRepository instanceInfoRepository;
+
+    private final InstanceInfoArchiveRepository instanceInfoArchiveRepository;
+
+    private final LockService lockService;
+
+    @PersistenceContext(unitName = "remotePersistenceUnit")
+    private EntityManager entityManager;
+
+    public InstanceArchiveService(@Value("${oms.instanceinfo.archive.enable:false}") boolean enable,
+                                  @Value("${oms.instanceinfo.archive.after-hours:24}") int archiveAfterHours,
+                                  InstanceInfoRepository instanceInfoRepository,
+                                  InstanceInfoArchiveRepository instanceInfoArchiveRepository,
+                                  LockService lockService) {
+        this.enable = enable;
+        this.archiveAfterHours = Math.max(archiveAfterHours, 1);
+        this.instanceInfoRepository = instanceInfoRepository;
+        this.instanceInfoArchiveRepository = instanceInfoArchiveRepository;
+        this.lockService = lockService;
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    @Async(PJThreadPool.TIMING_POOL)
+    @Scheduled(initialDelay = ARCHIVE_INTERVAL_MS, fixedDelay = ARCHIVE_INTERVAL_MS)
+    public void timingArchive() {
+        if (!enable) {
+            return;
+        }
+        // 只需要一台 server 执行
+        if (!lockService.tryLock(ARCHIVE_LOCK, ARCHIVE_LOCK_TIME_MS)) {
+            return;
+        }
+        try {
+            archive();
+        } catch (Exception e) {
+            log.warn("[InstanceArchiveService] archive instanceInfo failed.", e);
+        } finally {
+            lockService.unlock(ARCHIVE_LOCK);
+        }
+    }
+
+    /**
+     * 将已结束超过 archiveAfterHours 的实例迁移到归档表
+     * 每一批数据的写入归档表与删除原数据在同一个事务中完成
+     * @return 归档的实例数量
+     */
+    public int archive() {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Date threshold = new Date(System.currentTimeMillis() - archiveAfterHours * 3600000L);
+        // 通过代理调用，保证事务生效
+        InstanceArchiveService self = SpringUtils.getBean(InstanceArchiveService.class);
+        long lastId = 0;
+        int num = 0;
+        while (stopwatch.elapsed().toMillis() < MAX_ARCHIVE_TIME_MS) {
+            List<Long> ids = self.archiveBatch(threshold, lastId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            num += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        log.info("[InstanceArchiveService] archived {} instanceInfo records whose modify time before {}, using {}.", num, threshold, stopwatch.stop());
+        return num;
+    }
+
+    /**
+     * 归档一批实例
+     * 归档表沿用原主键，直接 persist（批量 INSERT），避免 merge 逐条查询
+     * @param threshold 修改时间阈值
+     * @param lastId 上一批最后一条数据的主键
+     * @return 本批归档的实例主键（升序）
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public List<Long> archiveBatch(Date threshold, long lastId) {
+        List<InstanceInfoDO> finishedInstances = instanceInfoRepository.findByStatusInAndGmtModifiedBeforeAndIdGreaterThanOrderByIdAsc(InstanceStatus.FINISHED_STATUS, threshold, lastId, PageRequest.of(0, BATCH_SIZE));
+        if (finishedInstances.isEmpty()) {
+            return Collections.emptyList();
+        }
+        finishedInstances.forEach(instance -> entityManager.persist(toArchive(instance)));
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> ids = finishedInstances.stream().map(InstanceInfoDO::getId).collect(Collectors.toList());
+        instanceInfoRepository.deleteAllByIdInBatch(ids);
+        return ids;
+    }
+
+    /**
+     * 分批删除超过保留时间的归档数据
+     * @param time 修改时间阈值
+     * @return 删除的记录条数
+     */
+    public int purge(Date time) {
+        int num = 0;
+        List<Long> ids = instanceInfoArchiveRepository.findIdByGmtModifiedBefore(time, PageRequest.of(0, BATCH_SIZE));
+        while (!ids.isEmpty()) {
+            instanceInfoArchiveRepository.deleteAllByIdInBatch(ids);
+            num += ids.size();
+            ids = instanceInfoArchiveRepository.findIdByGmtModifiedBefore(time, PageRequest.of(0, BATCH_SIZE));
+        }
+        return num;
+    }
+
+    /**
+     * 从归档表查询实例
+     * @param instanceId 任务实例ID
+     * @return 实例信息（与归档表脱离关系的 InstanceInfoDO）
+     */
+    public Optional<InstanceInfoDO> findArchived(Long instanceId) {
+        if (!enable) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(instanceInfoArchiveRepository.findByInstanceId(instanceId)).map(InstanceArchiveService::fromArchive);
+    }
+
+    /**
+     * 将归档的实例恢复到 instance_info（如重试已归档的实例）
+     * @param instanceId 任务实例ID
+     * @return 恢复后的实例信息，实例未被归档时返回 empty
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public Optional<InstanceInfoDO> restore(Long instanceId) {
+        if (!enable) {
+            return Optional.empty();
+        }
+        InstanceInfoArchiveDO archived = instanceInfoArchiveRepository.findByInstanceId(instanceId);
+        if (archived == null) {
+            return Optional.empty();
+        }
+        InstanceInfoDO instanceInfo = fromArchive(archived);
+        // 重新生成主键
+        instanceInfo.setId(null);
+        instanceInfoRepository.saveAndFlush(instanceInfo);
+        instanceInfoArchiveRepository.delete(archived);
+        log.info("[InstanceArchiveService] restore archived instance({}) successfully.", instanceId);
+        return Optional.of(instanceInfo);
+    }
+
+    /**
+     * 同时查询 instance_info 与归档表
+     * @param hotSpecification instance_info 的查询条件
+     * @param archiveSpecification 归档表的查询条件
+     * @return 全部满足条件的实例
+     */
+    public List<InstanceInfoDO> findAllWithArchive(Specification<InstanceInfoDO> hotSpecification, Specification<InstanceInfoArchiveDO> archiveSpecification) {
+        List<InstanceInfoDO> hot = instanceInfoRepository.findAll(hotSpecification);
+        if (!enable) {
+            return hot;
+        }
+        List<InstanceInfoDO> archived = instanceInfoArchiveRepository.findAll(archiveSpecification).stream().map(InstanceArchiveService::fromArchive).collect(Collectors.toList());
+        return merge(hot, archived);
+    }
+
+    /**
+     * 同时分页查询 instance_info 与归档表，按修改时间倒序合并
+     * 传入游标（上一页最后一条数据）时，两张表各自按 (gmtModified, id) 查询游标之后的一页数据再合并，不需要跳过任何数据；
+     * 否则（首次查询或者直接跳转到某一页）按页码查询，先二分查找合并结果的前 index * pageSize 条数据在两张表中各自的条数，
+     * 再从两张表各自的偏移量处取一页数据合并
+     * @param probe 查询条件
+     * @param index 页码（从 0 开始）
+     * @param pageSize 每页大小
+     * @param cursor 游标，即上一页最后一条数据（只需要 gmtModified 与 id），可以为空
+     * @return 分页结果
+     */
+    public Page<InstanceInfoDO> findAllWithArchive(InstanceInfoDO probe, int index, int pageSize, InstanceInfoDO cursor) {
+        PageRequest pageable = PageRequest.of(index, pageSize, SORT_BY_GMT_MODIFIED);
+        Example<InstanceInfoDO> hotExample = Example.of(probe);
+        if (!enable && cursor == null) {
+            return instanceInfoRepository.findAll(hotExample, pageable);
+        }
+        long hotTotal = instanceInfoRepository.count(hotExample);
+        if (!enable) {
+            return new PageImpl<>(findAfter(InstanceInfoDO.class, hotExample, cursor, pageSize), pageable, hotTotal);
+        }
+        Example<InstanceInfoArchiveDO> archiveExample = Example.of(toArchive(probe));
+        long archivedTotal = instanceInfoArchiveRepository.count(archiveExample);
+
+        List<InstanceInfoDO> content;
+        if (cursor != null) {
+            BiFunction<InstanceInfoDO, Integer, List<InstanceInfoDO>> hotFinder = (c, limit) -> findAfter(InstanceInfoDO.class, hotExample, c, limit);
+            BiFunction<InstanceInfoDO, Integer, List<InstanceInfoDO>> archiveFinder = (c, limit) -> findAfter(InstanceInfoArchiveDO.class, archiveExample, c, limit)
+                    .stream().map(InstanceArchiveService::fromArchive).collect(Collectors.toList());
+            content = fetchAfterCursor(hotFinder, archiveFinder, cursor, pageSize);
+        } else {
+            Function<Pageable, List<InstanceInfoDO>> hotFinder = p -> instanceInfoRepository.findAll(hotExample, p).getContent();
+            Function<Pageable, List<InstanceInfoDO>> archiveFinder = p -> instanceInfoArchiveRepository.findAll(archiveExample, p).map(InstanceArchiveService::fromArchive).getContent();
+            content = fetchByOffset(hotFinder, archiveFinder, hotTotal, archivedTotal, (long) index * pageSize, pageSize);
+        }
+        return new PageImpl<>(content, pageable, hotTotal + archivedTotal);
+    }
+
+    /**
+     * 基于游标查询合并结果的一页数据，两张表各自最多读取一页
+     * @param hotFinder (游标, 条数) -> instance_info 中排在游标之后的数据（按修改时间、主键倒序）
+     * @param archiveFinder (游标, 条数) -> 归档表中排在游标之后的数据
+     * @param cursor 游标
+     * @param pageSize 每页大小
+     * @return 一页数据
+     */
+    static List<InstanceInfoDO> fetchAfterCursor(BiFunction<InstanceInfoDO, Integer, List<InstanceInfoDO>> hotFinder,
+                                                 BiFunction<InstanceInfoDO, Integer, List<InstanceInfoDO>> archiveFinder,
+                                                 InstanceInfoDO cursor, int pageSize) {
+        List<InstanceInfoDO> merged = merge(hotFinder.apply(cursor, pageSize), archiveFinder.apply(cursor, pageSize));
+        merged.sort(MERGE_ORDER);
+        return Lists.newArrayList(merged.subList(0, Math.min(pageSize, merged.size())));
+    }
+
+    /**
+     * 基于偏移量查询合并结果的一页数据
+     * @param hotFinder 分页查询 instance_info（按修改时间、主键倒序）
+     * @param archiveFinder 分页查询归档表
+     * @param hotTotal instance_info 中满足条件的数据量
+     * @param archivedTotal 归档表中满足条件的数据量
+     * @param offset 合并结果中的偏移量
+     * @param pageSize 每页大小
+     * @return 一页数据
+     */
+    static List<InstanceInfoDO> fetchByOffset(Function<Pageable, List<InstanceInfoDO>> hotFinder, Function<Pageable, List<InstanceInfoDO>> archiveFinder,
+                                              long hotTotal, long archivedTotal, long offset, int pageSize) {
+        // 合并结果的前 offset 条中来自 instance_info 的条数，满足条件的最大值即为所求
+        long low = Math.max(0, offset - archivedTotal);
+        long high = Math.min(offset, hotTotal);
+        while (low < high) {
+            long mid = (low + high + 1) >>> 1;
+            long archivedOffset = offset - mid;
+            if (archivedOffset >= archivedTotal) {
+                low = mid;
+                continue;
+            }
+            // 计数后数据发生变化时按不存在处理
+            InstanceInfoDO hot = fetchOne(hotFinder, mid - 1);
+            InstanceInfoDO archived = fetchOne(archiveFinder, archivedOffset);
+            if (hot == null) {
+                high = mid - 1;
+            } else if (archived == null || MERGE_ORDER.compare(hot, archived) < 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        List<InstanceInfoDO> merged = Lists.newArrayListWithCapacity(pageSize * 2);
+        merged.addAll(fetchPage(hotFinder, low, pageSize));
+        merged.addAll(fetchPage(archiveFinder, offset - low, pageSize));
+        merged.sort(MERGE_ORDER);
+        return Lists.newArrayList(merged.subList(0, Math.min(pageSize, merged.size())));
+    }
+
+    /**
+     * 查询满足条件且排在游标之后的数据：where ... and (gmtModified < ? or (gmtModified = ? and id < ?)) order by gmtModified desc, id desc limit ?
+     */
+    private <T> List<T> findAfter(Class<T> domainClass, Example<T> example, InstanceInfoDO cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        List<Predicate> predicates = Lists.newArrayList();
+        Predicate examplePredicate = QueryByExamplePredicateBuilder.getPredicate(root, cb, example);
+        if (examplePredicate != null) {
+            predicates.add(examplePredicate);
+        }
+        Path<Date> gmtModified = root.get("gmtModified");
+        Path<Long> id = root.get("id");
+        predicates.add(cb.or(
+                cb.lessThan(gmtModified, cursor.getGmtModified()),
+                cb.and(cb.equal(gmtModified, cursor.getGmtModified()), cb.lessThan(id, cursor.getId()))
+        ));
+        query.where(predicates.toArray(new Predicate[0])).orderBy(cb.desc(gmtModified), cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static InstanceInfoDO fetchOne(Function<Pageable, List<InstanceInfoDO>> finder, long offset) {
+        List<InstanceInfoDO> res = finder.apply(PageRequest.of((int) offset, 1, SORT_BY_GMT_MODIFIED));
+        return res.isEmpty() ? null : res.get(0);
+    }
+
+    /**
+     * 从任意偏移量处读取一页数据（最多读取两页）
+     */
+    private static List<InstanceInfoDO> fetchPage(Function<Pageable, List<InstanceInfoDO>> finder, long offset, int pageSize) {
+        int page = (int) (offset / pageSize);
+        int skip = (int) (offset % pageSize);
+        List<InstanceInfoDO> res = Lists.newArrayList(finder.apply(PageRequest.of(page, pageSize, SORT_BY_GMT_MODIFIED)));
+        if (skip > 0) {
+            res.addAll(finder.apply(PageRequest.of(page + 1, pageSize, SORT_BY_GMT_MODIFIED)));
+        }
+        return res.subList(Math.min(skip, res.size()), Math.min(skip + pageSize, res.size()));
+    }
+
+    /**
+     * 合并查询结果，归档过程中短暂存在于两张表的实例以 instance_info 为准
+     */
+    private static List<InstanceInfoDO> merge(List<InstanceInfoDO> hot, List<InstanceInfoDO> archived) {
+        List<InstanceInfoDO> res = Lists.newArrayListWithCapacity(hot.size() + archived.size());
+        res.addAll(hot);
+        Set<Long> instanceIds = Sets.newHashSetWithExpectedSize(hot.size());
+        hot.forEach(instance -> instanceIds.add(instance.getInstanceId()));
+        archived.stream().filter(instance -> !instanceIds.contains(instance.getInstanceId())).forEach(res::add);
+        return res;
+    }
+
+    private static InstanceInfoArchiveDO toArchive(InstanceInfoDO instanceInfo) {
+        InstanceInfoArchiveDO archive = new InstanceInfoArchiveDO();
+        BeanUtils.copyProperties(instanceInfo, archive);
+        return archive;
+    }
+
+    private static InstanceInfoDO fromArchive(InstanceInfoArchiveDO archive) {
+        InstanceInfoDO instanceInfo = new InstanceInfoDO();
+        BeanUtils.copyProperties(archive, instanceInfo);
+        return instanceInfo;
+    }
+}
@@ -16,6 +16,7 @@ import tech.powerjob.server.common.module.WorkerInfo;
 import tech.powerjob.server.common.timewheel.holder.HashedWheelTimerHolder;
 import tech.powerjob.server.common.utils.SpringUtils;
 import tech.powerjob.server.core.alarm.AlarmUtils;
+import tech.powerjob.server.core.scheduler.FrequentJobRegistry;
 import tech.powerjob.server.core.service.UserService;
 import tech.powerjob.server.core.workflow.WorkflowInstanceManager;
 import tech.powerjob.server.core.alarm.AlarmCenter;
@@ -58,6 +59,12 @@ public class InstanceManager implements TransportServiceAware {
 
     private final WorkerClusterQueryService workerClusterQueryService;
 
+    private final FrequentJobRegistry frequentJobRegistry;
+
+    private final RunningInstanceCounter runningInstanceCounter;
+
+    private final InstanceStatusAggregator instanceStatusAggregator;
+
     /**
      * 基础组件通过 aware 注入，避免循环依赖
      */
@@ -76,6 +83,13 @@ public class InstanceManager implements TransportServiceAware {
     public void updateStatus(TaskTrackerReportInstanceStatusReq req) throws ExecutionException {
 
         Long instanceId = req.getInstanceId();
+        // 运行中实例的 RUNNING 上报只更新内存，由后台线程批量写库
+        if (instanceStatusAggregator.isEnable()) {
+            if (instanceStatusAggregator.absorb(req)) {
+                return;
+            }
+            instanceStatusAggregator.untrack(instanceId);
+        }
         // 获取相关数据
         JobInfoDO jobInfo = instanceMetadataService.fetchJobInfoByInstanceId(req.getInstanceId());
         InstanceInfoDO instanceInfo = instanceInfoRepository.findByInstanceId(instanceId);
@@ -131,6 +145,11 @@ public class InstanceManager implements TransportServiceAware {
             instanceInfo.setResult(req.getResult());
             instanceInfo.setRunningTimes(req.getTotalTaskNum());
             instanceInfoRepository.saveAndFlush(instanceInfo);
+            // 秒级任务的实例结束时不会经过 processFinishedInstance
+            if (!InstanceStatus.GENERALIZED_RUNNING_STATUS.contains(instanceInfo.getStatus())) {
+                frequentJobRegistry.onInstanceFinished(instanceId);
+                runningInstanceCounter.release(instanceId);
+            }
             // 任务需要告警
             if (req.isNeedAlert()) {
                 log.info("[InstanceManager-{}] receive frequent task alert req,time:{},content:{}", instanceId, req.getReportTime(), req.getAlertContent());
@@ -182,6 +201,12 @@ public class InstanceManager implements TransportServiceAware {
         final int i = instanceInfoRepository.updateStatusChangeInfoByInstanceIdAndStatus(instanceInfo.getLastReportTime(), instanceInfo.getGmtModified(), instanceInfo.getRunningTimes(), instanceInfo.getStatus(), instanceInfo.getInstanceId(), originStatus);
         if (i == 0) {
             log.warn("[InstanceManager-{}] update instance status failed, maybe the instance status has been changed by other thread. discard this status change,{}", instanceId, instanceInfo);
+        } else if (instanceInfo.getStatus() == InstanceStatus.WAITING_DISPATCH.getV()) {
+            // 重试：重新进入等待派发状态，不再统计为运行中
+            runningInstanceCounter.release(instanceId);
+        } else if (instanceInfo.getStatus() == InstanceStatus.RUNNING.getV() && instanceStatusAggregator.isEnable()) {
+            // 已进入 RUNNING 状态，之后的 RUNNING 上报在内存中合并
+            instanceStatusAggregator.track(instanceId, instanceInfo.getTaskTrackerAddress(), instanceInfo.getLastReportTime());
         }
     }
 
@@ -206,6 +231,7 @@ public class InstanceManager implements TransportServiceAware {
     public void processFinishedInstance(Long instanceId, Long wfInstanceId, InstanceStatus status, String result) {
 
         log.info("[Instance-{}] process finished, final status is {}.", instanceId, status.name());
+        instanceStatusAggregator.untrack(instanceId);
 
         // 上报日志数据
         HashedWheelTimerHolder.INACCURATE_TIMER.schedule(() -> instanceLogService.sync(instanceId), 60, TimeUnit.SECONDS);
@@ -222,6 +248,8 @@ public class InstanceManager implements TransportServiceAware {
         }
         // 主动移除缓存，减小内存占用
         instanceMetadataService.invalidateJobInfo(instanceId);
+        frequentJobRegistry.onInstanceFinished(instanceId);
+        runningInstanceCounter.release(instanceId);
     }
 
     private void alert(Long instanceId, String alertContent) {
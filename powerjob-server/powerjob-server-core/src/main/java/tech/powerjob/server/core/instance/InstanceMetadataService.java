@@ -1,18 +1,16 @@
 package tech.powerjob.server.core.instance;
 
 import lombok.RequiredArgsConstructor;
+import tech.powerjob.server.core.service.JobInfoCacheService;
 import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
 import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
-import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.annotation.Resource;
-import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -25,12 +23,13 @@ import java.util.concurrent.ExecutionException;
 @RequiredArgsConstructor
 public class InstanceMetadataService implements InitializingBean {
 
-    private final JobInfoRepository jobInfoRepository;
+    private final JobInfoCacheService jobInfoCacheService;
 
     private final InstanceInfoRepository instanceInfoRepository;
 
     /**
-     * 缓存，一旦生成任务实例，其对应的 JobInfo 不应该再改变（即使源数据改变）
+     * 实例维度的任务信息快照：派发时装载，实例运行期间不受任务修改的影响
+     * 未装载的实例（如 server 重启）从 JobInfoCacheService 获取，同一个任务的多个实例共享同一个对象
      */
     private Cache<Long, JobInfoDO> instanceId2JobInfoCache;
 
@@ -56,11 +55,11 @@ public class InstanceMetadataService implements InitializingBean {
     public JobInfoDO fetchJobInfoByInstanceId(Long instanceId) throws ExecutionException {
         return instanceId2JobInfoCache.get(instanceId, () -> {
             InstanceInfoDO instanceInfo = instanceInfoRepository.findByInstanceId(instanceId);
-            if (instanceInfo != null) {
-                Optional<JobInfoDO> jobInfoOpt = jobInfoRepository.findById(instanceInfo.getJobId());
-                return jobInfoOpt.orElseThrow(() -> new IllegalArgumentException("can't find JobInfo by jobId: " + instanceInfo.getJobId()));
+            if (instanceInfo == null) {
+                throw new IllegalArgumentException("can't find Instance by instanceId: " + instanceId);
             }
-            throw new IllegalArgumentException("can't find Instance by instanceId: " + instanceId);
+            Long jobId = instanceInfo.getJobId();
+            return jobInfoCacheService.fetchJobInfo(jobId).orElseThrow(() -> new IllegalArgumentException("can't find JobInfo by jobId: " + jobId));
         });
     }
 
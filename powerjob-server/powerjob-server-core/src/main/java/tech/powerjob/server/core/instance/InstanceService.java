@@ -1,5 +1,6 @@
 package tech.powerjob.server.core.instance;
 
+import com.google.common.collect.Maps;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -19,7 +20,9 @@ import tech.powerjob.server.common.constants.InstanceType;
 import tech.powerjob.server.common.module.WorkerInfo;
 import tech.powerjob.server.common.timewheel.TimerFuture;
 import tech.powerjob.server.common.timewheel.holder.InstanceTimeWheelService;
+import tech.powerjob.server.core.DispatchCoalescer;
 import tech.powerjob.server.core.DispatchService;
+import tech.powerjob.server.core.scheduler.TriggerJournalService;
 import tech.powerjob.server.core.uid.IdGenerateService;
 import tech.powerjob.server.persistence.QueryConvertUtils;
 import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
@@ -31,8 +34,10 @@ import tech.powerjob.server.remote.transporter.impl.ServerURLFactory;
 import tech.powerjob.server.remote.transporter.TransportService;
 import tech.powerjob.server.remote.worker.WorkerClusterQueryService;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -63,8 +68,14 @@ public class InstanceService {
 
     private final InstanceInfoRepository instanceInfoRepository;
 
+    private final InstanceArchiveService instanceArchiveService;
+
     private final WorkerClusterQueryService workerClusterQueryService;
 
+    private final TriggerJournalService triggerJournalService;
+
+    private final DispatchCoalescer dispatchCoalescer;
+
     /**
      * 创建任务实例（注意，该方法并不调用 saveAndFlush，如果有需要立即同步到DB的需求，请在方法结束后手动调用 flush）
      * ********************************************
@@ -82,13 +93,40 @@ public class InstanceService {
      */
     public InstanceInfoDO create(Long jobId, Long appId, String jobParams, String instanceParams, Long wfInstanceId, Long expectTriggerTime) {
 
-        Long instanceId = idGenerateService.allocate();
+        InstanceInfoDO newInstanceInfo = buildInstanceInfo(jobId, appId, jobParams, instanceParams, wfInstanceId, expectTriggerTime, new Date());
+        instanceInfoRepository.save(newInstanceInfo);
+        return newInstanceInfo;
+    }
+
+    /**
+     * 批量创建任务实例（调度专用，实例 ID 预先生成，一次性写入并 flush）
+     * 预期执行时间为任务的 nextTriggerTime
+     *
+     * @param jobInfos 任务信息
+     * @return jobId -> 任务实例
+     */
+    public Map<Long, InstanceInfoDO> batchCreate(List<JobInfoDO> jobInfos) {
+
+        if (jobInfos.isEmpty()) {
+            return Collections.emptyMap();
+        }
         Date now = new Date();
+        Map<Long, InstanceInfoDO> jobId2InstanceInfo = Maps.newHashMapWithExpectedSize(jobInfos.size());
+        for (JobInfoDO jobInfo : jobInfos) {
+            InstanceInfoDO instanceInfo = buildInstanceInfo(jobInfo.getId(), jobInfo.getAppId(), jobInfo.getJobParams(), null, null, jobInfo.getNextTriggerTime(), now);
+            jobId2InstanceInfo.put(jobInfo.getId(), instanceInfo);
+        }
+        instanceInfoRepository.saveAll(jobId2InstanceInfo.values());
+        instanceInfoRepository.flush();
+        return jobId2InstanceInfo;
+    }
+
+    private InstanceInfoDO buildInstanceInfo(Long jobId, Long appId, String jobParams, String instanceParams, Long wfInstanceId, Long expectTriggerTime, Date now) {
 
         InstanceInfoDO newInstanceInfo = new InstanceInfoDO();
         newInstanceInfo.setJobId(jobId);
         newInstanceInfo.setAppId(appId);
-        newInstanceInfo.setInstanceId(instanceId);
+        newInstanceInfo.setInstanceId(idGenerateService.allocate());
         newInstanceInfo.setJobParams(jobParams);
         newInstanceInfo.setInstanceParams(instanceParams);
         newInstanceInfo.setType(wfInstanceId == null ? InstanceType.NORMAL.getV() : InstanceType.WORKFLOW.getV());
@@ -100,8 +138,6 @@ public class InstanceService {
         newInstanceInfo.setLastReportTime(-1L);
         newInstanceInfo.setGmtCreate(now);
         newInstanceInfo.setGmtModified(now);
-
-        instanceInfoRepository.save(newInstanceInfo);
         return newInstanceInfo;
     }
 
@@ -163,7 +199,11 @@ public class InstanceService {
 
         log.info("[Instance-{}] retry instance in appId: {}", instanceId, appId);
 
-        InstanceInfoDO instanceInfo = fetchInstanceInfo(instanceId);
+        // 已归档的实例需要先恢复到 instance_info
+        InstanceInfoDO instanceInfo = instanceInfoRepository.findByInstanceId(instanceId);
+        if (instanceInfo == null) {
+            instanceInfo = instanceArchiveService.restore(instanceId).orElseGet(() -> fetchInstanceInfo(instanceId));
+        }
         if (!InstanceStatus.FINISHED_STATUS.contains(instanceInfo.getStatus())) {
             throw new PowerJobException("Only stopped instance can be retry!");
         }
@@ -204,6 +244,9 @@ public class InstanceService {
             // 本机时间轮中存在该任务且顺利取消，抢救成功！
             if (timerFuture != null) {
                 success = timerFuture.cancel();
+            } else if (dispatchCoalescer.isEnable() && dispatchCoalescer.isPending(instanceId)) {
+                // 已触发但仍在等待合并发送，开始发送前均可取消
+                success = dispatchCoalescer.cancel(instanceId);
             } else {
                 // 调用该接口时间和预计调度时间相近时，理论上会出现问题，cancel 状态还没写进去另一边就完成了 dispatch，随后状态会被覆盖
                 // 解决该问题的成本极高（分布式锁），因此选择不解决
@@ -216,6 +259,8 @@ public class InstanceService {
                 instanceInfo.setResult(SystemInstanceResult.CANCELED_BY_USER);
                 // 如果写 DB 失败，抛异常，接口返回 false，即取消失败，任务会被 HA 机制重新调度执行，因此此处不需要任何处理
                 instanceInfoRepository.saveAndFlush(instanceInfo);
+                // 已取消的实例无需在重启后重放
+                triggerJournalService.markTriggered(instanceId);
                 log.info("[Instance-{}] cancel the instance successfully.", instanceId);
             } else {
                 log.warn("[Instance-{}] cancel the instance failed.", instanceId);
@@ -229,8 +274,8 @@ public class InstanceService {
     }
 
     public List<InstanceInfoDTO> queryInstanceInfo(PowerQuery powerQuery) {
-        return instanceInfoRepository
-                .findAll(QueryConvertUtils.toSpecification(powerQuery))
+        return instanceArchiveService
+                .findAllWithArchive(QueryConvertUtils.toSpecification(powerQuery), QueryConvertUtils.toSpecification(powerQuery))
                 .stream()
                 .map(InstanceService::directConvert)
                 .collect(Collectors.toList());
@@ -307,6 +352,9 @@ public class InstanceService {
 
     private InstanceInfoDO fetchInstanceInfo(Long instanceId) {
         InstanceInfoDO instanceInfoDO = instanceInfoRepository.findByInstanceId(instanceId);
+        if (instanceInfoDO == null) {
+            instanceInfoDO = instanceArchiveService.findArchived(instanceId).orElse(null);
+        }
         if (instanceInfoDO == null) {
             log.warn("[Instance-{}] can't find InstanceInfo by instanceId", instanceId);
             throw new IllegalArgumentException("invalid instanceId: " + instanceId);
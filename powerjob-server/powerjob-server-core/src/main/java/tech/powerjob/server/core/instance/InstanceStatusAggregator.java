@@ -0,0 +1,189 @@
+package tech.powerjob.server.core.instance;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.enums.InstanceStatus;
+import tech.powerjob.common.request.TaskTrackerReportInstanceStatusReq;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 运行中实例的状态上报合并（write-behind）
+ * 实例进入 RUNNING 状态（同步写库）后登记到内存状态表，之后同一 TaskTracker 的 RUNNING 上报只更新内存中的上报时间，
+ * 由后台线程定期批量刷新数据库中的 lastReportTime 与 gmtModified（InstanceStatusCheckService 据此判断上报超时），
+ * 与同步写库的流程写入相同的字段（RUNNING 状态的上报不会改变运行次数和状态）；
+ * 成功、失败等状态变更不经过合并，仍然同步写库
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class InstanceStatusAggregator implements DisposableBean {
+
+    /**
+     * 刷新间隔上限，需要远小于 RUNNING 状态的上报超时时间（60s）
+     */
+    private static final long MAX_FLUSH_INTERVAL_MS = 30000;
+    /**
+     * 长时间没有上报的实例从状态表中移除
+     */
+    private static final long ENTRY_EXPIRE_MS = 60000;
+
+    private static final int MAX_BATCH_UPDATE_NUM = 500;
+
+    private final boolean enable;
+
+    private final InstanceInfoRepository instanceInfoRepository;
+
+    /**
+     * instanceId -> 运行中实例的上报状态
+     */
+    private final Map<Long, RunningState> instanceId2State = Maps.newConcurrentMap();
+
+    private final ScheduledExecutorService flushPool;
+
+    public InstanceStatusAggregator(@Value("${oms.instance.status-aggregation.enable:false}") boolean enable,
+                                    @Value("${oms.instance.status-aggregation.flush-interval:5000}") long flushInterval,
+                                    InstanceInfoRepository instanceInfoRepository) {
+        this.enable = enable;
+        this.instanceInfoRepository = instanceInfoRepository;
+        if (enable) {
+            long interval = Math.min(Math.max(flushInterval, 100), MAX_FLUSH_INTERVAL_MS);
+            flushPool = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("InstanceStatusAggregator-%d").setDaemon(true).build());
+            flushPool.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+            log.info("[InstanceStatusAggregator] status aggregation enabled, flush interval: {}ms", interval);
+        } else {
+            flushPool = null;
+        }
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * 登记已经同步写库的 RUNNING 实例
+     * @param instanceId 任务实例ID
+     * @param taskTrackerAddress TaskTracker 地址
+     * @param lastReportTime 最后上报时间
+     */
+    public void track(Long instanceId, String taskTrackerAddress, long lastReportTime) {
+        instanceId2State.put(instanceId, new RunningState(taskTrackerAddress, lastReportTime));
+    }
+
+    /**
+     * 移除实例（状态发生变化时调用），之后的上报重新走同步写库的流程
+     * @param instanceId 任务实例ID
+     */
+    public void untrack(Long instanceId) {
+        instanceId2State.remove(instanceId);
+    }
+
+    /**
+     * 尝试合并状态上报，只合并已登记实例来自同一 TaskTracker 的 RUNNING 上报
+     * @param req 状态上报请求
+     * @return 已合并（或者是过期的上报，直接丢弃）时返回 true，否则需要同步处理
+     */
+    public boolean absorb(TaskTrackerReportInstanceStatusReq req) {
+        if (req.getInstanceStatus() != InstanceStatus.RUNNING.getV() || req.isNeedAlert()) {
+            return false;
+        }
+        RunningState state = instanceId2State.get(req.getInstanceId());
+        if (state == null || !state.taskTrackerAddress.equals(req.getSourceAddress())) {
+            return false;
+        }
+        synchronized (state) {
+            if (req.getReportTime() > state.lastReportTime) {
+                state.lastReportTime = req.getReportTime();
+                state.lastAbsorbTime = System.currentTimeMillis();
+                state.dirty = true;
+            }
+        }
+        return true;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            log.error("[InstanceStatusAggregator] flush status failed.", t);
+        }
+    }
+
+    /**
+     * 将合并的上报写入数据库，包可见以便测试
+     */
+    void flush() {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> dirtyInstanceId2ReportTime = Maps.newLinkedHashMap();
+        instanceId2State.forEach((instanceId, state) -> {
+            synchronized (state) {
+                if (state.dirty) {
+                    state.dirty = false;
+                    dirtyInstanceId2ReportTime.put(instanceId, state.lastReportTime);
+                } else if (now - state.lastAbsorbTime > ENTRY_EXPIRE_MS) {
+                    instanceId2State.remove(instanceId, state);
+                }
+            }
+        });
+        if (dirtyInstanceId2ReportTime.isEmpty()) {
+            return;
+        }
+        Date modifyTime = new Date(now);
+        for (List<Long> partition : Lists.partition(Lists.newArrayList(dirtyInstanceId2ReportTime.keySet()), MAX_BATCH_UPDATE_NUM)) {
+            Map<Long, Long> instanceId2ReportTime = Maps.newHashMapWithExpectedSize(partition.size());
+            partition.forEach(instanceId -> instanceId2ReportTime.put(instanceId, dirtyInstanceId2ReportTime.get(instanceId)));
+            int updated = instanceInfoRepository.updateLastReportTimeByInstanceIdAndStatus(instanceId2ReportTime, InstanceStatus.RUNNING.getV(), modifyTime);
+            if (updated < partition.size()) {
+                // 部分实例已经不是 RUNNING 状态（被其他线程或者其他 server 修改），只移除这部分实例，由同步流程处理之后的上报
+                Set<Long> runningInstanceIds = Sets.newHashSet(instanceInfoRepository.findInstanceIdByInstanceIdInAndStatus(partition, InstanceStatus.RUNNING.getV()));
+                List<Long> staleInstanceIds = partition.stream().filter(instanceId -> !runningInstanceIds.contains(instanceId)).collect(Collectors.toList());
+                log.info("[InstanceStatusAggregator] instances are no longer running, remove them from status table: {}", staleInstanceIds);
+                staleInstanceIds.forEach(this::untrack);
+            }
+        }
+        log.debug("[InstanceStatusAggregator] flush {} running instances.", dirtyInstanceId2ReportTime.size());
+    }
+
+    @Override
+    public void destroy() {
+        if (flushPool != null) {
+            flushPool.shutdownNow();
+            flushSafely();
+        }
+    }
+
+    private static class RunningState {
+
+        private final String taskTrackerAddress;
+
+        private long lastReportTime;
+        /**
+         * 最后一次合并上报的时间（server 时间）
+         */
+        private long lastAbsorbTime;
+
+        private boolean dirty;
+
+        RunningState(String taskTrackerAddress, long lastReportTime) {
+            this.taskTrackerAddress = taskTrackerAddress;
+            this.lastReportTime = lastReportTime;
+            this.lastAbsorbTime = System.currentTimeMillis();
+        }
+    }
+}
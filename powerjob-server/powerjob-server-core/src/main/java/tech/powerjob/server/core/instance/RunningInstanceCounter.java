@@ -0,0 +1,143 @@
+package tech.powerjob.server.core.instance;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static tech.powerjob.common.enums.InstanceStatus.RUNNING;
+import static tech.powerjob.common.enums.InstanceStatus.WAITING_WORKER_RECEIVE;
+
+/**
+ * 任务运行中（WAITING_WORKER_RECEIVE、RUNNING）的实例计数，用于 maxInstanceNum 校验
+ * 由实例的状态变更（派发成功、结束、重置为等待派发）驱动，派发时无需再查询数据库；
+ * 首次使用（包括 server 重启后）以及距上次装载超过 RECONCILE_INTERVAL_MS 时从数据库重新装载，兜底遗漏的状态变更（如其他 server 派发的实例）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class RunningInstanceCounter {
+
+    private static final List<Integer> COUNTED_STATUS = Collections.unmodifiableList(Lists.newArrayList(WAITING_WORKER_RECEIVE.getV(), RUNNING.getV()));
+    /**
+     * 与数据库对账的间隔
+     */
+    private static final long RECONCILE_INTERVAL_MS = 60000;
+
+    private static final int CACHE_CONCURRENCY_LEVEL = 16;
+
+    private final boolean enable;
+
+    private final InstanceInfoRepository instanceInfoRepository;
+
+    /**
+     * jobId -> 运行中的实例，长时间未派发的任务自动淘汰
+     */
+    private final Cache<Long, RunningInstances> jobId2RunningInstances = CacheBuilder.newBuilder()
+            .concurrencyLevel(CACHE_CONCURRENCY_LEVEL)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+    /**
+     * instanceId -> jobId，状态变更事件只包含 instanceId；被淘汰的数据等同于遗漏的事件，由对账修正
+     */
+    private final Cache<Long, Long> instanceId2JobId = CacheBuilder.newBuilder()
+            .concurrencyLevel(CACHE_CONCURRENCY_LEVEL)
+            .maximumSize(100000)
+            .build();
+
+    public RunningInstanceCounter(@Value("${oms.schedule.running-counter.enable:false}") boolean enable, InstanceInfoRepository instanceInfoRepository) {
+        this.enable = enable;
+        this.instanceInfoRepository = instanceInfoRepository;
+        log.info("[RunningInstanceCounter] in-memory running instance counter enable: {}", enable);
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * 获取任务运行中的实例数量，需要在任务维度的锁内调用（与 {@link #record} 组成原子操作）
+     * @param jobId 任务ID
+     * @return 运行中的实例数量（不包含 WAITING_DISPATCH）
+     */
+    public long count(Long jobId) {
+        RunningInstances runningInstances = jobId2RunningInstances.asMap().computeIfAbsent(jobId, ignore -> new RunningInstances());
+        synchronized (runningInstances) {
+            long now = System.currentTimeMillis();
+            if (now - runningInstances.loadTime > RECONCILE_INTERVAL_MS) {
+                Set<Long> instanceIds = Sets.newHashSet();
+                instanceInfoRepository.selectBriefInfoByJobIdInAndStatusIn(Collections.singletonList(jobId), COUNTED_STATUS).forEach(instance -> {
+                    instanceIds.add(instance.getInstanceId());
+                    instanceId2JobId.put(instance.getInstanceId(), jobId);
+                });
+                if (runningInstances.loadTime > 0 && instanceIds.size() != runningInstances.instanceIds.size()) {
+                    log.info("[RunningInstanceCounter] reconcile running instances of job({}): {} -> {}", jobId, runningInstances.instanceIds.size(), instanceIds.size());
+                }
+                runningInstances.instanceIds = instanceIds;
+                runningInstances.loadTime = now;
+            }
+            return runningInstances.instanceIds.size();
+        }
+    }
+
+    /**
+     * 实例派发成功（进入 WAITING_WORKER_RECEIVE），只记录已经通过 {@link #count} 统计过的任务
+     * @param jobId 任务ID
+     * @param instanceId 实例ID
+     */
+    public void record(Long jobId, Long instanceId) {
+        if (!enable) {
+            return;
+        }
+        RunningInstances runningInstances = jobId2RunningInstances.getIfPresent(jobId);
+        if (runningInstances == null) {
+            return;
+        }
+        synchronized (runningInstances) {
+            runningInstances.instanceIds.add(instanceId);
+        }
+        instanceId2JobId.put(instanceId, jobId);
+    }
+
+    /**
+     * 实例不再处于运行中（结束或重置为等待派发），需要在数据库状态更新之后调用
+     * @param instanceId 实例ID
+     */
+    public void release(Long instanceId) {
+        if (!enable) {
+            return;
+        }
+        Long jobId = instanceId2JobId.getIfPresent(instanceId);
+        if (jobId == null) {
+            return;
+        }
+        instanceId2JobId.invalidate(instanceId);
+        RunningInstances runningInstances = jobId2RunningInstances.getIfPresent(jobId);
+        if (runningInstances == null) {
+            return;
+        }
+        synchronized (runningInstances) {
+            runningInstances.instanceIds.remove(instanceId);
+        }
+    }
+
+    private static class RunningInstances {
+
+        private Set<Long> instanceIds = Sets.newHashSet();
+        /**
+         * 上次从数据库装载的时间
+         */
+        private long loadTime;
+    }
+}
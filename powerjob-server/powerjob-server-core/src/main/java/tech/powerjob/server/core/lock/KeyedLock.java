@@ -0,0 +1,70 @@
+package tech.powerjob.server.core.lock;
+
+import tech.powerjob.server.common.metrics.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按 key 精确隔离的锁，每个 key 独占一把 ReentrantLock，不同的 key 不会共用同一把锁（嵌套获取同类型不同 key 的锁不会相互等待）
+ * 锁对象按引用计数管理：获取时计数加一，释放时减一，归零后从容器中移除，内存占用与同时持有/等待的 key 数量成正比
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class KeyedLock {
+
+    private final Map<Long, RefCountedLock> key2Lock;
+    /**
+     * 等锁耗时（微秒）
+     */
+    private final Histogram waitHistogram = new Histogram();
+
+    /**
+     * @param concurrencyLevel 预估的并发数，用于初始化容器
+     */
+    public KeyedLock(int concurrencyLevel) {
+        int level = Math.max(concurrencyLevel, 1);
+        this.key2Lock = new ConcurrentHashMap<>(level * 2, 0.75f, level);
+    }
+
+    /**
+     * 获取 key 对应的锁并增加引用计数，使用完毕（解锁后）必须调用 {@link #release(long)}
+     * @param key 锁的 key
+     * @return 锁
+     */
+    public ReentrantLock acquire(long key) {
+        return key2Lock.compute(key, (ignore, lock) -> {
+            RefCountedLock res = lock == null ? new RefCountedLock() : lock;
+            res.refCount++;
+            return res;
+        });
+    }
+
+    /**
+     * 减少 key 对应的锁的引用计数，归零后移除
+     * @param key 锁的 key
+     */
+    public void release(long key) {
+        key2Lock.computeIfPresent(key, (ignore, lock) -> --lock.refCount == 0 ? null : lock);
+    }
+
+    /**
+     * @return 当前被持有或等待中的 key 数量
+     */
+    public int size() {
+        return key2Lock.size();
+    }
+
+    public Histogram getWaitHistogram() {
+        return waitHistogram;
+    }
+
+    /**
+     * 引用计数只在容器的 compute 中修改，由容器保证互斥
+     */
+    private static class RefCountedLock extends ReentrantLock {
+        private int refCount;
+    }
+}
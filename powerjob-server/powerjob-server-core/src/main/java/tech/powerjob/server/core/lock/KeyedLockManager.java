@@ -0,0 +1,47 @@
+package tech.powerjob.server.core.lock;
+
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 管理各类型的本地锁（{@link UseCacheLock}）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Component
+public class KeyedLockManager {
+
+    private final Map<String, KeyedLock> type2Lock = Maps.newConcurrentMap();
+
+    /**
+     * 获取某类型的锁，首次使用时创建
+     * @param type 锁类型
+     * @param concurrencyLevel 并发级别
+     * @return 锁
+     */
+    public KeyedLock getLock(String type, int concurrencyLevel) {
+        KeyedLock lock = type2Lock.get(type);
+        if (lock != null) {
+            return lock;
+        }
+        return type2Lock.computeIfAbsent(type, ignore -> {
+            log.info("[KeyedLockManager] create KeyedLock for [{}] with concurrencyLevel: {}", type, concurrencyLevel);
+            return new KeyedLock(concurrencyLevel);
+        });
+    }
+
+    /**
+     * 各类型锁的等锁耗时分布（微秒），用于展示
+     * @return 锁类型 -> 耗时分布
+     */
+    public Map<String, Map<String, Object>> fetchWaitStatistics() {
+        Map<String, Map<String, Object>> res = Maps.newTreeMap();
+        type2Lock.forEach((type, lock) -> res.put(type, lock.getWaitHistogram().snapshot()));
+        return res;
+    }
+}
@@ -0,0 +1,101 @@
+package tech.powerjob.server.core.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import tech.powerjob.server.common.utils.AOPUtils;
+
+import java.lang.reflect.Method;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 从方法参数中提取锁的 key，每个方法只解析一次
+ * 形如 "#instanceId" 的表达式直接读取对应位置的参数；其余表达式预先解析，多次执行后由 SpEL 编译为字节码
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+public abstract class LockKeyExtractor {
+
+    private static final Pattern SIMPLE_VARIABLE = Pattern.compile("^#([A-Za-z_$][\\w$]*)$");
+
+    private static final long DEFAULT_KEY = 1L;
+
+    /**
+     * 提取锁的 key
+     * @param args 方法参数
+     * @return key，提取失败时返回 1
+     */
+    public abstract long extract(Object[] args);
+
+    public static LockKeyExtractor compile(Method method, String spEl) {
+        String[] params = AOPUtils.parseParameterNames(method);
+        if (params == null) {
+            throw new IllegalArgumentException("can't get the parameter names of method: " + method);
+        }
+        Matcher matcher = SIMPLE_VARIABLE.matcher(spEl.trim());
+        if (matcher.matches()) {
+            for (int i = 0; i < params.length; i++) {
+                if (params[i].equals(matcher.group(1))) {
+                    return new ArgumentKeyExtractor(method, i);
+                }
+            }
+        }
+        return new ExpressionKeyExtractor(method, params, AOPUtils.compileSpEl(spEl));
+    }
+
+    private static class ArgumentKeyExtractor extends LockKeyExtractor {
+
+        private final Method method;
+
+        private final int index;
+
+        private ArgumentKeyExtractor(Method method, int index) {
+            this.method = method;
+            this.index = index;
+        }
+
+        @Override
+        public long extract(Object[] args) {
+            Object arg = args[index];
+            if (arg instanceof Number) {
+                return ((Number) arg).longValue();
+            }
+            log.error("[LockKeyExtractor] the lock key of method[{}] is not a number: {}, please concat @tjq to fix the bug!", method.getName(), arg);
+            return DEFAULT_KEY;
+        }
+    }
+
+    private static class ExpressionKeyExtractor extends LockKeyExtractor {
+
+        private final Method method;
+
+        private final String[] params;
+
+        private final Expression expression;
+
+        private ExpressionKeyExtractor(Method method, String[] params, Expression expression) {
+            this.method = method;
+            this.params = params;
+            this.expression = expression;
+        }
+
+        @Override
+        public long extract(Object[] args) {
+            EvaluationContext context = new StandardEvaluationContext();
+            for (int i = 0; i < params.length; i++) {
+                context.setVariable(params[i], args[i]);
+            }
+            try {
+                Long key = expression.getValue(context, Long.class);
+                return key == null ? DEFAULT_KEY : key;
+            } catch (Exception e) {
+                log.error("[LockKeyExtractor] parse SpEL failed for method[{}], please concat @tjq to fix the bug!", method.getName(), e);
+                return DEFAULT_KEY;
+            }
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package tech.powerjob.server.core.lock;
 
 import com.alibaba.fastjson.JSON;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,29 +34,36 @@ public class UseCacheLockAspect {
 
     private final MonitorService monitorService;
 
-    private final Map<String, Cache<String, ReentrantLock>> lockContainer = Maps.newConcurrentMap();
+    private final KeyedLockManager keyedLockManager;
+
+    /**
+     * 方法 -> 预先解析的 key 提取器
+     */
+    private final Map<Method, LockKeyExtractor> method2KeyExtractor = Maps.newConcurrentMap();
 
     private static final long SLOW_THRESHOLD = 100;
 
     @Around(value = "@annotation(useCacheLock))")
     public Object execute(ProceedingJoinPoint point, UseCacheLock useCacheLock) throws Throwable {
-        Cache<String, ReentrantLock> lockCache = lockContainer.computeIfAbsent(useCacheLock.type(), ignore -> {
-            int concurrencyLevel = useCacheLock.concurrencyLevel();
-            log.info("[UseSegmentLockAspect] create Lock Cache for [{}] with concurrencyLevel: {}", useCacheLock.type(), concurrencyLevel);
-            return CacheBuilder.newBuilder()
-                    .initialCapacity(300000)
-                    .maximumSize(500000)
-                    .concurrencyLevel(concurrencyLevel)
-                    .expireAfterWrite(30, TimeUnit.MINUTES)
-                    .build();
-        });
+        KeyedLock keyedLock = keyedLockManager.getLock(useCacheLock.type(), useCacheLock.concurrencyLevel());
         final Method method = AOPUtils.parseMethod(point);
-        Long key = AOPUtils.parseSpEl(method, point.getArgs(), useCacheLock.key(), Long.class, 1L);
-        final ReentrantLock reentrantLock = lockCache.get(String.valueOf(key), ReentrantLock::new);
-        long start = System.currentTimeMillis();
-        reentrantLock.lockInterruptibly();
+        LockKeyExtractor keyExtractor = method2KeyExtractor.get(method);
+        if (keyExtractor == null) {
+            keyExtractor = method2KeyExtractor.computeIfAbsent(method, m -> LockKeyExtractor.compile(m, useCacheLock.key()));
+        }
+        long key = keyExtractor.extract(point.getArgs());
+        final ReentrantLock reentrantLock = keyedLock.acquire(key);
+        long start = System.nanoTime();
+        try {
+            reentrantLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            keyedLock.release(key);
+            throw e;
+        }
         try {
-            long timeCost = System.currentTimeMillis() - start;
+            long waitNanos = System.nanoTime() - start;
+            keyedLock.getWaitHistogram().record(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+            long timeCost = TimeUnit.NANOSECONDS.toMillis(waitNanos);
             if (timeCost > SLOW_THRESHOLD) {
 
                 final SlowLockEvent slowLockEvent = new SlowLockEvent()
@@ -78,6 +83,7 @@ public class UseCacheLockAspect {
             return point.proceed();
         } finally {
             reentrantLock.unlock();
+            keyedLock.release(key);
         }
     }
 }
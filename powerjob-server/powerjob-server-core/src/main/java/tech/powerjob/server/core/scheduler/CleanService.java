@@ -12,6 +12,7 @@ import tech.powerjob.common.enums.InstanceStatus;
 import tech.powerjob.common.enums.WorkflowInstanceStatus;
 import tech.powerjob.server.common.constants.PJThreadPool;
 import tech.powerjob.server.common.utils.OmsFileUtils;
+import tech.powerjob.server.core.instance.InstanceArchiveService;
 import tech.powerjob.server.extension.LockService;
 import tech.powerjob.server.extension.dfs.DFsService;
 import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
@@ -37,6 +38,8 @@ public class CleanService {
 
     private final InstanceInfoRepository instanceInfoRepository;
 
+    private final InstanceArchiveService instanceArchiveService;
+
     private final WorkflowInstanceInfoRepository workflowInstanceInfoRepository;
 
     private final WorkflowNodeInfoRepository workflowNodeInfoRepository;
@@ -58,13 +61,14 @@ public class CleanService {
 
     private static final String HISTORY_DELETE_LOCK = "history_delete_lock";
 
-    public CleanService(DFsService dFsService, InstanceInfoRepository instanceInfoRepository, WorkflowInstanceInfoRepository workflowInstanceInfoRepository,
+    public CleanService(DFsService dFsService, InstanceInfoRepository instanceInfoRepository, InstanceArchiveService instanceArchiveService, WorkflowInstanceInfoRepository workflowInstanceInfoRepository,
                         WorkflowNodeInfoRepository workflowNodeInfoRepository, LockService lockService,
                         @Value("${oms.instanceinfo.retention}") int instanceInfoRetentionDay,
                         @Value("${oms.container.retention.local}") int localContainerRetentionDay,
                         @Value("${oms.container.retention.remote}") int remoteContainerRetentionDay) {
         this.dFsService = dFsService;
         this.instanceInfoRepository = instanceInfoRepository;
+        this.instanceArchiveService = instanceArchiveService;
         this.workflowInstanceInfoRepository = workflowInstanceInfoRepository;
         this.workflowNodeInfoRepository = workflowNodeInfoRepository;
         this.lockService = lockService;
@@ -171,6 +175,10 @@ public class CleanService {
             Date t = DateUtils.addDays(new Date(), -instanceInfoRetentionDay);
             int num = instanceInfoRepository.deleteAllByGmtModifiedBeforeAndStatusIn(t, InstanceStatus.FINISHED_STATUS);
             log.info("[CleanService] deleted {} instanceInfo records whose modify time before {}.", num, t);
+            if (instanceArchiveService.isEnable()) {
+                int archiveNum = instanceArchiveService.purge(t);
+                log.info("[CleanService] deleted {} archived instanceInfo records whose modify time before {}.", archiveNum, t);
+            }
         }catch (Exception e) {
             log.warn("[CleanService] clean instanceInfo failed.", e);
         }
@@ -24,6 +24,8 @@ public class CoreScheduleTaskManager implements InitializingBean, DisposableBean
 
     private final InstanceStatusCheckService instanceStatusCheckService;
 
+    private final TriggerJournalService triggerJournalService;
+
     private final List<Thread> coreThreadContainer = new ArrayList<>();
 
 
@@ -42,6 +44,8 @@ public class CoreScheduleTaskManager implements InitializingBean, DisposableBean
         coreThreadContainer.add(new Thread(new LoopRunnable("CheckWaitingDispatchInstance", InstanceStatusCheckService.CHECK_INTERVAL, instanceStatusCheckService::checkWaitingDispatchInstance), "Thread-CheckWaitingDispatchInstance"));
         coreThreadContainer.add(new Thread(new LoopRunnable("CheckWaitingWorkerReceiveInstance", InstanceStatusCheckService.CHECK_INTERVAL, instanceStatusCheckService::checkWaitingWorkerReceiveInstance), "Thread-CheckWaitingWorkerReceiveInstance"));
         coreThreadContainer.add(new Thread(new LoopRunnable("CheckWorkflowInstance", InstanceStatusCheckService.CHECK_INTERVAL, instanceStatusCheckService::checkWorkflowInstance), "Thread-CheckWorkflowInstance"));
+        // 重放上次停机前未触发的实例（仅执行一次）
+        coreThreadContainer.add(new Thread(triggerJournalService::replay, "Thread-ReplayTriggerJournal"));
 
         coreThreadContainer.forEach(Thread::start);
     }
@@ -0,0 +1,241 @@
+package tech.powerjob.server.core.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.enums.InstanceStatus;
+import tech.powerjob.common.enums.TimeExpressionType;
+import tech.powerjob.server.common.constants.SwitchableStatus;
+import tech.powerjob.server.persistence.remote.model.brief.BriefJobInfo;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
+
+import java.util.*;
+
+/**
+ * 秒级任务（FIX_RATE/FIX_DELAY）注册表
+ * 在内存中维护当前 server 负责的秒级任务及其存活实例，实例的创建、结束通过事件更新，
+ * 开启后每轮调度只需处理没有存活实例的任务，不再需要全量查询任务及实例表
+ * 数据一致性：其他 server 上的任务修改通过 gmtModified 增量同步，遗漏的实例事件由定期全量重建兜底
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class FrequentJobRegistry {
+
+    /**
+     * 每次查询的应用数量
+     */
+    private static final int MAX_APP_NUM = 10;
+    /**
+     * 每次查询实例的任务数量
+     */
+    private static final int MAX_JOB_NUM = 500;
+    /**
+     * 全量重建间隔
+     */
+    private static final long FULL_RELOAD_INTERVAL_MS = 60000;
+    /**
+     * 增量同步时向前多查询的时间，容忍事务提交延迟以及 server 间的时钟偏差
+     */
+    private static final long SYNC_OVERLAP_MS = 2 * PowerScheduleService.SCHEDULE_RATE;
+
+    private final boolean enable;
+
+    private final JobInfoRepository jobInfoRepository;
+
+    private final InstanceInfoRepository instanceInfoRepository;
+
+    /**
+     * jobId -> appId
+     */
+    private final Map<Long, Long> jobId2AppId = Maps.newHashMap();
+    /**
+     * jobId -> 存活（GENERALIZED_RUNNING_STATUS）的实例ID
+     */
+    private final Map<Long, Set<Long>> jobId2LiveInstanceIds = Maps.newHashMap();
+
+    private final Map<Long, Long> instanceId2JobId = Maps.newHashMap();
+    /**
+     * 没有存活实例、需要重新运行的任务
+     */
+    private final Set<Long> idleJobIds = Sets.newHashSet();
+
+    private final Set<Long> indexedAppIds = Sets.newHashSet();
+
+    private long lastSyncTime;
+
+    private long lastFullReloadTime;
+
+    public FrequentJobRegistry(@Value("${oms.schedule.frequent-registry.enable:false}") boolean enable, JobInfoRepository jobInfoRepository, InstanceInfoRepository instanceInfoRepository) {
+        this.enable = enable;
+        this.jobInfoRepository = jobInfoRepository;
+        this.instanceInfoRepository = instanceInfoRepository;
+        log.info("[FrequentJobRegistry] in-memory frequent job registry enable: {}", enable);
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * 与数据库同步注册表，每轮调度前调用
+     * @param appIds 当前 server 负责的所有 appId
+     */
+    public synchronized void sync(List<Long> appIds) {
+
+        long now = System.currentTimeMillis();
+        Set<Long> currentAppIds = Sets.newHashSet(appIds);
+
+        if (now - lastFullReloadTime > FULL_RELOAD_INTERVAL_MS) {
+            clear();
+            indexedAppIds.addAll(currentAppIds);
+            load(Lists.newArrayList(currentAppIds));
+            lastFullReloadTime = now;
+            lastSyncTime = now;
+            log.info("[FrequentJobRegistry] full reload finished, registered {} jobs({} idle) of {} apps, cost {} ms.", jobId2AppId.size(), idleJobIds.size(), indexedAppIds.size(), System.currentTimeMillis() - now);
+            return;
+        }
+
+        // 不再由当前 server 负责的 app
+        Set<Long> removedAppIds = Sets.difference(indexedAppIds, currentAppIds).immutableCopy();
+        if (!removedAppIds.isEmpty()) {
+            Lists.newArrayList(jobId2AppId.entrySet()).forEach(entry -> {
+                if (removedAppIds.contains(entry.getValue())) {
+                    unregister(entry.getKey());
+                }
+            });
+            indexedAppIds.removeAll(removedAppIds);
+            log.info("[FrequentJobRegistry] remove apps({}) from registry.", removedAppIds);
+        }
+        // 新接管的 app
+        Set<Long> addedAppIds = Sets.difference(currentAppIds, indexedAppIds).immutableCopy();
+        if (!addedAppIds.isEmpty()) {
+            indexedAppIds.addAll(addedAppIds);
+            load(Lists.newArrayList(addedAppIds));
+            log.info("[FrequentJobRegistry] add apps({}) to registry.", addedAppIds);
+        }
+        // 增量同步，只处理发生变化的任务
+        Date since = new Date(lastSyncTime - SYNC_OVERLAP_MS);
+        List<BriefJobInfo> changedJobs = Lists.newArrayList();
+        Lists.partition(Lists.newArrayList(indexedAppIds), MAX_APP_NUM).forEach(partAppIds ->
+                changedJobs.addAll(jobInfoRepository.selectBriefInfoByAppIdInAndGmtModifiedAfter(partAppIds, since))
+        );
+        registerJobs(changedJobs);
+        lastSyncTime = now;
+    }
+
+    /**
+     * @return 没有存活实例、需要重新运行的任务
+     */
+    public synchronized List<Long> getIdleJobIds() {
+        return Lists.newArrayList(idleJobIds);
+    }
+
+    /**
+     * 秒级任务创建了新的实例
+     * @param jobId 任务ID
+     * @param instanceId 实例ID
+     */
+    public synchronized void onInstanceCreated(Long jobId, Long instanceId) {
+        if (!enable) {
+            return;
+        }
+        Set<Long> liveInstanceIds = jobId2LiveInstanceIds.get(jobId);
+        if (liveInstanceIds == null) {
+            return;
+        }
+        liveInstanceIds.add(instanceId);
+        instanceId2JobId.put(instanceId, jobId);
+        idleJobIds.remove(jobId);
+    }
+
+    /**
+     * 实例进入最终状态（成功、失败、停止）
+     * @param instanceId 实例ID
+     */
+    public synchronized void onInstanceFinished(Long instanceId) {
+        if (!enable) {
+            return;
+        }
+        Long jobId = instanceId2JobId.remove(instanceId);
+        if (jobId == null) {
+            return;
+        }
+        Set<Long> liveInstanceIds = jobId2LiveInstanceIds.get(jobId);
+        if (liveInstanceIds != null && liveInstanceIds.remove(instanceId) && liveInstanceIds.isEmpty()) {
+            idleJobIds.add(jobId);
+        }
+    }
+
+    /**
+     * 根据任务最新的调度信息更新注册表
+     * @param jobInfo 任务简要信息
+     */
+    public synchronized void update(BriefJobInfo jobInfo) {
+        if (!enable) {
+            return;
+        }
+        registerJobs(Collections.singletonList(jobInfo));
+    }
+
+    private void load(List<Long> appIds) {
+        List<BriefJobInfo> jobInfos = Lists.newArrayList();
+        Lists.partition(appIds, MAX_APP_NUM).forEach(partAppIds ->
+                jobInfos.addAll(jobInfoRepository.selectBriefInfoByAppIdInAndStatusAndTimeExpressionTypeIn(partAppIds, SwitchableStatus.ENABLE.getV(), TimeExpressionType.FREQUENT_TYPES))
+        );
+        registerJobs(jobInfos);
+    }
+
+    /**
+     * 注册（或移除）任务并从数据库中装载其存活实例
+     */
+    private void registerJobs(List<BriefJobInfo> jobInfos) {
+        List<Long> registeredJobIds = Lists.newArrayList();
+        for (BriefJobInfo jobInfo : jobInfos) {
+            // 非当前 server 负责的 app 无需维护
+            if (!indexedAppIds.contains(jobInfo.getAppId())) {
+                continue;
+            }
+            unregister(jobInfo.getId());
+            boolean needSchedule = Objects.equals(jobInfo.getStatus(), SwitchableStatus.ENABLE.getV())
+                    && TimeExpressionType.FREQUENT_TYPES.contains(jobInfo.getTimeExpressionType());
+            if (!needSchedule) {
+                continue;
+            }
+            jobId2AppId.put(jobInfo.getId(), jobInfo.getAppId());
+            jobId2LiveInstanceIds.put(jobInfo.getId(), Sets.newHashSet());
+            idleJobIds.add(jobInfo.getId());
+            registeredJobIds.add(jobInfo.getId());
+        }
+        Lists.partition(registeredJobIds, MAX_JOB_NUM).forEach(partJobIds ->
+                instanceInfoRepository.selectBriefInfoByJobIdInAndStatusIn(partJobIds, InstanceStatus.GENERALIZED_RUNNING_STATUS).forEach(instance -> {
+                    jobId2LiveInstanceIds.get(instance.getJobId()).add(instance.getInstanceId());
+                    instanceId2JobId.put(instance.getInstanceId(), instance.getJobId());
+                    idleJobIds.remove(instance.getJobId());
+                })
+        );
+    }
+
+    private void unregister(Long jobId) {
+        jobId2AppId.remove(jobId);
+        idleJobIds.remove(jobId);
+        Set<Long> liveInstanceIds = jobId2LiveInstanceIds.remove(jobId);
+        if (liveInstanceIds != null) {
+            liveInstanceIds.forEach(instanceId2JobId::remove);
+        }
+    }
+
+    private void clear() {
+        jobId2AppId.clear();
+        jobId2LiveInstanceIds.clear();
+        instanceId2JobId.clear();
+        idleJobIds.clear();
+        indexedAppIds.clear();
+    }
+}
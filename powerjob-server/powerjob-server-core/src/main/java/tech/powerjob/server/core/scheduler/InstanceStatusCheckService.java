@@ -2,8 +2,13 @@ package tech.powerjob.server.core.scheduler;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -13,6 +18,8 @@ import tech.powerjob.common.enums.TimeExpressionType;
 import tech.powerjob.common.enums.WorkflowInstanceStatus;
 import tech.powerjob.server.common.Holder;
 import tech.powerjob.server.common.constants.SwitchableStatus;
+import tech.powerjob.server.core.DispatchAdmissionController;
+import tech.powerjob.server.core.DispatchCoalescer;
 import tech.powerjob.server.core.DispatchService;
 import tech.powerjob.server.core.instance.InstanceManager;
 import tech.powerjob.server.core.workflow.WorkflowInstanceManager;
@@ -25,6 +32,8 @@ import tech.powerjob.server.persistence.remote.repository.*;
 import tech.powerjob.server.remote.transporter.TransportService;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -36,7 +45,7 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class InstanceStatusCheckService {
+public class InstanceStatusCheckService implements InitializingBean, DisposableBean {
 
     private static final int MAX_BATCH_NUM_APP = 10;
     private static final int MAX_BATCH_NUM_INSTANCE = 3000;
@@ -52,6 +61,10 @@ public class InstanceStatusCheckService {
 
     private final DispatchService dispatchService;
 
+    private final DispatchAdmissionController dispatchAdmissionController;
+
+    private final DispatchCoalescer dispatchCoalescer;
+
     private final InstanceManager instanceManager;
 
     private final WorkflowInstanceManager workflowInstanceManager;
@@ -66,6 +79,14 @@ public class InstanceStatusCheckService {
 
     private final WorkflowInstanceInfoRepository workflowInstanceInfoRepository;
 
+    /**
+     * 并行检查的应用分片数，1 代表串行检查
+     */
+    @Value("${oms.instance.status-check.parallelism:1}")
+    private int checkParallelism;
+
+    private ThreadPoolExecutor shardExecutor;
+
     public void checkWorkflowInstance() {
         Stopwatch stopwatch = Stopwatch.createStarted();
         // 查询 DB 获取该 Server 需要负责的 AppGroup
@@ -96,7 +117,7 @@ public class InstanceStatusCheckService {
         }
         try {
             // 检查等待 WAITING_DISPATCH 状态的任务
-            Lists.partition(allAppIds, MAX_BATCH_NUM_APP).forEach(this::handleWaitingDispatchInstance);
+            forEachAppShard(allAppIds, this::handleWaitingDispatchInstance);
         } catch (Exception e) {
             log.error("[InstanceStatusChecker] WaitingDispatchInstance status check failed.", e);
         }
@@ -117,7 +138,7 @@ public class InstanceStatusCheckService {
         }
         try {
             // 检查 WAITING_WORKER_RECEIVE 状态的任务
-            Lists.partition(allAppIds, MAX_BATCH_NUM_APP).forEach(this::handleWaitingWorkerReceiveInstance);
+            forEachAppShard(allAppIds, this::handleWaitingWorkerReceiveInstance);
         } catch (Exception e) {
             log.error("[InstanceStatusChecker] WaitingWorkerReceiveInstance status check failed.", e);
         }
@@ -138,7 +159,7 @@ public class InstanceStatusCheckService {
         }
         try {
             // 检查 RUNNING 状态的任务（一定时间没收到 TaskTracker 的状态报告，视为失败）
-            Lists.partition(allAppIds, MAX_BATCH_NUM_APP).forEach(this::handleRunningInstance);
+            forEachAppShard(allAppIds, this::handleRunningInstance);
         } catch (Exception e) {
             log.error("[InstanceStatusChecker] RunningInstance status check failed.", e);
         }
@@ -147,8 +168,10 @@ public class InstanceStatusCheckService {
 
     private void handleWaitingDispatchInstance(List<Long> partAppIds) {
         // 1. 检查等待 WAITING_DISPATCH 状态的任务
-        long threshold = System.currentTimeMillis() - DISPATCH_TIMEOUT_MS;
-        List<InstanceInfoDO> waitingDispatchInstances = instanceInfoRepository.findAllByAppIdInAndStatusAndExpectedTriggerTimeLessThan(partAppIds, InstanceStatus.WAITING_DISPATCH.getV(), threshold, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
+        // 基于 ID 游标分页，已处理（包括因超载跳过）的实例不会被重复扫描
+        final long threshold = System.currentTimeMillis() - DISPATCH_TIMEOUT_MS;
+        long lastId = 0;
+        List<InstanceInfoDO> waitingDispatchInstances = instanceInfoRepository.findAllByAppIdInAndStatusAndExpectedTriggerTimeLessThanAndIdGreaterThanOrderByIdAsc(partAppIds, InstanceStatus.WAITING_DISPATCH.getV(), threshold, lastId, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
         while (!waitingDispatchInstances.isEmpty()) {
             List<Long> overloadAppIdList = new ArrayList<>();
             long startTime = System.currentTimeMillis();
@@ -157,6 +180,17 @@ public class InstanceStatusCheckService {
             for (Map.Entry<Long, List<InstanceInfoDO>> entry : waitingDispatchInstancesMap.entrySet()) {
                 final Long currentAppId = entry.getKey();
                 final List<InstanceInfoDO> currentAppWaitingDispatchInstances = entry.getValue();
+                // 已经在准入队列中排队的实例由准入控制负责派发
+                if (dispatchAdmissionController.isEnable()) {
+                    currentAppWaitingDispatchInstances.removeIf(instance -> dispatchAdmissionController.isParked(instance.getInstanceId()));
+                }
+                // 等待合并发送的实例由合并器负责更新状态
+                if (dispatchCoalescer.isEnable()) {
+                    currentAppWaitingDispatchInstances.removeIf(instance -> dispatchCoalescer.isPending(instance.getInstanceId()));
+                }
+                if (currentAppWaitingDispatchInstances.isEmpty()) {
+                    continue;
+                }
                 // collect job id
                 Set<Long> jobIds = currentAppWaitingDispatchInstances.stream().map(InstanceInfoDO::getJobId).collect(Collectors.toSet());
                 // query job info and map
@@ -179,7 +213,6 @@ public class InstanceStatusCheckService {
                         opt.ifPresent(instanceInfoDO -> updateFailedInstance(instanceInfoDO, SystemInstanceResult.CAN_NOT_FIND_JOB_INFO));
                     }
                 });
-                threshold = System.currentTimeMillis() - DISPATCH_TIMEOUT_MS;
                 if (overloadFlag.get()) {
                     overloadAppIdList.add(currentAppId);
                 }
@@ -192,62 +225,64 @@ public class InstanceStatusCheckService {
             if (partAppIds.isEmpty()) {
                 break;
             }
-            waitingDispatchInstances = instanceInfoRepository.findAllByAppIdInAndStatusAndExpectedTriggerTimeLessThan(partAppIds, InstanceStatus.WAITING_DISPATCH.getV(), threshold, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
+            lastId = waitingDispatchInstances.get(waitingDispatchInstances.size() - 1).getId();
+            waitingDispatchInstances = instanceInfoRepository.findAllByAppIdInAndStatusAndExpectedTriggerTimeLessThanAndIdGreaterThanOrderByIdAsc(partAppIds, InstanceStatus.WAITING_DISPATCH.getV(), threshold, lastId, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
         }
 
     }
 
     private void handleWaitingWorkerReceiveInstance(List<Long> partAppIds) {
         // 2. 检查 WAITING_WORKER_RECEIVE 状态的任务
-        long threshold = System.currentTimeMillis() - RECEIVE_TIMEOUT_MS;
-        List<BriefInstanceInfo> waitingWorkerReceiveInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndActualTriggerTimeLessThan(partAppIds, InstanceStatus.WAITING_WORKER_RECEIVE.getV(), threshold, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
+        final long threshold = System.currentTimeMillis() - RECEIVE_TIMEOUT_MS;
+        long lastId = 0;
+        List<BriefInstanceInfo> waitingWorkerReceiveInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndActualTriggerTimeLessThanAndIdGreaterThan(partAppIds, InstanceStatus.WAITING_WORKER_RECEIVE.getV(), threshold, lastId, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
         while (!waitingWorkerReceiveInstances.isEmpty()) {
             log.warn("[InstanceStatusChecker] find some instance didn't receive any reply from worker, try to redispatch: {}", waitingWorkerReceiveInstances.stream().map(BriefInstanceInfo::getInstanceId).collect(Collectors.toList()));
             final List<List<BriefInstanceInfo>> partitions = Lists.partition(waitingWorkerReceiveInstances, MAX_BATCH_UPDATE_NUM);
             for (List<BriefInstanceInfo> partition : partitions) {
                 dispatchService.redispatchBatchAsyncLockFree(partition.stream().map(BriefInstanceInfo::getInstanceId).collect(Collectors.toList()), InstanceStatus.WAITING_WORKER_RECEIVE.getV());
             }
-            // 重新查询
-            threshold = System.currentTimeMillis() - RECEIVE_TIMEOUT_MS;
-            waitingWorkerReceiveInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndActualTriggerTimeLessThan(partAppIds, InstanceStatus.WAITING_WORKER_RECEIVE.getV(), threshold, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
+            // 查询下一页
+            lastId = waitingWorkerReceiveInstances.get(waitingWorkerReceiveInstances.size() - 1).getId();
+            waitingWorkerReceiveInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndActualTriggerTimeLessThanAndIdGreaterThan(partAppIds, InstanceStatus.WAITING_WORKER_RECEIVE.getV(), threshold, lastId, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
         }
     }
 
     private void handleRunningInstance(List<Long> partAppIds) {
         // 3. 检查 RUNNING 状态的任务（一定时间没收到 TaskTracker 的状态报告，视为失败）
-        long threshold = System.currentTimeMillis() - RUNNING_TIMEOUT_MS;
-        List<BriefInstanceInfo> failedInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndGmtModifiedBefore(partAppIds, InstanceStatus.RUNNING.getV(), new Date(threshold), PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
-        while (!failedInstances.isEmpty()) {
+        final long threshold = System.currentTimeMillis() - RUNNING_TIMEOUT_MS;
+        long lastId = 0;
+        List<BriefInstanceInfo> timeoutInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndGmtModifiedBeforeAndIdGreaterThan(partAppIds, InstanceStatus.RUNNING.getV(), new Date(threshold), lastId, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
+        while (!timeoutInstances.isEmpty()) {
             // collect job id
-            Set<Long> jobIds = failedInstances.stream().map(BriefInstanceInfo::getJobId).collect(Collectors.toSet());
+            Set<Long> jobIds = timeoutInstances.stream().map(BriefInstanceInfo::getJobId).collect(Collectors.toSet());
             // query job info and map
             Map<Long, JobInfoDO> jobInfoMap = jobInfoRepository.findByIdIn(jobIds).stream().collect(Collectors.toMap(JobInfoDO::getId, e -> e));
-            log.warn("[InstanceStatusCheckService] find some instances have not received status report for a long time : {}", failedInstances.stream().map(BriefInstanceInfo::getInstanceId).collect(Collectors.toList()));
-            failedInstances.forEach(instance -> {
+            log.warn("[InstanceStatusCheckService] find some instances have not received status report for a long time : {}", timeoutInstances.stream().map(BriefInstanceInfo::getInstanceId).collect(Collectors.toList()));
+            List<BriefInstanceInfo> failedInstances = new ArrayList<>();
+            timeoutInstances.forEach(instance -> {
                 Optional<JobInfoDO> jobInfoOpt = Optional.ofNullable(jobInfoMap.get(instance.getJobId()));
                 if (!jobInfoOpt.isPresent()) {
-                    final Optional<InstanceInfoDO> opt = instanceInfoRepository.findById(instance.getId());
-                    opt.ifPresent(e -> updateFailedInstance(e, SystemInstanceResult.REPORT_TIMEOUT));
+                    failedInstances.add(instance);
                     return;
                 }
                 TimeExpressionType timeExpressionType = TimeExpressionType.of(jobInfoOpt.get().getTimeExpressionType());
                 SwitchableStatus switchableStatus = SwitchableStatus.of(jobInfoOpt.get().getStatus());
                 // 如果任务已关闭，则不进行重试，将任务置为失败即可；秒级任务也直接置为失败，由派发器重新调度
                 if (switchableStatus != SwitchableStatus.ENABLE || TimeExpressionType.FREQUENT_TYPES.contains(timeExpressionType.getV())) {
-                    final Optional<InstanceInfoDO> opt = instanceInfoRepository.findById(instance.getId());
-                    opt.ifPresent(e -> updateFailedInstance(e, SystemInstanceResult.REPORT_TIMEOUT));
+                    failedInstances.add(instance);
                     return;
                 }
                 // CRON 和 API一样，失败次数 + 1，根据重试配置进行重试
                 if (instance.getRunningTimes() < jobInfoOpt.get().getInstanceRetryNum()) {
                     dispatchService.redispatchAsync(instance.getInstanceId(), InstanceStatus.RUNNING.getV());
                 } else {
-                    final Optional<InstanceInfoDO> opt = instanceInfoRepository.findById(instance.getId());
-                    opt.ifPresent(e -> updateFailedInstance(e, SystemInstanceResult.REPORT_TIMEOUT));
+                    failedInstances.add(instance);
                 }
             });
-            threshold = System.currentTimeMillis() - RUNNING_TIMEOUT_MS;
-            failedInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndGmtModifiedBefore(partAppIds, InstanceStatus.RUNNING.getV(), new Date(threshold), PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
+            updateFailedInstances(failedInstances, InstanceStatus.RUNNING.getV(), SystemInstanceResult.REPORT_TIMEOUT);
+            lastId = timeoutInstances.get(timeoutInstances.size() - 1).getId();
+            timeoutInstances = instanceInfoRepository.selectBriefInfoByAppIdInAndStatusAndGmtModifiedBeforeAndIdGreaterThan(partAppIds, InstanceStatus.RUNNING.getV(), new Date(threshold), lastId, PageRequest.of(0, MAX_BATCH_NUM_INSTANCE));
         }
 
     }
@@ -295,4 +330,58 @@ public class InstanceStatusCheckService {
 
         instanceManager.processFinishedInstance(instance.getInstanceId(), instance.getWfInstanceId(), InstanceStatus.FAILED, result);
     }
+
+    /**
+     * 批量将实例置为失败，只更新仍处于原状态的实例
+     */
+    private void updateFailedInstances(List<BriefInstanceInfo> instances, int originStatus, String result) {
+        for (List<BriefInstanceInfo> partition : Lists.partition(instances, MAX_BATCH_UPDATE_NUM)) {
+            long now = System.currentTimeMillis();
+            List<Long> instanceIds = partition.stream().map(BriefInstanceInfo::getInstanceId).collect(Collectors.toList());
+            // 部分实例的状态可能已被其他线程修改，只处理本次更新成功的实例
+            Set<Long> failedInstanceIds = Sets.newHashSet(instanceInfoRepository.update4FinishedAndFetchUpdated(instanceIds, originStatus, InstanceStatus.FAILED.getV(), now, result, new Date(now)));
+            log.warn("[InstanceStatusChecker] instances{} failed due to {}, updated num: {}", instanceIds, result, failedInstanceIds.size());
+            List<BriefInstanceInfo> failedInstances = partition.stream().filter(e -> failedInstanceIds.contains(e.getInstanceId())).collect(Collectors.toList());
+            failedInstances.forEach(instance -> instanceManager.processFinishedInstance(instance.getInstanceId(), instance.getWfInstanceId(), InstanceStatus.FAILED, result));
+        }
+    }
+
+    /**
+     * 按应用分片执行检查，开启并行检查时各个分片提交到有界线程池并等待全部完成
+     */
+    private void forEachAppShard(List<Long> allAppIds, Consumer<List<Long>> handler) {
+        // 复制分片，避免处理过程中修改分片（如移除超载的应用）影响原列表
+        List<List<Long>> shards = Lists.partition(allAppIds, MAX_BATCH_NUM_APP).stream().map(ArrayList::new).collect(Collectors.toList());
+        if (shardExecutor == null || shards.size() == 1) {
+            shards.forEach(handler);
+            return;
+        }
+        List<Future<?>> futures = shards.stream().map(shard -> shardExecutor.submit(() -> handler.accept(shard))).collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("[InstanceStatusChecker] check app shard failed.", e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (checkParallelism > 1) {
+            shardExecutor = new ThreadPoolExecutor(checkParallelism, checkParallelism, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(checkParallelism * 16),
+                    new ThreadFactoryBuilder().setNameFormat("InstanceStatusCheck-%d").setDaemon(true).build(), new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        log.info("[InstanceStatusChecker] status check parallelism: {}", Math.max(checkParallelism, 1));
+    }
+
+    @Override
+    public void destroy() {
+        if (shardExecutor != null) {
+            shardExecutor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,199 @@
+package tech.powerjob.server.core.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.enums.TimeExpressionType;
+import tech.powerjob.server.common.constants.SwitchableStatus;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.persistence.remote.model.brief.BriefJobInfo;
+import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
+
+import java.util.*;
+
+/**
+ * 任务触发索引
+ * 在内存中按 nextTriggerTime 维护当前 server 负责的 CRON/DAILY_TIME_INTERVAL 任务（小顶堆），
+ * 开启后每轮调度只需取出即将触发的任务，不再需要按 app 批量扫描 job_info
+ * 数据一致性：任务的保存/启用/停用/删除会直接更新索引，其他 server 上的修改通过 gmtModified 增量同步，并定期全量重建兜底
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class JobTriggerIndex {
+
+    /**
+     * 每次查询的应用数量
+     */
+    private static final int MAX_APP_NUM = 10;
+    /**
+     * 全量重建间隔
+     */
+    private static final long FULL_RELOAD_INTERVAL_MS = 300000;
+    /**
+     * 增量同步时向前多查询的时间，容忍事务提交延迟以及 server 间的时钟偏差
+     */
+    private static final long SYNC_OVERLAP_MS = 2 * PowerScheduleService.SCHEDULE_RATE;
+
+    private final boolean enable;
+
+    private final JobInfoRepository jobInfoRepository;
+
+    private final Map<Integer, PriorityQueue<TriggerEntry>> type2Heap = Maps.newHashMap();
+    /**
+     * jobId -> 当前有效的索引项，堆中不在此处的索引项均为过期数据（惰性删除）
+     */
+    private final Map<Long, TriggerEntry> jobId2Entry = Maps.newHashMap();
+
+    private final Set<Long> indexedAppIds = Sets.newHashSet();
+
+    private long lastSyncTime;
+
+    private long lastFullReloadTime;
+
+    public JobTriggerIndex(@Value("${oms.schedule.trigger-index.enable:false}") boolean enable, JobInfoRepository jobInfoRepository) {
+        this.enable = enable;
+        this.jobInfoRepository = jobInfoRepository;
+        TimeExpressionType.INSPECT_TYPES.forEach(type -> type2Heap.put(type, new PriorityQueue<>()));
+        log.info("[JobTriggerIndex] in-memory trigger index enable: {}", enable);
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * 与数据库同步索引数据，每轮调度前调用
+     * @param appIds 当前 server 负责的所有 appId
+     */
+    public synchronized void sync(List<Long> appIds) {
+
+        long now = System.currentTimeMillis();
+        Set<Long> currentAppIds = Sets.newHashSet(appIds);
+
+        if (now - lastFullReloadTime > FULL_RELOAD_INTERVAL_MS) {
+            clear();
+            load(Lists.newArrayList(currentAppIds));
+            indexedAppIds.addAll(currentAppIds);
+            lastFullReloadTime = now;
+            lastSyncTime = now;
+            log.info("[JobTriggerIndex] full reload finished, indexed {} jobs of {} apps, cost {} ms.", jobId2Entry.size(), indexedAppIds.size(), System.currentTimeMillis() - now);
+            return;
+        }
+
+        // 不再由当前 server 负责的 app
+        Set<Long> removedAppIds = Sets.difference(indexedAppIds, currentAppIds).immutableCopy();
+        if (!removedAppIds.isEmpty()) {
+            jobId2Entry.values().removeIf(entry -> removedAppIds.contains(entry.appId));
+            indexedAppIds.removeAll(removedAppIds);
+            log.info("[JobTriggerIndex] remove apps({}) from index.", removedAppIds);
+        }
+        // 新接管的 app
+        Set<Long> addedAppIds = Sets.difference(currentAppIds, indexedAppIds).immutableCopy();
+        if (!addedAppIds.isEmpty()) {
+            load(Lists.newArrayList(addedAppIds));
+            indexedAppIds.addAll(addedAppIds);
+            log.info("[JobTriggerIndex] add apps({}) to index.", addedAppIds);
+        }
+        // 增量同步
+        Date since = new Date(lastSyncTime - SYNC_OVERLAP_MS);
+        Lists.partition(Lists.newArrayList(indexedAppIds), MAX_APP_NUM).forEach(partAppIds ->
+                jobInfoRepository.selectBriefInfoByAppIdInAndGmtModifiedAfter(partAppIds, since).forEach(this::upsert)
+        );
+        lastSyncTime = now;
+    }
+
+    /**
+     * 取出所有即将需要触发的任务（取出后即从索引中移除，由调用方在刷新下次调度时间后通过 {@link #update} 重新写入）
+     * @param timeExpressionType 表达式类型
+     * @param timeThreshold 时间阈值
+     * @return jobId 列表
+     */
+    public synchronized List<Long> pollDueJobIds(TimeExpressionType timeExpressionType, long timeThreshold) {
+        PriorityQueue<TriggerEntry> heap = type2Heap.get(timeExpressionType.getV());
+        if (heap == null) {
+            return Collections.emptyList();
+        }
+        List<Long> dueJobIds = Lists.newArrayList();
+        while (!heap.isEmpty() && heap.peek().nextTriggerTime <= timeThreshold) {
+            TriggerEntry entry = heap.poll();
+            // 过期的索引项直接丢弃
+            if (jobId2Entry.get(entry.jobId) != entry) {
+                continue;
+            }
+            jobId2Entry.remove(entry.jobId);
+            dueJobIds.add(entry.jobId);
+        }
+        return dueJobIds;
+    }
+
+    /**
+     * 根据任务最新的信息更新索引
+     * @param jobInfo 任务信息
+     */
+    public void update(JobInfoDO jobInfo) {
+        if (!enable || jobInfo == null || jobInfo.getId() == null) {
+            return;
+        }
+        update(new BriefJobInfo(jobInfo.getAppId(), jobInfo.getId(), jobInfo.getStatus(), jobInfo.getTimeExpressionType(), jobInfo.getNextTriggerTime()));
+    }
+
+    /**
+     * 根据任务最新的调度信息更新索引
+     * @param jobInfo 任务简要信息
+     */
+    public synchronized void update(BriefJobInfo jobInfo) {
+        if (!enable) {
+            return;
+        }
+        upsert(jobInfo);
+    }
+
+    private void load(List<Long> appIds) {
+        Lists.partition(appIds, MAX_APP_NUM).forEach(partAppIds ->
+                jobInfoRepository.selectBriefInfoByAppIdInAndStatusAndTimeExpressionTypeIn(partAppIds, SwitchableStatus.ENABLE.getV(), TimeExpressionType.INSPECT_TYPES).forEach(this::upsert)
+        );
+    }
+
+    private void upsert(BriefJobInfo jobInfo) {
+        // 非当前 server 负责的 app 无需维护（未完成首次装载时也会被忽略）
+        if (!indexedAppIds.contains(jobInfo.getAppId())) {
+            return;
+        }
+        jobId2Entry.remove(jobInfo.getId());
+        boolean needSchedule = Objects.equals(jobInfo.getStatus(), SwitchableStatus.ENABLE.getV())
+                && TimeExpressionType.INSPECT_TYPES.contains(jobInfo.getTimeExpressionType())
+                && jobInfo.getNextTriggerTime() != null;
+        if (!needSchedule) {
+            return;
+        }
+        TriggerEntry entry = new TriggerEntry(jobInfo.getId(), jobInfo.getAppId(), jobInfo.getNextTriggerTime());
+        jobId2Entry.put(entry.jobId, entry);
+        type2Heap.get(jobInfo.getTimeExpressionType()).add(entry);
+    }
+
+    private void clear() {
+        jobId2Entry.clear();
+        indexedAppIds.clear();
+        type2Heap.values().forEach(PriorityQueue::clear);
+    }
+
+    @AllArgsConstructor
+    private static class TriggerEntry implements Comparable<TriggerEntry> {
+
+        private final long jobId;
+        private final long appId;
+        private final long nextTriggerTime;
+
+        @Override
+        public int compareTo(TriggerEntry o) {
+            return Long.compare(nextTriggerTime, o.nextTriggerTime);
+        }
+    }
+}
@@ -11,14 +11,18 @@ import org.springframework.util.CollectionUtils;
 import tech.powerjob.common.enums.InstanceStatus;
 import tech.powerjob.common.enums.TimeExpressionType;
 import tech.powerjob.common.model.LifeCycle;
+import tech.powerjob.server.common.constants.PJThreadPool;
 import tech.powerjob.server.common.constants.SwitchableStatus;
 import tech.powerjob.server.common.timewheel.holder.InstanceTimeWheelService;
 import tech.powerjob.server.core.DispatchService;
 import tech.powerjob.server.core.instance.InstanceService;
+import tech.powerjob.server.core.service.JobInfoCacheService;
 import tech.powerjob.server.core.service.JobService;
 import tech.powerjob.server.core.workflow.WorkflowInstanceManager;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
 import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 import tech.powerjob.server.persistence.remote.model.WorkflowInfoDO;
+import tech.powerjob.server.persistence.remote.model.brief.BriefJobInfo;
 import tech.powerjob.server.persistence.remote.repository.AppInfoRepository;
 import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
 import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
@@ -26,7 +30,11 @@ import tech.powerjob.server.persistence.remote.repository.WorkflowInfoRepository
 import tech.powerjob.server.remote.transporter.TransportService;
 import tech.powerjob.server.remote.worker.WorkerClusterManagerService;
 
+import javax.annotation.Resource;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * 任务调度执行服务（调度 CRON 表达式的任务进行执行）
@@ -45,6 +53,10 @@ public class PowerScheduleService {
      * 每次并发调度的应用数量
      */
     private static final int MAX_APP_NUM = 10;
+    /**
+     * 使用触发索引时每次从数据库查询的任务数量，以及批量更新时每条语句包含的任务数量
+     */
+    private static final int MAX_JOB_NUM = 500;
 
     private final TransportService transportService;
     private final DispatchService dispatchService;
@@ -63,13 +75,27 @@ public class PowerScheduleService {
 
     private final JobService jobService;
 
+    private final JobInfoCacheService jobInfoCacheService;
+
     private final TimingStrategyService timingStrategyService;
 
+    private final JobTriggerIndex jobTriggerIndex;
+
+    private final TriggerJournalService triggerJournalService;
+
+    private final TriggerLookahead triggerLookahead;
+
+    private final FrequentJobRegistry frequentJobRegistry;
+
+    @Resource(name = PJThreadPool.SCHEDULE_POOL)
+    private Executor schedulePool;
+
     public static final long SCHEDULE_RATE = 15000;
 
 
     public void scheduleNormalJob(TimeExpressionType timeExpressionType) {
         long start = System.currentTimeMillis();
+        ScheduleStageStatistics statistics = new ScheduleStageStatistics();
         // 调度 CRON 表达式 JOB
         try {
             final List<Long> allAppIds = appInfoRepository.listAppIdByCurrentServer(transportService.defaultProtocol().getAddress());
@@ -77,14 +103,14 @@ public class PowerScheduleService {
                 log.info("[NormalScheduler] current server has no app's job to schedule.");
                 return;
             }
-            scheduleNormalJob0(timeExpressionType, allAppIds);
+            scheduleNormalJob0(timeExpressionType, allAppIds, statistics);
         } catch (Exception e) {
             log.error("[NormalScheduler] schedule cron job failed.", e);
         }
         long cost = System.currentTimeMillis() - start;
-        log.info("[NormalScheduler] {} job schedule use {} ms.", timeExpressionType, cost);
+        log.info("[NormalScheduler] {} job schedule use {} ms({}).", timeExpressionType, cost, statistics);
         if (cost > SCHEDULE_RATE) {
-            log.warn("[NormalScheduler] The database query is using too much time({}ms), please check if the database load is too high!", cost);
+            log.warn("[NormalScheduler] The database query is using too much time({}ms, {}), please check if the database load is too high!", cost, statistics);
         }
     }
 
@@ -147,61 +173,186 @@ public class PowerScheduleService {
      * @param timeExpressionType 表达式类型
      * @param appIds appIds
      */
-    private void scheduleNormalJob0(TimeExpressionType timeExpressionType, List<Long> appIds) {
+    private void scheduleNormalJob0(TimeExpressionType timeExpressionType, List<Long> appIds, ScheduleStageStatistics statistics) {
 
         long nowTime = System.currentTimeMillis();
         long timeThreshold = nowTime + 2 * SCHEDULE_RATE;
-        Lists.partition(appIds, MAX_APP_NUM).forEach(partAppIds -> {
+
+        // 先触发内存中预计算的时间，再处理数据库中到期的任务（到期任务刷新时会覆盖原有的预计算数据）
+        if (triggerLookahead.isEnable()) {
+            scheduleNormalJobByLookahead(timeExpressionType, appIds, nowTime, timeThreshold, statistics);
+        }
+
+        // 开启触发索引后直接从内存中取出即将触发的任务，无需扫描数据库
+        if (jobTriggerIndex.isEnable()) {
+            scheduleNormalJobByIndex(timeExpressionType, appIds, nowTime, timeThreshold, statistics);
+            return;
+        }
+
+        runInParallel(Lists.partition(appIds, MAX_APP_NUM), partAppIds -> {
 
             try {
 
                 // 查询条件：任务开启 + 使用CRON表达调度时间 + 指定appId + 即将需要调度执行
+                long fetchStart = System.currentTimeMillis();
                 List<JobInfoDO> jobInfos = jobInfoRepository.findByAppIdInAndStatusAndTimeExpressionTypeAndNextTriggerTimeLessThanEqual(partAppIds, SwitchableStatus.ENABLE.getV(), timeExpressionType.getV(), timeThreshold);
+                statistics.recordFetch(System.currentTimeMillis() - fetchStart, jobInfos.size());
+                scheduleNormalJob1(timeExpressionType, jobInfos, nowTime, statistics);
 
-                if (CollectionUtils.isEmpty(jobInfos)) {
-                    return;
-                }
+            } catch (Exception e) {
+                log.error("[NormalScheduler] schedule {} job failed.", timeExpressionType.name(), e);
+            }
+        });
+    }
+
+    private void scheduleNormalJobByIndex(TimeExpressionType timeExpressionType, List<Long> appIds, long nowTime, long timeThreshold, ScheduleStageStatistics statistics) {
 
-                // 1. 批量写日志表
-                Map<Long, Long> jobId2InstanceId = Maps.newHashMap();
-                log.info("[NormalScheduler] These {} jobs will be scheduled: {}.", timeExpressionType.name(), jobInfos);
+        jobTriggerIndex.sync(appIds);
+        List<Long> dueJobIds = jobTriggerIndex.pollDueJobIds(timeExpressionType, timeThreshold);
+        if (dueJobIds.isEmpty()) {
+            return;
+        }
+
+        runInParallel(Lists.partition(dueJobIds, MAX_JOB_NUM), partJobIds -> {
 
+            List<JobInfoDO> jobInfos = Collections.emptyList();
+            try {
+                // 以数据库中的数据为准再次校验，不满足调度条件的任务按照最新的数据写回索引
+                long fetchStart = System.currentTimeMillis();
+                jobInfos = jobInfoRepository.findByIdIn(partJobIds);
+                List<JobInfoDO> dueJobInfos = Lists.newArrayListWithCapacity(jobInfos.size());
                 jobInfos.forEach(jobInfo -> {
-                    Long instanceId = instanceService.create(jobInfo.getId(), jobInfo.getAppId(), jobInfo.getJobParams(), null, null, jobInfo.getNextTriggerTime()).getInstanceId();
-                    jobId2InstanceId.put(jobInfo.getId(), instanceId);
+                    boolean due = jobInfo.getStatus() == SwitchableStatus.ENABLE.getV()
+                            && jobInfo.getTimeExpressionType() == timeExpressionType.getV()
+                            && jobInfo.getNextTriggerTime() != null
+                            && jobInfo.getNextTriggerTime() <= timeThreshold;
+                    if (due) {
+                        dueJobInfos.add(jobInfo);
+                    } else {
+                        jobTriggerIndex.update(jobInfo);
+                    }
                 });
-                instanceInfoRepository.flush();
+                statistics.recordFetch(System.currentTimeMillis() - fetchStart, dueJobInfos.size());
+                scheduleNormalJob1(timeExpressionType, dueJobInfos, nowTime, statistics);
+            } catch (Exception e) {
+                log.error("[NormalScheduler] schedule {} job by trigger index failed.", timeExpressionType.name(), e);
+                // 放回索引，下一轮调度重试
+                jobInfos.forEach(jobTriggerIndex::update);
+            }
+        });
+    }
 
-                // 2. 推入时间轮中等待调度执行
-                jobInfos.forEach(jobInfoDO -> {
+    private void scheduleNormalJobByLookahead(TimeExpressionType timeExpressionType, List<Long> appIds, long nowTime, long timeThreshold, ScheduleStageStatistics statistics) {
 
-                    Long instanceId = jobId2InstanceId.get(jobInfoDO.getId());
+        List<TriggerLookahead.DueTriggers> dueTriggersList = triggerLookahead.pollDue(timeExpressionType, appIds, timeThreshold);
+        if (dueTriggersList.isEmpty()) {
+            return;
+        }
 
-                    long targetTriggerTime = jobInfoDO.getNextTriggerTime();
-                    long delay = 0;
-                    if (targetTriggerTime < nowTime) {
-                        log.warn("[Job-{}] schedule delay, expect: {}, current: {}", jobInfoDO.getId(), targetTriggerTime, System.currentTimeMillis());
+        runInParallel(Lists.partition(dueTriggersList, MAX_JOB_NUM), partDueTriggers -> {
+            try {
+                // 以数据库中的数据为准校验预计算数据是否仍然有效
+                long fetchStart = System.currentTimeMillis();
+                Map<Long, TriggerLookahead.DueTriggers> jobId2DueTriggers = Maps.newHashMapWithExpectedSize(partDueTriggers.size());
+                partDueTriggers.forEach(dueTriggers -> jobId2DueTriggers.put(dueTriggers.getJobId(), dueTriggers));
+                List<JobInfoDO> jobInfos = jobInfoRepository.findByIdIn(Lists.newArrayList(jobId2DueTriggers.keySet()));
+                List<JobInfoDO> validJobInfos = Lists.newArrayListWithCapacity(jobInfos.size());
+                jobInfos.forEach(jobInfo -> {
+                    if (triggerLookahead.isValid(jobInfo, jobId2DueTriggers.get(jobInfo.getId()))) {
+                        validJobInfos.add(jobInfo);
                     } else {
-                        delay = targetTriggerTime - nowTime;
+                        log.info("[Job-{}] job has been modified, drop the lookahead trigger times.", jobInfo.getId());
+                        triggerLookahead.remove(jobInfo.getId());
                     }
-
-                    InstanceTimeWheelService.schedule(instanceId, delay, () -> dispatchService.dispatch(jobInfoDO, instanceId, Optional.empty(), Optional.empty()));
                 });
-
-                // 3. 计算下一次调度时间（忽略5S内的重复执行，即CRON模式下最小的连续执行间隔为 SCHEDULE_RATE ms）
-                jobInfos.forEach(jobInfoDO -> {
-                    try {
-                        refreshJob(timeExpressionType, jobInfoDO);
-                    } catch (Exception e) {
-                        log.error("[Job-{}] refresh job failed.", jobInfoDO.getId(), e);
+                statistics.recordFetch(System.currentTimeMillis() - fetchStart, validJobInfos.size());
+
+                // 同一个任务在本轮可能需要触发多次，按触发顺序分批创建实例，预计算的触发时间无需回写数据库
+                for (int i = 0; ; i++) {
+                    List<JobInfoDO> triggerJobInfos = Lists.newArrayList();
+                    for (JobInfoDO jobInfo : validJobInfos) {
+                        List<Long> triggerTimes = jobId2DueTriggers.get(jobInfo.getId()).getTriggerTimes();
+                        if (i < triggerTimes.size()) {
+                            JobInfoDO triggerJobInfo = new JobInfoDO();
+                            BeanUtils.copyProperties(jobInfo, triggerJobInfo);
+                            triggerJobInfo.setNextTriggerTime(triggerTimes.get(i));
+                            triggerJobInfos.add(triggerJobInfo);
+                        }
                     }
-                });
-                jobInfoRepository.flush();
+                    if (triggerJobInfos.isEmpty()) {
+                        break;
+                    }
+                    log.info("[NormalScheduler] These {} jobs will be scheduled by lookahead: {}.", timeExpressionType.name(), extractJobIds(triggerJobInfos));
+                    Map<Long, InstanceInfoDO> jobId2InstanceInfo = createInstances(triggerJobInfos, statistics);
+                    long pushStart = System.currentTimeMillis();
+                    pushToTimeWheel(triggerJobInfos, jobId2InstanceInfo, nowTime);
+                    statistics.recordPushAndRefresh(System.currentTimeMillis() - pushStart);
+                }
+            } catch (Exception e) {
+                log.error("[NormalScheduler] schedule {} job by lookahead failed.", timeExpressionType.name(), e);
+            }
+        });
+    }
+
+    /**
+     * 并行处理各个分区，并发度受调度线程池限制，线程池满载时由调度线程自行执行（背压）
+     * 所有分区处理完成后才会返回，保证单轮调度不会与下一轮重叠
+     */
+    private <T> void runInParallel(List<T> partitions, Consumer<T> processor) {
+        if (partitions.size() == 1) {
+            processor.accept(partitions.get(0));
+            return;
+        }
+        CompletableFuture<?>[] futures = partitions.stream()
+                .map(partition -> CompletableFuture.runAsync(() -> processor.accept(partition), schedulePool))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+    }
 
+    private void scheduleNormalJob1(TimeExpressionType timeExpressionType, List<JobInfoDO> jobInfos, long nowTime, ScheduleStageStatistics statistics) {
 
-            } catch (Exception e) {
-                log.error("[NormalScheduler] schedule {} job failed.", timeExpressionType.name(), e);
+        if (CollectionUtils.isEmpty(jobInfos)) {
+            return;
+        }
+
+        // 1. 批量写日志表
+        log.info("[NormalScheduler] These {} jobs will be scheduled: {}.", timeExpressionType.name(), jobInfos);
+        Map<Long, InstanceInfoDO> jobId2InstanceInfo = createInstances(jobInfos, statistics);
+
+        // 2. 推入时间轮中等待调度执行
+        long pushStart = System.currentTimeMillis();
+        pushToTimeWheel(jobInfos, jobId2InstanceInfo, nowTime);
+
+        // 3. 计算下一次调度时间（忽略5S内的重复执行，即CRON模式下最小的连续执行间隔为 SCHEDULE_RATE ms）
+        refreshJobs(timeExpressionType, jobInfos);
+        statistics.recordPushAndRefresh(System.currentTimeMillis() - pushStart);
+    }
+
+    private Map<Long, InstanceInfoDO> createInstances(List<JobInfoDO> jobInfos, ScheduleStageStatistics statistics) {
+        long createStart = System.currentTimeMillis();
+        Map<Long, InstanceInfoDO> jobId2InstanceInfo = instanceService.batchCreate(jobInfos);
+        statistics.recordCreateInstance(System.currentTimeMillis() - createStart);
+        return jobId2InstanceInfo;
+    }
+
+    private void pushToTimeWheel(List<JobInfoDO> jobInfos, Map<Long, InstanceInfoDO> jobId2InstanceInfo, long nowTime) {
+        jobInfos.forEach(jobInfoDO -> {
+
+            Long instanceId = jobId2InstanceInfo.get(jobInfoDO.getId()).getInstanceId();
+
+            long targetTriggerTime = jobInfoDO.getNextTriggerTime();
+            long delay = 0;
+            if (targetTriggerTime < nowTime) {
+                log.warn("[Job-{}] schedule delay, expect: {}, current: {}", jobInfoDO.getId(), targetTriggerTime, System.currentTimeMillis());
+            } else {
+                delay = targetTriggerTime - nowTime;
             }
+
+            triggerJournalService.record(instanceId, targetTriggerTime);
+            InstanceTimeWheelService.schedule(instanceId, delay, () -> {
+                triggerJournalService.markTriggered(instanceId);
+                dispatchService.dispatchOnTrigger(jobInfoDO, instanceId);
+            });
         });
     }
 
@@ -242,6 +393,12 @@ public class PowerScheduleService {
 
     private void scheduleFrequentJobCore(List<Long> appIds) {
 
+        // 开启注册表后只需处理没有存活实例的任务
+        if (frequentJobRegistry.isEnable()) {
+            scheduleFrequentJobByRegistry(appIds);
+            return;
+        }
+
         Lists.partition(appIds, MAX_APP_NUM).forEach(partAppIds -> {
             try {
                 // 查询所有的秒级任务（只包含ID）
@@ -266,19 +423,7 @@ public class PowerScheduleService {
 
                 notRunningJobIds.forEach(jobId -> {
                     Optional<JobInfoDO> jobInfoOpt = jobInfoRepository.findById(jobId);
-                    jobInfoOpt.ifPresent(jobInfoDO -> {
-                        LifeCycle lifeCycle = LifeCycle.parse(jobInfoDO.getLifecycle());
-                        // 生命周期已经结束
-                        if (lifeCycle.getEnd() != null && lifeCycle.getEnd() < System.currentTimeMillis()) {
-                            jobInfoDO.setStatus(SwitchableStatus.DISABLE.getV());
-                            jobInfoDO.setGmtModified(new Date());
-                            jobInfoRepository.saveAndFlush(jobInfoDO);
-                            log.info("[FrequentScheduler] disable frequent job,id:{}.", jobInfoDO.getId());
-                        } else if (lifeCycle.getStart() == null || lifeCycle.getStart() < System.currentTimeMillis() + SCHEDULE_RATE * 2) {
-                            log.info("[FrequentScheduler] schedule frequent job,id:{}.", jobInfoDO.getId());
-                            jobService.runJob(jobInfoDO.getAppId(), jobId, null, Optional.ofNullable(lifeCycle.getStart()).orElse(0L) - System.currentTimeMillis());
-                        }
-                    });
+                    jobInfoOpt.ifPresent(this::launchFrequentJob);
                 });
             } catch (Exception e) {
                 log.error("[FrequentScheduler] schedule frequent job failed.", e);
@@ -286,22 +431,98 @@ public class PowerScheduleService {
         });
     }
 
-    private void refreshJob(TimeExpressionType timeExpressionType, JobInfoDO jobInfo) {
-        LifeCycle lifeCycle = LifeCycle.parse(jobInfo.getLifecycle());
-        Long nextTriggerTime = timingStrategyService.calculateNextTriggerTime(jobInfo.getNextTriggerTime(), timeExpressionType, jobInfo.getTimeExpression(), lifeCycle.getStart(), lifeCycle.getEnd());
+    private void scheduleFrequentJobByRegistry(List<Long> appIds) {
 
-        JobInfoDO updatedJobInfo = new JobInfoDO();
-        BeanUtils.copyProperties(jobInfo, updatedJobInfo);
+        frequentJobRegistry.sync(appIds);
+        List<Long> idleJobIds = frequentJobRegistry.getIdleJobIds();
+        Lists.partition(idleJobIds, MAX_JOB_NUM).forEach(partJobIds -> {
+            try {
+                jobInfoRepository.findByIdIn(partJobIds).forEach(jobInfoDO -> {
+                    try {
+                        launchFrequentJob(jobInfoDO);
+                    } catch (Exception e) {
+                        log.error("[FrequentScheduler] schedule frequent job({}) failed.", jobInfoDO.getId(), e);
+                    }
+                });
+            } catch (Exception e) {
+                log.error("[FrequentScheduler] schedule frequent job failed.", e);
+            }
+        });
+    }
 
-        if (nextTriggerTime == null) {
-            log.warn("[Job-{}] this job won't be scheduled anymore, system will set the status to DISABLE!", jobInfo.getId());
-            updatedJobInfo.setStatus(SwitchableStatus.DISABLE.getV());
-        } else {
-            updatedJobInfo.setNextTriggerTime(nextTriggerTime);
+    private void launchFrequentJob(JobInfoDO jobInfoDO) {
+        LifeCycle lifeCycle = LifeCycle.parse(jobInfoDO.getLifecycle());
+        // 生命周期已经结束
+        if (lifeCycle.getEnd() != null && lifeCycle.getEnd() < System.currentTimeMillis()) {
+            jobInfoDO.setStatus(SwitchableStatus.DISABLE.getV());
+            jobInfoDO.setGmtModified(new Date());
+            jobInfoRepository.saveAndFlush(jobInfoDO);
+            jobInfoCacheService.onJobChanged(jobInfoDO);
+            frequentJobRegistry.update(new BriefJobInfo(jobInfoDO.getAppId(), jobInfoDO.getId(), jobInfoDO.getStatus(), jobInfoDO.getTimeExpressionType(), jobInfoDO.getNextTriggerTime()));
+            log.info("[FrequentScheduler] disable frequent job,id:{}.", jobInfoDO.getId());
+        } else if (lifeCycle.getStart() == null || lifeCycle.getStart() < System.currentTimeMillis() + SCHEDULE_RATE * 2) {
+            log.info("[FrequentScheduler] schedule frequent job,id:{}.", jobInfoDO.getId());
+            jobService.runJob(jobInfoDO.getAppId(), jobInfoDO.getId(), null, Optional.ofNullable(lifeCycle.getStart()).orElse(0L) - System.currentTimeMillis());
         }
-        updatedJobInfo.setGmtModified(new Date());
+    }
+
+    /**
+     * 批量刷新任务的下一次调度时间
+     * 只更新调度相关字段，下一次调度时间相同的任务（如使用相同 CRON 表达式）合并为一条 UPDATE 语句
+     * 开启触发时间预计算时，数据库中写入的是窗口结束时间，窗口内的触发时间在写库成功后保存到内存中
+     */
+    private void refreshJobs(TimeExpressionType timeExpressionType, List<JobInfoDO> jobInfos) {
+
+        Map<Long, List<JobInfoDO>> nextTriggerTime2Jobs = Maps.newHashMap();
+        List<JobInfoDO> finishedJobs = Lists.newLinkedList();
+        // 表达式相同的任务只需计算一次
+        Map<Long, TriggerWindow> jobId2TriggerWindow = timingStrategyService.calculateTriggerWindows(timeExpressionType, jobInfos, triggerLookahead.getWindow());
+        jobInfos.forEach(jobInfo -> {
+            TriggerWindow triggerWindow = jobId2TriggerWindow.get(jobInfo.getId());
+            if (triggerWindow == null) {
+                log.error("[Job-{}] refresh job failed.", jobInfo.getId());
+                // 刷新失败时保留原触发时间，与扫库模式一致，下一轮调度会再次触发
+                jobTriggerIndex.update(jobInfo);
+                return;
+            }
+            Long nextTriggerTime = triggerWindow.getWindowEnd();
+            if (nextTriggerTime == null) {
+                log.warn("[Job-{}] this job won't be scheduled anymore, system will set the status to DISABLE!", jobInfo.getId());
+                finishedJobs.add(jobInfo);
+            } else {
+                nextTriggerTime2Jobs.computeIfAbsent(nextTriggerTime, ignore -> Lists.newLinkedList()).add(jobInfo);
+            }
+        });
+
+        Date now = new Date();
+        nextTriggerTime2Jobs.forEach((nextTriggerTime, jobs) -> Lists.partition(jobs, MAX_JOB_NUM).forEach(partJobs -> {
+            try {
+                jobInfoRepository.updateNextTriggerTimeByIdIn(extractJobIds(partJobs), nextTriggerTime, now);
+                partJobs.forEach(jobInfo -> {
+                    jobTriggerIndex.update(new BriefJobInfo(jobInfo.getAppId(), jobInfo.getId(), jobInfo.getStatus(), jobInfo.getTimeExpressionType(), nextTriggerTime));
+                    triggerLookahead.put(jobInfo, jobId2TriggerWindow.get(jobInfo.getId()));
+                });
+            } catch (Exception e) {
+                log.error("[NormalScheduler] refresh jobs({}) failed.", extractJobIds(partJobs), e);
+                partJobs.forEach(jobTriggerIndex::update);
+            }
+        }));
+        Lists.partition(finishedJobs, MAX_JOB_NUM).forEach(partJobs -> {
+            try {
+                jobInfoRepository.updateStatusByIdIn(extractJobIds(partJobs), SwitchableStatus.DISABLE.getV(), now);
+                jobInfoCacheService.onJobsChanged(extractJobIds(partJobs), now.getTime());
+                partJobs.forEach(jobInfo -> jobTriggerIndex.update(new BriefJobInfo(jobInfo.getAppId(), jobInfo.getId(), SwitchableStatus.DISABLE.getV(), jobInfo.getTimeExpressionType(), jobInfo.getNextTriggerTime())));
+            } catch (Exception e) {
+                log.error("[NormalScheduler] disable jobs({}) failed.", extractJobIds(partJobs), e);
+                partJobs.forEach(jobTriggerIndex::update);
+            }
+        });
+    }
 
-        jobInfoRepository.save(updatedJobInfo);
+    private static List<Long> extractJobIds(List<JobInfoDO> jobInfos) {
+        List<Long> jobIds = Lists.newArrayListWithCapacity(jobInfos.size());
+        jobInfos.forEach(jobInfo -> jobIds.add(jobInfo.getId()));
+        return jobIds;
     }
 
     private void refreshWorkflow(WorkflowInfoDO wfInfo) {
@@ -0,0 +1,49 @@
+package tech.powerjob.server.core.scheduler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单轮调度各阶段的耗时统计（多个分区并行执行，各阶段耗时为所有分区累加值）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class ScheduleStageStatistics {
+
+    /**
+     * 查询即将触发的任务
+     */
+    private final LongAdder fetchCost = new LongAdder();
+    /**
+     * 创建任务实例
+     */
+    private final LongAdder createInstanceCost = new LongAdder();
+    /**
+     * 推入时间轮并刷新下一次调度时间
+     */
+    private final LongAdder pushAndRefreshCost = new LongAdder();
+
+    private final LongAdder partitionNum = new LongAdder();
+
+    private final LongAdder jobNum = new LongAdder();
+
+    public void recordFetch(long cost, int jobs) {
+        fetchCost.add(cost);
+        jobNum.add(jobs);
+        partitionNum.increment();
+    }
+
+    public void recordCreateInstance(long cost) {
+        createInstanceCost.add(cost);
+    }
+
+    public void recordPushAndRefresh(long cost) {
+        pushAndRefreshCost.add(cost);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("partitions: %d, jobs: %d, fetch: %dms, createInstance: %dms, pushAndRefresh: %dms",
+                partitionNum.sum(), jobNum.sum(), fetchCost.sum(), createInstanceCost.sum(), pushAndRefreshCost.sum());
+    }
+}
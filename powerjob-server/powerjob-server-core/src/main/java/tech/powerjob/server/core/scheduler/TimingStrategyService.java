@@ -1,12 +1,16 @@
 package tech.powerjob.server.core.scheduler;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.springframework.stereotype.Service;
 import tech.powerjob.common.OmsConstant;
 import tech.powerjob.common.enums.TimeExpressionType;
 import tech.powerjob.common.exception.PowerJobException;
+import tech.powerjob.common.model.LifeCycle;
 import tech.powerjob.server.core.scheduler.auxiliary.TimingStrategyHandler;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,6 +24,10 @@ import java.util.stream.Collectors;
 public class TimingStrategyService {
 
     private static final int NEXT_N_TIMES = 5;
+    /**
+     * 单个触发窗口最多预计算的触发次数
+     */
+    private static final int MAX_LOOKAHEAD_NUM = 128;
 
     private static final List<String> TIPS = Collections.singletonList("It is valid, but has not trigger time list!");
 
@@ -80,6 +88,71 @@ public class TimingStrategyService {
     }
 
 
+    /**
+     * 批量计算下次的调度时间
+     * 表达式、上次触发时间以及生命周期均相同的任务（如整点触发的同一 CRON 表达式）只计算一次
+     *
+     * @param timeExpressionType 定时表达式类型
+     * @param jobInfos           任务信息，使用 nextTriggerTime 作为上次触发时间
+     * @return jobId -> 下次的调度时间（null 代表不再调度），计算失败的任务不包含在结果中
+     */
+    public Map<Long, Long> calculateNextTriggerTimes(TimeExpressionType timeExpressionType, Collection<JobInfoDO> jobInfos) {
+        Map<Long, Long> jobId2NextTriggerTime = new HashMap<>(jobInfos.size());
+        calculateTriggerWindows(timeExpressionType, jobInfos, 0).forEach((jobId, triggerWindow) -> jobId2NextTriggerTime.put(jobId, triggerWindow.getWindowEnd()));
+        return jobId2NextTriggerTime;
+    }
+
+    /**
+     * 批量计算触发窗口：上次触发时间之后 window 毫秒内的所有触发时间，以及窗口结束后的第一次触发时间
+     * 调度在窗口内结束时，最后一次触发时间作为窗口结束时间，保证 windowEnd 为 null 时窗口内没有待触发的时间
+     *
+     * @param timeExpressionType 定时表达式类型
+     * @param jobInfos           任务信息，使用 nextTriggerTime 作为上次触发时间
+     * @param window             窗口大小（ms），0 代表只计算下次的调度时间
+     * @return jobId -> 触发窗口，计算失败的任务不包含在结果中
+     */
+    public Map<Long, TriggerWindow> calculateTriggerWindows(TimeExpressionType timeExpressionType, Collection<JobInfoDO> jobInfos, long window) {
+
+        TimingStrategyHandler timingStrategyHandler = getHandler(timeExpressionType);
+        long now = System.currentTimeMillis();
+
+        Map<TriggerTimeKey, List<Long>> key2JobIds = new HashMap<>();
+        for (JobInfoDO jobInfo : jobInfos) {
+            try {
+                LifeCycle lifeCycle = LifeCycle.parse(jobInfo.getLifecycle());
+                Long preTriggerTime = jobInfo.getNextTriggerTime();
+                if (preTriggerTime == null || preTriggerTime < now) {
+                    preTriggerTime = now;
+                }
+                TriggerTimeKey key = new TriggerTimeKey(jobInfo.getTimeExpression(), preTriggerTime, lifeCycle.getStart(), lifeCycle.getEnd());
+                key2JobIds.computeIfAbsent(key, ignore -> new ArrayList<>()).add(jobInfo.getId());
+            } catch (Exception e) {
+                log.error("[TimingStrategyService] parse lifecycle of job({}) failed.", jobInfo.getId(), e);
+            }
+        }
+
+        Map<Long, TriggerWindow> jobId2TriggerWindow = new HashMap<>(jobInfos.size());
+        key2JobIds.forEach((key, jobIds) -> {
+            try {
+                List<Long> lookaheadTimes = new ArrayList<>();
+                long windowLimit = key.preTriggerTime + window;
+                Long nextTriggerTime = timingStrategyHandler.calculateNextTriggerTime(key.preTriggerTime, key.timeExpression, key.startTime, key.endTime);
+                while (nextTriggerTime != null && nextTriggerTime <= windowLimit && lookaheadTimes.size() < MAX_LOOKAHEAD_NUM) {
+                    lookaheadTimes.add(nextTriggerTime);
+                    nextTriggerTime = timingStrategyHandler.calculateNextTriggerTime(nextTriggerTime, key.timeExpression, key.startTime, key.endTime);
+                }
+                if (nextTriggerTime == null && !lookaheadTimes.isEmpty()) {
+                    nextTriggerTime = lookaheadTimes.remove(lookaheadTimes.size() - 1);
+                }
+                TriggerWindow triggerWindow = new TriggerWindow(Collections.unmodifiableList(lookaheadTimes), nextTriggerTime);
+                jobIds.forEach(jobId -> jobId2TriggerWindow.put(jobId, triggerWindow));
+            } catch (Exception e) {
+                log.error("[TimingStrategyService] calculate next trigger time failed, timeExpression: {}, jobIds: {}.", key.timeExpression, jobIds, e);
+            }
+        });
+        return jobId2TriggerWindow;
+    }
+
     /**
      * 计算下次的调度时间并检查校验规则
      *
@@ -119,4 +192,13 @@ public class TimingStrategyService {
         return timingStrategyHandler;
     }
 
+    @Data
+    @AllArgsConstructor
+    private static class TriggerTimeKey {
+        private String timeExpression;
+        private Long preTriggerTime;
+        private Long startTime;
+        private Long endTime;
+    }
+
 }
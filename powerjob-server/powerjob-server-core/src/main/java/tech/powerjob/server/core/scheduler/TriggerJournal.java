@@ -0,0 +1,267 @@
+package tech.powerjob.server.core.scheduler;
+
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 待触发实例日志（本地追加写的内存映射文件）
+ * 每条记录定长 16 字节：instanceId + expectTriggerTime，expectTriggerTime 为 -1 代表该实例已触发（或已取消）；instanceId 为 0 代表空槽位
+ * 写入内存映射区即完成持久化（进程崩溃不丢失，由操作系统负责刷盘），文件写满后仅保留未触发的记录重写文件
+ * 写入时通过 CAS 申请槽位，多个线程并发写入不同的槽位（共享读锁），只有压缩时独占（写锁）
+ * 日志文件在压缩时会被替换，因此进程间互斥使用独立的锁文件（日志文件名 + .lock），整个生命周期内持有，同一份日志同时只允许一个进程打开
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+public class TriggerJournal implements Closeable {
+
+    private static final int RECORD_SIZE = 16;
+
+    private static final long TRIGGERED = -1;
+
+    private final File file;
+
+    private final int capacity;
+
+    /**
+     * instanceId -> expectTriggerTime
+     */
+    private final Map<Long, Long> pending = Maps.newConcurrentMap();
+    /**
+     * 下一个可用槽位的偏移量，可能超出容量（申请失败）
+     */
+    private final AtomicInteger position = new AtomicInteger();
+    /**
+     * 写入记录共享读锁，压缩（替换文件和映射区）独占写锁
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel lockChannel;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+    /**
+     * 关闭后映射区已释放，不允许再访问
+     */
+    private boolean closed;
+
+    /**
+     * 打开日志文件，文件已存在时加载其中所有未触发的记录
+     * @param file 日志文件
+     * @param maxRecordNum 文件最多容纳的记录数量
+     * @throws IOException 日志文件无法打开，或者已被其他进程打开
+     */
+    public TriggerJournal(File file, int maxRecordNum) throws IOException {
+        this.file = file;
+        this.capacity = maxRecordNum * RECORD_SIZE;
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("can't create journal dir: " + parent);
+        }
+        lock(new File(file.getPath() + ".lock"));
+        try {
+            map(file);
+        } catch (IOException e) {
+            lockChannel.close();
+            throw e;
+        }
+        // 并发写入时槽位的写入顺序不确定，崩溃后可能存在空槽位，需要扫描整个文件
+        int end = 0;
+        for (int offset = 0; offset + RECORD_SIZE <= capacity; offset += RECORD_SIZE) {
+            long instanceId = buffer.getLong(offset);
+            if (instanceId == 0) {
+                continue;
+            }
+            long expectTriggerTime = buffer.getLong(offset + 8);
+            if (expectTriggerTime == TRIGGERED) {
+                pending.remove(instanceId);
+            } else {
+                pending.put(instanceId, expectTriggerTime);
+            }
+            end = offset + RECORD_SIZE;
+        }
+        position.set(end);
+    }
+
+    /**
+     * 记录待触发的实例
+     */
+    public void append(long instanceId, long expectTriggerTime) {
+        pending.put(instanceId, expectTriggerTime);
+        write(instanceId, expectTriggerTime);
+    }
+
+    /**
+     * 标记实例已触发（或已取消）
+     */
+    public void markTriggered(long instanceId) {
+        if (pending.remove(instanceId) != null) {
+            write(instanceId, TRIGGERED);
+        }
+    }
+
+    /**
+     * 获取所有未触发的实例
+     * @return instanceId -> expectTriggerTime
+     */
+    public Map<Long, Long> fetchPending() {
+        return Collections.unmodifiableMap(Maps.newHashMap(pending));
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.force();
+            channel.close();
+            unmap(buffer);
+            // 关闭 channel 即释放文件锁
+            lockChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(long instanceId, long expectTriggerTime) {
+        try {
+            // 槽位用尽时压缩后重试一次
+            for (int attempt = 0; attempt < 2; attempt++) {
+                lock.readLock().lock();
+                try {
+                    if (closed) {
+                        return;
+                    }
+                    int offset = position.getAndAdd(RECORD_SIZE);
+                    if (offset + RECORD_SIZE <= capacity) {
+                        // 最后写入 instanceId，保证非空槽位的记录是完整的
+                        buffer.putLong(offset + 8, expectTriggerTime);
+                        buffer.putLong(offset, instanceId);
+                        return;
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                compactIfFull();
+            }
+            log.warn("[TriggerJournal] journal is full of pending records({}), skip record of instance({}).", pending.size(), instanceId);
+        } catch (Exception e) {
+            // 日志仅用于加速恢复，写入失败不影响调度，由状态检查兜底
+            log.warn("[TriggerJournal] write record of instance({}) failed.", instanceId, e);
+        }
+    }
+
+    private void compactIfFull() throws IOException {
+        lock.writeLock().lock();
+        try {
+            // 其他线程已经完成压缩
+            if (closed || position.get() + RECORD_SIZE <= capacity) {
+                return;
+            }
+            compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 只保留未触发的记录写入新文件，再原子替换旧文件，需要持有写锁
+     */
+    private void compact() throws IOException {
+        File tmp = new File(file.getPath() + ".compact");
+        int written = 0;
+        try (FileChannel tmpChannel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer tmpBuffer = tmpChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            for (Map.Entry<Long, Long> entry : pending.entrySet()) {
+                if (tmpBuffer.remaining() < RECORD_SIZE) {
+                    break;
+                }
+                tmpBuffer.putLong(entry.getKey()).putLong(entry.getValue());
+                written++;
+            }
+            tmpBuffer.force();
+            unmap(tmpBuffer);
+        }
+        channel.close();
+        // 映射区在 GC 前不会释放，部分平台（如 Windows）无法替换仍被映射的文件
+        unmap(buffer);
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map(file);
+        position.set(written * RECORD_SIZE);
+        log.info("[TriggerJournal] compact journal finished, pending records: {}.", pending.size());
+    }
+
+    private void lock(File lockFile) throws IOException {
+        lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 同一进程内已持有
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IOException("journal is in use by another process: " + file);
+        }
+    }
+
+    private void map(File target) throws IOException {
+        channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * 立即释放映射区，失败时等待 GC 释放
+     */
+    private static void unmap(MappedByteBuffer mappedBuffer) {
+        try {
+            // JDK 9+
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), mappedBuffer);
+            return;
+        } catch (NoSuchMethodException ignore) {
+            // JDK 8
+        } catch (Exception e) {
+            log.debug("[TriggerJournal] unmap buffer failed.", e);
+            return;
+        }
+        try {
+            Method cleanerMethod = mappedBuffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(mappedBuffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception e) {
+            log.debug("[TriggerJournal] unmap buffer failed.", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package tech.powerjob.server.core.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.enums.InstanceStatus;
+import tech.powerjob.server.common.timewheel.holder.InstanceTimeWheelService;
+import tech.powerjob.server.common.utils.OmsFileUtils;
+import tech.powerjob.server.core.DispatchService;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.persistence.remote.repository.AppInfoRepository;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
+import tech.powerjob.server.remote.transporter.TransportService;
+
+import java.io.File;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 待触发实例日志服务
+ * 推入时间轮的任务实例同时写入本地日志，server 重启后立即重放仍处于 WAITING_DISPATCH 的实例，
+ * 无需等待 {@link InstanceStatusCheckService} 的超时检查（DISPATCH_TIMEOUT_MS）
+ * 注意：日志为本机文件，只能在同一台机器上重启时恢复，app 迁移到其他 server 的场景仍由状态检查兜底
+ * 同一台机器可能部署多个 server，日志文件名带上端口区分；日志文件被其他进程占用时不启用
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class TriggerJournalService implements DisposableBean {
+
+    private static final String JOURNAL_FILE_NAME_PATTERN = "trigger-%d.journal";
+    /**
+     * 日志文件最多容纳的记录数，每条 16 字节
+     */
+    private static final int MAX_RECORD_NUM = 1 << 20;
+
+    private static final int MAX_BATCH_NUM = 500;
+
+    private final TransportService transportService;
+
+    private final DispatchService dispatchService;
+
+    private final AppInfoRepository appInfoRepository;
+
+    private final JobInfoRepository jobInfoRepository;
+
+    private final InstanceInfoRepository instanceInfoRepository;
+
+    private TriggerJournal journal;
+
+    public TriggerJournalService(@Value("${oms.schedule.trigger-journal.enable:false}") boolean enable, @Value("${server.port}") int port,
+                                 TransportService transportService, DispatchService dispatchService,
+                                 AppInfoRepository appInfoRepository, JobInfoRepository jobInfoRepository, InstanceInfoRepository instanceInfoRepository) {
+        this.transportService = transportService;
+        this.dispatchService = dispatchService;
+        this.appInfoRepository = appInfoRepository;
+        this.jobInfoRepository = jobInfoRepository;
+        this.instanceInfoRepository = instanceInfoRepository;
+        if (enable) {
+            try {
+                journal = new TriggerJournal(new File(OmsFileUtils.genJournalPath(), String.format(JOURNAL_FILE_NAME_PATTERN, port)), MAX_RECORD_NUM);
+                log.info("[TriggerJournal] open trigger journal successfully, pending instance num: {}.", journal.fetchPending().size());
+            } catch (Exception e) {
+                log.error("[TriggerJournal] open trigger journal failed, trigger journal will be disabled.", e);
+            }
+        }
+    }
+
+    /**
+     * 记录即将推入时间轮的实例
+     * @param instanceId 实例 ID
+     * @param expectTriggerTime 预期触发时间
+     */
+    public void record(Long instanceId, long expectTriggerTime) {
+        if (journal != null) {
+            journal.append(instanceId, expectTriggerTime);
+        }
+    }
+
+    /**
+     * 时间轮触发后标记实例已处理
+     * @param instanceId 实例 ID
+     */
+    public void markTriggered(Long instanceId) {
+        if (journal != null) {
+            journal.markTriggered(instanceId);
+        }
+    }
+
+    /**
+     * 重放日志中未触发的实例，server 启动后调用一次
+     */
+    public void replay() {
+        if (journal == null) {
+            return;
+        }
+        Map<Long, Long> pending = journal.fetchPending();
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Set<Long> currentAppIds = Sets.newHashSet(appInfoRepository.listAppIdByCurrentServer(transportService.defaultProtocol().getAddress()));
+        int replayNum = 0;
+        for (List<Long> partInstanceIds : Lists.partition(Lists.newArrayList(pending.keySet()), MAX_BATCH_NUM)) {
+            try {
+                replayNum += replay(partInstanceIds, currentAppIds);
+            } catch (Exception e) {
+                log.error("[TriggerJournal] replay instances({}) failed.", partInstanceIds, e);
+            }
+        }
+        log.info("[TriggerJournal] replay {} pending instances(total: {}) in {} ms.", replayNum, pending.size(), System.currentTimeMillis() - start);
+    }
+
+    private int replay(List<Long> instanceIds, Set<Long> currentAppIds) {
+
+        List<InstanceInfoDO> instanceInfos = instanceInfoRepository.findByInstanceIdIn(instanceIds);
+        Set<Long> jobIds = instanceInfos.stream().map(InstanceInfoDO::getJobId).collect(Collectors.toSet());
+        Map<Long, JobInfoDO> jobId2JobInfo = jobInfoRepository.findByIdIn(jobIds).stream().collect(Collectors.toMap(JobInfoDO::getId, Function.identity()));
+
+        Set<Long> replayedInstanceIds = Sets.newHashSet();
+        long now = System.currentTimeMillis();
+        for (InstanceInfoDO instanceInfo : instanceInfos) {
+            // 已被派发、取消，或 app 已由其他 server 负责，均无需重放
+            if (instanceInfo.getStatus() != InstanceStatus.WAITING_DISPATCH.getV() || !currentAppIds.contains(instanceInfo.getAppId())) {
+                continue;
+            }
+            JobInfoDO jobInfo = jobId2JobInfo.get(instanceInfo.getJobId());
+            if (jobInfo == null) {
+                continue;
+            }
+            Long instanceId = instanceInfo.getInstanceId();
+            long delay = Math.max(0, instanceInfo.getExpectedTriggerTime() - now);
+            log.info("[TriggerJournal] replay instance({}) of job({}), delay: {}ms.", instanceId, jobInfo.getId(), delay);
+            InstanceTimeWheelService.schedule(instanceId, delay, () -> {
+                markTriggered(instanceId);
+                dispatchService.dispatchOnTrigger(jobInfo, instanceId);
+            });
+            replayedInstanceIds.add(instanceId);
+        }
+        // 不需要重放的实例直接标记为已处理
+        instanceIds.stream().filter(instanceId -> !replayedInstanceIds.contains(instanceId)).forEach(this::markTriggered);
+        return replayedInstanceIds.size();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package tech.powerjob.server.core.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.enums.TimeExpressionType;
+import tech.powerjob.server.common.constants.SwitchableStatus;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+
+import java.util.*;
+
+/**
+ * 触发时间预计算（lookahead）
+ * 高频 CRON/DAILY_TIME_INTERVAL 任务（如每 5 秒一次）每次触发都需要回写 job_info，开启后一次计算出窗口内的所有触发时间并保存在内存中，
+ * 数据库中的 nextTriggerTime 直接写为窗口结束后的第一次触发时间，即每个窗口只需更新一次 job_info
+ * 宕机安全：数据库中保存的是窗口结束时间，接管的 server 从窗口结束时间继续调度，不会重复触发；代价是宕机时内存中尚未触发的部分会丢失，因此窗口不宜过大
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class TriggerLookahead {
+
+    private final long window;
+
+    private final Map<Long, LookaheadEntry> jobId2Entry = Maps.newHashMap();
+
+    public TriggerLookahead(@Value("${oms.schedule.lookahead.window:0}") long window) {
+        this.window = Math.max(window, 0);
+        log.info("[TriggerLookahead] lookahead window: {}ms", this.window);
+    }
+
+    public boolean isEnable() {
+        return window > 0;
+    }
+
+    /**
+     * @return 预计算窗口大小（ms），未开启时为 0
+     */
+    public long getWindow() {
+        return window;
+    }
+
+    /**
+     * 保存任务窗口内的触发时间，需要在 windowEnd 成功写入数据库后调用
+     * @param jobInfo 任务信息
+     * @param triggerWindow 触发窗口
+     */
+    public synchronized void put(JobInfoDO jobInfo, TriggerWindow triggerWindow) {
+        if (!isEnable() || triggerWindow.getLookaheadTimes().isEmpty()) {
+            jobId2Entry.remove(jobInfo.getId());
+            return;
+        }
+        jobId2Entry.put(jobInfo.getId(), new LookaheadEntry(jobInfo.getId(), jobInfo.getAppId(), jobInfo.getTimeExpressionType(), jobInfo.getTimeExpression(),
+                triggerWindow.getWindowEnd(), new LinkedList<>(triggerWindow.getLookaheadTimes())));
+    }
+
+    /**
+     * 取出所有即将需要触发的预计算时间（取出后即从内存中移除）
+     * @param timeExpressionType 表达式类型
+     * @param appIds 当前 server 负责的所有 appId，其他 app 的数据直接丢弃
+     * @param timeThreshold 时间阈值
+     * @return 需要触发的任务及其触发时间
+     */
+    public synchronized List<DueTriggers> pollDue(TimeExpressionType timeExpressionType, Collection<Long> appIds, long timeThreshold) {
+        if (jobId2Entry.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> currentAppIds = Sets.newHashSet(appIds);
+        List<DueTriggers> dueTriggers = Lists.newArrayList();
+        Iterator<LookaheadEntry> iterator = jobId2Entry.values().iterator();
+        while (iterator.hasNext()) {
+            LookaheadEntry entry = iterator.next();
+            if (!currentAppIds.contains(entry.appId)) {
+                iterator.remove();
+                continue;
+            }
+            if (entry.timeExpressionType != timeExpressionType.getV()) {
+                continue;
+            }
+            List<Long> triggerTimes = Lists.newLinkedList();
+            while (!entry.pendingTimes.isEmpty() && entry.pendingTimes.peek() <= timeThreshold) {
+                triggerTimes.add(entry.pendingTimes.poll());
+            }
+            if (entry.pendingTimes.isEmpty()) {
+                iterator.remove();
+            }
+            if (!triggerTimes.isEmpty()) {
+                dueTriggers.add(new DueTriggers(entry.jobId, entry.timeExpression, entry.windowEnd, triggerTimes));
+            }
+        }
+        return dueTriggers;
+    }
+
+    /**
+     * 校验任务在预计算之后是否被修改过（停用、修改表达式等操作都会重新计算 nextTriggerTime）
+     * @param jobInfo 数据库中最新的任务信息
+     * @param dueTriggers 预计算数据
+     * @return 预计算数据是否仍然有效
+     */
+    public boolean isValid(JobInfoDO jobInfo, DueTriggers dueTriggers) {
+        return jobInfo.getStatus() == SwitchableStatus.ENABLE.getV()
+                && Objects.equals(jobInfo.getTimeExpression(), dueTriggers.timeExpression)
+                && Objects.equals(jobInfo.getNextTriggerTime(), dueTriggers.windowEnd);
+    }
+
+    /**
+     * 移除任务的预计算数据
+     * @param jobId 任务ID
+     */
+    public synchronized void remove(Long jobId) {
+        jobId2Entry.remove(jobId);
+    }
+
+    @AllArgsConstructor
+    private static class LookaheadEntry {
+
+        private final long jobId;
+        private final long appId;
+        private final int timeExpressionType;
+        private final String timeExpression;
+        private final Long windowEnd;
+        private final Queue<Long> pendingTimes;
+    }
+
+    /**
+     * 单个任务本轮需要触发的预计算时间
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class DueTriggers {
+
+        private final long jobId;
+        private final String timeExpression;
+        private final Long windowEnd;
+        private final List<Long> triggerTimes;
+    }
+}
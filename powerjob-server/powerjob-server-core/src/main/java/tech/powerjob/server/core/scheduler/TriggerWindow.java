@@ -0,0 +1,28 @@
+package tech.powerjob.server.core.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 预计算的触发窗口
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TriggerWindow {
+
+    /**
+     * 窗口内的触发时间（升序，不包含 windowEnd），仅保存在内存中
+     */
+    private final List<Long> lookaheadTimes;
+    /**
+     * 窗口结束后的第一次触发时间，写入数据库作为 nextTriggerTime，null 代表不再调度
+     */
+    private final Long windowEnd;
+}
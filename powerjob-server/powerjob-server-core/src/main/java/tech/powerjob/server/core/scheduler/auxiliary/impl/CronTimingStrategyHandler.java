@@ -5,6 +5,8 @@ import com.cronutils.model.definition.CronDefinition;
 import com.cronutils.model.definition.CronDefinitionBuilder;
 import com.cronutils.model.time.ExecutionTime;
 import com.cronutils.parser.CronParser;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.springframework.stereotype.Component;
 import tech.powerjob.common.enums.TimeExpressionType;
 import tech.powerjob.server.core.scheduler.auxiliary.TimingStrategyHandler;
@@ -21,8 +23,20 @@ import java.util.Optional;
 @Component
 public class CronTimingStrategyHandler implements TimingStrategyHandler {
 
+    /**
+     * 编译后的表达式缓存数量上限
+     */
+    private static final int MAX_CACHE_SIZE = 10000;
+
     private final CronParser cronParser;
 
+    /**
+     * 表达式 -> 编译后的 ExecutionTime（不可变对象，线程安全），避免每次刷新任务都重新解析
+     */
+    private final Cache<String, ExecutionTime> executionTimeCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .build();
+
     /**
      * @see CronDefinitionBuilder#instanceDefinitionFor
      * <p>
@@ -45,13 +59,12 @@ public class CronTimingStrategyHandler implements TimingStrategyHandler {
 
     @Override
     public void validate(String timeExpression) {
-        cronParser.parse(timeExpression);
+        compile(timeExpression);
     }
 
     @Override
     public Long calculateNextTriggerTime(Long preTriggerTime, String timeExpression, Long startTime, Long endTime) {
-        Cron cron = cronParser.parse(timeExpression);
-        ExecutionTime executionTime = ExecutionTime.forCron(cron);
+        ExecutionTime executionTime = compile(timeExpression);
         if (startTime != null && startTime > System.currentTimeMillis() && preTriggerTime < startTime) {
             // 需要计算出离 startTime 最近的一次真正的触发时间
             Optional<ZonedDateTime> zonedDateTime = executionTime.lastExecution(ZonedDateTime.ofInstant(Instant.ofEpochMilli(startTime), ZoneId.systemDefault()));
@@ -70,6 +83,17 @@ public class CronTimingStrategyHandler implements TimingStrategyHandler {
         return null;
     }
 
+    private ExecutionTime compile(String timeExpression) {
+        ExecutionTime executionTime = executionTimeCache.getIfPresent(timeExpression);
+        if (executionTime == null) {
+            // 解析失败直接抛出原始异常，不写入缓存
+            Cron cron = cronParser.parse(timeExpression);
+            executionTime = ExecutionTime.forCron(cron);
+            executionTimeCache.put(timeExpression, executionTime);
+        }
+        return executionTime;
+    }
+
     @Override
     public TimeExpressionType supportType() {
         return TimeExpressionType.CRON;
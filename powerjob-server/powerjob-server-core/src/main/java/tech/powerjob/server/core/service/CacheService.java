@@ -4,11 +4,11 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import tech.powerjob.server.core.instance.InstanceArchiveService;
 import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
 import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 import tech.powerjob.server.persistence.remote.model.WorkflowInfoDO;
 import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
-import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
 import tech.powerjob.server.persistence.remote.repository.WorkflowInfoRepository;
 
 import java.time.Duration;
@@ -24,28 +24,23 @@ import java.util.Optional;
 @Service
 public class CacheService {
 
-    private final JobInfoRepository jobInfoRepository;
+    private final JobInfoCacheService jobInfoCacheService;
 
     private final WorkflowInfoRepository workflowInfoRepository;
 
     private final InstanceInfoRepository instanceInfoRepository;
 
-    private final Cache<Long, String> jobId2JobNameCache;
+    private final InstanceArchiveService instanceArchiveService;
+
     private final Cache<Long, String> workflowId2WorkflowNameCache;
     private final Cache<Long, Long> instanceId2AppId;
-    private final Cache<Long, Long> jobId2AppId;
 
-    public CacheService(JobInfoRepository jobInfoRepository, WorkflowInfoRepository workflowInfoRepository, InstanceInfoRepository instanceInfoRepository) {
+    public CacheService(JobInfoCacheService jobInfoCacheService, WorkflowInfoRepository workflowInfoRepository, InstanceInfoRepository instanceInfoRepository, InstanceArchiveService instanceArchiveService) {
 
-        this.jobInfoRepository = jobInfoRepository;
+        this.jobInfoCacheService = jobInfoCacheService;
         this.workflowInfoRepository = workflowInfoRepository;
         this.instanceInfoRepository = instanceInfoRepository;
-
-        jobId2JobNameCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(1))
-                .maximumSize(512)
-                .softValues()
-                .build();
+        this.instanceArchiveService = instanceArchiveService;
 
         workflowId2WorkflowNameCache = CacheBuilder.newBuilder()
                 .expireAfterWrite(Duration.ofMinutes(1))
@@ -57,24 +52,16 @@ public class CacheService {
                 .maximumSize(1024)
                 .softValues()
                 .build();
-        jobId2AppId = CacheBuilder.newBuilder()
-                .maximumSize(1024)
-                .softValues()
-                .build();
     }
 
     /**
-     * 根据 jobId 查询 jobName（不保证数据一致性，或者说只要改了数据必不一致hhh）
+     * 根据 jobId 查询 jobName（由 JobInfoCacheService 缓存，修改任务后失效）
      * @param jobId 任务ID
      * @return 任务名称
      */
     public String getJobName(Long jobId) {
         try {
-            return jobId2JobNameCache.get(jobId, () -> {
-                Optional<JobInfoDO> jobInfoDOOptional = jobInfoRepository.findById(jobId);
-                // 防止缓存穿透 hhh（但是一开始没有，后来创建的情况下会有问题，不过问题不大，这里就不管了）
-                return jobInfoDOOptional.map(JobInfoDO::getJobName).orElse("");
-            });
+            return jobInfoCacheService.fetchJobInfo(jobId).map(JobInfoDO::getJobName).orElse("");
         }catch (Exception e) {
             log.error("[CacheService] getJobName for {} failed.", jobId, e);
         }
@@ -109,6 +96,8 @@ public class CacheService {
                     if (instanceLog != null) {
                         return instanceLog.getAppId();
                     }
+                    // 已归档的实例
+                    return instanceArchiveService.findArchived(instanceId).map(InstanceInfoDO::getAppId).orElse(null);
                 }catch (Exception e) {
                     log.error("[CacheService] getAppId for instanceId:{} failed.", instanceId, e);
                 }
@@ -122,16 +111,9 @@ public class CacheService {
 
     public Long getAppIdByJobId(Long jobId) {
         try {
-            return jobId2AppId.get(jobId, () -> {
-                try {
-                    Optional<JobInfoDO> jobInfoDOOptional = jobInfoRepository.findById(jobId);
-                    return jobInfoDOOptional.map(JobInfoDO::getAppId).orElse(null);
-                }catch (Exception e) {
-                    log.error("[CacheService] getAppId for job:{} failed.", jobId, e);
-                }
-                return null;
-            });
-        } catch (Exception ignore) {
+            return jobInfoCacheService.fetchJobInfo(jobId).map(JobInfoDO::getAppId).orElse(null);
+        }catch (Exception e) {
+            log.error("[CacheService] getAppId for job:{} failed.", jobId, e);
         }
         return null;
     }
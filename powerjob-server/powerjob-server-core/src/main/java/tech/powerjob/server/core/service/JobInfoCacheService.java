@@ -0,0 +1,204 @@
+package tech.powerjob.server.core.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.powerjob.common.enums.Protocol;
+import tech.powerjob.server.core.ScheduleJobReqTemplate;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.persistence.remote.repository.AppInfoRepository;
+import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
+import tech.powerjob.server.remote.server.redirector.RemoteProcessReq;
+import tech.powerjob.server.remote.transporter.TransportService;
+import tech.powerjob.server.remote.transporter.impl.ServerURLFactory;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务信息缓存（jobId 维度，派发、状态上报、告警等场景共享）
+ * 缓存以任务信息的最后修改时间作为版本，任务通过 JobService 保存（或者调度过程中被禁用）后使本地缓存失效，并通过 server 之间的通讯通知其他 server
+ * 通知不保证送达，缓存额外设置过期时间兜底；调度过程中更新的下次调度时间不会触发失效，缓存中的该字段不可信
+ * 缓存的对象在多个线程之间共享，调用方不允许修改
+ * 缓存项上同时挂载任务的调度请求模板（{@link ScheduleJobReqTemplate}），与任务信息共用同一条失效路径
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@Service
+public class JobInfoCacheService {
+
+    private static final long ENTRY_EXPIRE_MINUTES = 5;
+    /**
+     * 失效记录的保留时间，需要大于一次查库的耗时
+     */
+    private static final long INVALIDATION_EXPIRE_MINUTES = 1;
+
+    private final JobInfoRepository jobInfoRepository;
+
+    private final AppInfoRepository appInfoRepository;
+
+    private final TransportService transportService;
+
+    private final Cache<Long, CachedJobInfo> jobId2JobInfo;
+    /**
+     * jobId -> 最近一次失效的版本，版本更早的查询结果（失效前发起的查库）不再写入缓存
+     */
+    private final Cache<Long, Long> jobId2InvalidatedVersion;
+
+    public JobInfoCacheService(@Value("${oms.job.info.cache.size:10000}") int cacheSize,
+                               JobInfoRepository jobInfoRepository,
+                               AppInfoRepository appInfoRepository,
+                               TransportService transportService) {
+        this.jobInfoRepository = jobInfoRepository;
+        this.appInfoRepository = appInfoRepository;
+        this.transportService = transportService;
+        this.jobId2JobInfo = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(cacheSize, 1))
+                .expireAfterWrite(ENTRY_EXPIRE_MINUTES, TimeUnit.MINUTES)
+                .build();
+        this.jobId2InvalidatedVersion = CacheBuilder.newBuilder()
+                .expireAfterWrite(INVALIDATION_EXPIRE_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * 根据 jobId 获取任务信息，未命中时查库并写入缓存
+     * @param jobId 任务ID
+     * @return 任务信息
+     */
+    public Optional<JobInfoDO> fetchJobInfo(Long jobId) {
+        CachedJobInfo cached = jobId2JobInfo.getIfPresent(jobId);
+        if (cached != null) {
+            return Optional.of(cached.jobInfo);
+        }
+        Optional<JobInfoDO> jobInfoOpt = jobInfoRepository.findById(jobId);
+        jobInfoOpt.ifPresent(this::offer);
+        return jobInfoOpt;
+    }
+
+    /**
+     * 获取任务的调度请求模板，模板挂载在缓存项上，版本与本次派发的任务信息一致时复用
+     * 派发使用的任务信息可能在内存中被改写（如工作流节点），因此只缓存模板，不缓存传入的任务信息
+     * @param jobInfo 本次派发使用的任务信息
+     * @return 调度请求模板
+     */
+    public ScheduleJobReqTemplate fetchReqTemplate(JobInfoDO jobInfo) {
+        CachedJobInfo cached = jobId2JobInfo.getIfPresent(jobInfo.getId());
+        ScheduleJobReqTemplate template = cached == null ? null : cached.template;
+        if (template != null && template.matches(jobInfo)) {
+            return template;
+        }
+        template = ScheduleJobReqTemplate.of(jobInfo);
+        // 缓存项不存在或者已经过期时不挂载，由下一次查询任务信息时重新加载
+        if (cached != null && !stale(jobInfo)) {
+            cached.template = template;
+        }
+        return template;
+    }
+
+    /**
+     * 任务信息发生变化（保存、启用、禁用、删除）后调用，失效本地缓存并通知其他 server
+     * @param jobInfo 保存后的任务信息
+     */
+    public void onJobChanged(JobInfoDO jobInfo) {
+        onJobsChanged(Collections.singletonList(jobInfo.getId()), versionOf(jobInfo));
+    }
+
+    /**
+     * 批量修改任务信息（如调度过程中批量禁用已结束的任务）后调用，失效本地缓存并通知其他 server
+     * @param jobIds 任务ID列表
+     * @param version 修改后的任务版本（修改时间）
+     */
+    public void onJobsChanged(List<Long> jobIds, long version) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        Long[] jobIdArray = jobIds.toArray(new Long[0]);
+        invalidateAll(jobIdArray, version);
+
+        String localAddress = transportService.defaultProtocol().getAddress();
+        List<String> servers;
+        try {
+            servers = appInfoRepository.listDistinctCurrentServer();
+        } catch (Exception e) {
+            log.warn("[JobInfoCacheService] query servers failed, other servers will refresh jobs({}) after cache expired.", jobIds, e);
+            return;
+        }
+        RemoteProcessReq req = new RemoteProcessReq()
+                .setClassName(JobInfoCacheService.class.getName())
+                .setMethodName("invalidateAll")
+                .setParameterTypes(new String[]{Long[].class.getName(), Long.class.getName()})
+                .setArgs(new Object[]{jobIdArray, version});
+        for (String server : servers) {
+            if (Objects.equals(server, localAddress)) {
+                continue;
+            }
+            try {
+                transportService.tell(Protocol.HTTP.name(), ServerURLFactory.process2Friend(server), req);
+            } catch (Exception e) {
+                log.warn("[JobInfoCacheService] notify server[{}] to invalidate jobs({}) failed.", server, jobIds, e);
+            }
+        }
+    }
+
+    /**
+     * 失效本地缓存（由其他 server 远程调用）
+     * @param jobIds 任务ID列表
+     * @param version 修改后的任务版本
+     */
+    public void invalidateAll(Long[] jobIds, Long version) {
+        for (Long jobId : jobIds) {
+            invalidate(jobId, version);
+        }
+    }
+
+    private void invalidate(Long jobId, Long version) {
+        jobId2InvalidatedVersion.asMap().merge(jobId, version, Math::max);
+        jobId2JobInfo.asMap().computeIfPresent(jobId, (ignore, cached) -> versionOf(cached.jobInfo) < version ? null : cached);
+        log.debug("[JobInfoCacheService] invalidate job({}) before version {}.", jobId, version);
+    }
+
+    private void offer(JobInfoDO jobInfo) {
+        Long jobId = jobInfo.getId();
+        if (stale(jobInfo)) {
+            return;
+        }
+        CachedJobInfo entry = new CachedJobInfo(jobInfo);
+        jobId2JobInfo.asMap().merge(jobId, entry, (cached, loaded) -> versionOf(loaded.jobInfo) >= versionOf(cached.jobInfo) ? loaded : cached);
+        // 写入期间发生了失效，撤销本次写入
+        if (stale(jobInfo)) {
+            jobId2JobInfo.asMap().remove(jobId, entry);
+        }
+    }
+
+    private boolean stale(JobInfoDO jobInfo) {
+        Long invalidatedVersion = jobId2InvalidatedVersion.getIfPresent(jobInfo.getId());
+        return invalidatedVersion != null && versionOf(jobInfo) < invalidatedVersion;
+    }
+
+    private static long versionOf(JobInfoDO jobInfo) {
+        Date gmtModified = jobInfo.getGmtModified();
+        return gmtModified == null ? -1 : gmtModified.getTime();
+    }
+
+    private static class CachedJobInfo {
+
+        private final JobInfoDO jobInfo;
+        /**
+         * 调度请求模板，首次派发时生成
+         */
+        private volatile ScheduleJobReqTemplate template;
+
+        private CachedJobInfo(JobInfoDO jobInfo) {
+            this.jobInfo = jobInfo;
+        }
+    }
+}
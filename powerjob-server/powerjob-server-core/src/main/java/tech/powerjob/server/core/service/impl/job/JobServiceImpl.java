@@ -22,7 +22,11 @@ import tech.powerjob.server.common.constants.SwitchableStatus;
 import tech.powerjob.server.common.timewheel.holder.InstanceTimeWheelService;
 import tech.powerjob.server.core.DispatchService;
 import tech.powerjob.server.core.instance.InstanceService;
+import tech.powerjob.server.core.scheduler.FrequentJobRegistry;
+import tech.powerjob.server.core.scheduler.JobTriggerIndex;
 import tech.powerjob.server.core.scheduler.TimingStrategyService;
+import tech.powerjob.server.core.scheduler.TriggerJournalService;
+import tech.powerjob.server.core.service.JobInfoCacheService;
 import tech.powerjob.server.core.service.JobService;
 import tech.powerjob.server.persistence.QueryConvertUtils;
 import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
@@ -57,6 +61,14 @@ public class JobServiceImpl implements JobService {
 
     private final TimingStrategyService timingStrategyService;
 
+    private final JobTriggerIndex jobTriggerIndex;
+
+    private final TriggerJournalService triggerJournalService;
+
+    private final FrequentJobRegistry frequentJobRegistry;
+
+    private final JobInfoCacheService jobInfoCacheService;
+
     /**
      * 保存/修改任务
      *
@@ -117,6 +129,8 @@ public class JobServiceImpl implements JobService {
             jobInfoDO.setLogConfig(JSONObject.toJSONString(request.getLogConfig()));
         }
         JobInfoDO res = jobInfoRepository.saveAndFlush(jobInfoDO);
+        jobTriggerIndex.update(res);
+        jobInfoCacheService.onJobChanged(res);
         return res.getId();
     }
 
@@ -145,6 +159,7 @@ public class JobServiceImpl implements JobService {
         copyJob.setGmtModified(new Date());
 
         copyJob = jobInfoRepository.saveAndFlush(copyJob);
+        jobTriggerIndex.update(copyJob);
         return copyJob;
 
     }
@@ -183,10 +198,18 @@ public class JobServiceImpl implements JobService {
         log.info("[Job-{}] try to run job in app[{}], instanceParams={},delay={} ms.", jobInfo.getId(), appId, instanceParams, delay);
         final InstanceInfoDO instanceInfo = instanceService.create(jobInfo.getId(), jobInfo.getAppId(), jobInfo.getJobParams(), instanceParams, null, System.currentTimeMillis() + Math.max(delay, 0));
         instanceInfoRepository.flush();
+        // 派发失败会立即结束实例，需要先登记
+        if (TimeExpressionType.FREQUENT_TYPES.contains(jobInfo.getTimeExpressionType())) {
+            frequentJobRegistry.onInstanceCreated(jobInfo.getId(), instanceInfo.getInstanceId());
+        }
         if (delay <= 0) {
             dispatchService.dispatch(jobInfo, instanceInfo.getInstanceId(), Optional.of(instanceInfo),Optional.empty());
         } else {
-            InstanceTimeWheelService.schedule(instanceInfo.getInstanceId(), delay, () -> dispatchService.dispatch(jobInfo, instanceInfo.getInstanceId(), Optional.empty(),Optional.empty()));
+            triggerJournalService.record(instanceInfo.getInstanceId(), instanceInfo.getExpectedTriggerTime());
+            InstanceTimeWheelService.schedule(instanceInfo.getInstanceId(), delay, () -> {
+                triggerJournalService.markTriggered(instanceInfo.getInstanceId());
+                dispatchService.dispatchOnTrigger(jobInfo, instanceInfo.getInstanceId());
+            });
         }
         log.info("[Job-{}|{}] execute 'runJob' successfully, params={}", jobInfo.getId(), instanceInfo.getInstanceId(), instanceParams);
         return instanceInfo.getInstanceId();
@@ -243,6 +266,8 @@ public class JobServiceImpl implements JobService {
         calculateNextTriggerTime(jobInfoDO);
 
         jobInfoRepository.saveAndFlush(jobInfoDO);
+        jobTriggerIndex.update(jobInfoDO);
+        jobInfoCacheService.onJobChanged(jobInfoDO);
     }
 
     /**
@@ -260,6 +285,8 @@ public class JobServiceImpl implements JobService {
         jobInfoDO.setStatus(status.getV());
         jobInfoDO.setGmtModified(new Date());
         jobInfoRepository.saveAndFlush(jobInfoDO);
+        jobTriggerIndex.update(jobInfoDO);
+        jobInfoCacheService.onJobChanged(jobInfoDO);
 
         // 2. 关闭秒级任务
         if (!TimeExpressionType.FREQUENT_TYPES.contains(jobInfoDO.getTimeExpressionType())) {
@@ -19,4 +19,12 @@ public interface Event {
      * @return 监控事件的内容
      */
     String message();
+
+    /**
+     * 需要聚合统计分布的数值（如耗时、延迟），由 MonitorService 按事件类型汇总为直方图
+     * @return 数值，不需要统计时返回 null
+     */
+    default Long metricValue() {
+        return null;
+    }
 }
@@ -0,0 +1,69 @@
+package tech.powerjob.server.monitor;
+
+import com.google.common.collect.Maps;
+import tech.powerjob.server.common.metrics.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 监控事件的预聚合指标，按事件类型统计事件数、丢弃数以及 {@link Event#metricValue()} 的分布
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class EventMetrics {
+
+    /**
+     * 直方图的子区间精度，相对误差约 3%
+     */
+    private static final int HISTOGRAM_SUB_BUCKET_BITS = 5;
+
+    private final Map<String, TypeMetrics> type2Metrics = Maps.newConcurrentMap();
+
+    public void record(Event event) {
+        TypeMetrics metrics = fetchMetrics(event.type());
+        metrics.count.increment();
+        Long value = event.metricValue();
+        if (value != null) {
+            metrics.histogram.record(value);
+        }
+    }
+
+    public void recordDropped(Event event) {
+        fetchMetrics(event.type()).dropped.increment();
+    }
+
+    /**
+     * 生成快照，用于展示
+     * @return 事件类型 -> 指标
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> res = new TreeMap<>();
+        type2Metrics.forEach((type, metrics) -> {
+            Map<String, Object> snapshot = Maps.newLinkedHashMap();
+            snapshot.put("count", metrics.count.sum());
+            snapshot.put("dropped", metrics.dropped.sum());
+            if (metrics.histogram.getCount() > 0) {
+                snapshot.put("value", metrics.histogram.snapshot());
+            }
+            res.put(type, snapshot);
+        });
+        return res;
+    }
+
+    private TypeMetrics fetchMetrics(String type) {
+        TypeMetrics metrics = type2Metrics.get(type);
+        if (metrics != null) {
+            return metrics;
+        }
+        return type2Metrics.computeIfAbsent(type, ignore -> new TypeMetrics());
+    }
+
+    private static class TypeMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final Histogram histogram = new Histogram(HISTOGRAM_SUB_BUCKET_BITS);
+    }
+}
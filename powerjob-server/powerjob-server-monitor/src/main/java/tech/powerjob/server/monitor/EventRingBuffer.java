@@ -0,0 +1,88 @@
+package tech.powerjob.server.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 有界无锁环形队列（多生产者、单消费者）
+ * 生产者通过 CAS 申请槽位后写入元素，消费者按顺序读取已写入的槽位并清空；队列已满时直接丢弃，生产者不会阻塞
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class EventRingBuffer<E> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    /**
+     * 只由消费者线程修改
+     */
+    private volatile long consumerIndex;
+
+    /**
+     * @param capacity 容量，向上取整为 2 的幂次
+     */
+    public EventRingBuffer(int capacity) {
+        int size = Math.min(Math.max(capacity, 2), MAX_CAPACITY);
+        this.capacity = Integer.highestOneBit(size - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * 写入元素（线程安全）
+     * @param e 元素，不允许为 null
+     * @return 队列已满时返回 false
+     */
+    public boolean offer(E e) {
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet((int) (index & mask), e);
+        return true;
+    }
+
+    /**
+     * 批量读取元素，只允许单个线程调用
+     * 已申请槽位但尚未写入的元素及其之后的元素留到下一次读取
+     * @param consumer 元素处理器
+     * @param limit 最多读取的数量
+     * @return 本次读取的数量
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        long index = consumerIndex;
+        int num = 0;
+        while (num < limit) {
+            int offset = (int) (index & mask);
+            E e = buffer.get(offset);
+            if (e == null) {
+                break;
+            }
+            buffer.lazySet(offset, null);
+            consumerIndex = ++index;
+            num++;
+            consumer.accept(e);
+        }
+        return num;
+    }
+
+    public int size() {
+        return (int) Math.max(producerIndex.get() - consumerIndex, 0);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -1,5 +1,7 @@
 package tech.powerjob.server.monitor;
 
+import java.util.Map;
+
 /**
  * 对外暴露的监控服务
  *
@@ -8,4 +10,10 @@ package tech.powerjob.server.monitor;
  */
 public interface MonitorService {
     void monitor(Event event);
+
+    /**
+     * 各类监控事件的预聚合指标（事件数、丢弃数、数值分布）
+     * @return 事件类型 -> 指标
+     */
+    Map<String, Object> fetchMetrics();
 }
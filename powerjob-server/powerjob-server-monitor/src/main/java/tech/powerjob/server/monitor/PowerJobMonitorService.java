@@ -2,31 +2,118 @@ package tech.powerjob.server.monitor;
 
 import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * PowerJob 服务端监控
+ * 开启异步模式后，事件写入无锁环形队列即返回，由后台线程批量分发给各个 Monitor 并汇总指标，
+ * 心跳、状态上报等处理线程不再承担日志等监控开销；队列已满时丢弃事件（计入丢弃数）
+ * 同步模式下 Monitor 抛出的异常仍然抛给调用方，异步模式下只记录日志
  *
  * @author tjq
  * @since 2022/9/10
  */
 @Slf4j
 @Component
-public class PowerJobMonitorService implements MonitorService {
+public class PowerJobMonitorService implements MonitorService, DisposableBean {
+
+    private static final int MAX_BATCH_SIZE = 256;
+
+    /**
+     * 队列为空时的休眠时间，从 MIN 开始逐次翻倍直至 MAX，取到事件后重置
+     */
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
     private final List<Monitor> monitors = Lists.newLinkedList();
 
-    public PowerJobMonitorService(List<Monitor> monitors) {
+    private final EventMetrics eventMetrics = new EventMetrics();
+
+    private final EventRingBuffer<Event> ringBuffer;
+
+    private final Thread consumer;
+
+    private volatile boolean running = true;
+
+    public PowerJobMonitorService(List<Monitor> monitors,
+                                  @Value("${oms.monitor.async.enable:false}") boolean async,
+                                  @Value("${oms.monitor.async.buffer-size:65536}") int bufferSize) {
         monitors.forEach(m -> {
             log.info("[MonitorService] register monitor: {}", m.getClass().getName());
             this.monitors.add(m);
         });
+        if (async) {
+            ringBuffer = new EventRingBuffer<>(bufferSize);
+            consumer = new Thread(this::consumeLoop, "PowerJobMonitorConsumer");
+            consumer.setDaemon(true);
+            consumer.start();
+            log.info("[MonitorService] async monitor enabled, buffer size: {}", ringBuffer.capacity());
+        } else {
+            ringBuffer = null;
+            consumer = null;
+        }
     }
 
     @Override
     public void monitor(Event event) {
-        monitors.forEach(m -> m.record(event));
+        if (ringBuffer == null) {
+            eventMetrics.record(event);
+            monitors.forEach(m -> m.record(event));
+            return;
+        }
+        if (!ringBuffer.offer(event)) {
+            eventMetrics.recordDropped(event);
+        }
+    }
+
+    @Override
+    public Map<String, Object> fetchMetrics() {
+        return eventMetrics.snapshot();
+    }
+
+    private void consumeLoop() {
+        long idleParkNanos = MIN_IDLE_PARK_NANOS;
+        while (running) {
+            if (ringBuffer.drain(this::dispatch, MAX_BATCH_SIZE) > 0) {
+                idleParkNanos = MIN_IDLE_PARK_NANOS;
+                continue;
+            }
+            LockSupport.parkNanos(idleParkNanos);
+            idleParkNanos = Math.min(idleParkNanos << 1, MAX_IDLE_PARK_NANOS);
+        }
+        // 处理剩余的事件
+        int drained;
+        do {
+            drained = ringBuffer.drain(this::dispatch, MAX_BATCH_SIZE);
+        } while (drained > 0);
+    }
+
+    private void dispatch(Event event) {
+        eventMetrics.record(event);
+        for (Monitor monitor : monitors) {
+            try {
+                monitor.record(event);
+            } catch (Throwable t) {
+                log.warn("[MonitorService] monitor {} record event failed.", monitor.getClass().getSimpleName(), t);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (consumer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(1));
     }
 }
@@ -45,4 +45,9 @@ public class DatabaseEvent implements Event {
     public String message() {
         return SJ.MONITOR_JOINER.join(type, serviceName, methodName, status, rows, cost, errorMsg, extra);
     }
+
+    @Override
+    public Long metricValue() {
+        return cost;
+    }
 }
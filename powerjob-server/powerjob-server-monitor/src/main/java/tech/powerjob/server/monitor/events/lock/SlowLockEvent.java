@@ -36,4 +36,9 @@ public class SlowLockEvent implements Event {
     public String message() {
         return SJ.MONITOR_JOINER.join(type, lockType, lockKey, callerService, callerMethod, cost);
     }
+
+    @Override
+    public Long metricValue() {
+        return cost;
+    }
 }
@@ -44,4 +44,9 @@ public class TtReportInstanceStatusEvent implements Event {
     public String message() {
         return SJ.MONITOR_JOINER.join(appId, jobId, instanceId, wfInstanceId, instanceStatus, delayMs, serverProcessStatus, serverProcessCost);
     }
+
+    @Override
+    public Long metricValue() {
+        return serverProcessCost;
+    }
 }
@@ -41,4 +41,9 @@ public class WorkerHeartbeatEvent implements Event {
     public String message() {
         return SJ.MONITOR_JOINER.join(appName, appId, version, protocol, tag, workerAddress, delayMs, score);
     }
+
+    @Override
+    public Long metricValue() {
+        return delayMs;
+    }
 }
@@ -1,5 +1,7 @@
 package tech.powerjob.server.monitor.monitors;
 
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
@@ -8,6 +10,8 @@ import tech.powerjob.server.common.module.ServerInfo;
 import tech.powerjob.server.monitor.Event;
 import tech.powerjob.server.monitor.Monitor;
 
+import java.util.Map;
+
 /**
  * 系统默认实现——基于日志的监控监视器
  * 需要接入方自行基于类 ELK 系统采集
@@ -25,6 +29,8 @@ public class LogMonitor implements Monitor, ServerInfoAware {
 
     private static final String MDC_KEY_SERVER_ID = "serverId";
 
+    private final Map<String, Logger> type2Logger = Maps.newConcurrentMap();
+
 
     @Override
     public void init() {
@@ -33,7 +39,7 @@ public class LogMonitor implements Monitor, ServerInfoAware {
     @Override
     public void record(Event event) {
         MDC.put(MDC_KEY_SERVER_ID, String.valueOf(serverInfo.getId()));
-        LoggerFactory.getLogger(event.type()).info(event.message());
+        type2Logger.computeIfAbsent(event.type(), LoggerFactory::getLogger).info(event.message());
     }
 
     @Override
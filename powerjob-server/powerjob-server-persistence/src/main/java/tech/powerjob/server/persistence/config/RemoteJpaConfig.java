@@ -1,5 +1,6 @@
 package tech.powerjob.server.persistence.config;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
@@ -38,6 +39,8 @@ public class RemoteJpaConfig {
 
     public static final String CORE_PACKAGES = "tech.powerjob.server.persistence.remote";
 
+    private static final int JDBC_BATCH_SIZE = 500;
+
     /**
      * 生成配置文件，包括 JPA配置文件和Hibernate配置文件，相当于以下三个配置
      * spring.jpa.show-sql=false
@@ -58,14 +61,20 @@ public class RemoteJpaConfig {
         // 配置JPA自定义表名称策略
         hibernateProperties.getNaming().setPhysicalStrategy(PowerJobPhysicalNamingStrategy.class.getName());
         HibernateSettings hibernateSettings = new HibernateSettings();
-        return hibernateProperties.determineHibernateProperties(jpaProperties.getProperties(), hibernateSettings);
+        Map<String, Object> properties = hibernateProperties.determineHibernateProperties(jpaProperties.getProperties(), hibernateSettings);
+        return properties;
     }
 
     @Primary
     @Bean(name = "remoteEntityManagerFactory")
-    public LocalContainerEntityManagerFactoryBean initRemoteEntityManagerFactory(@Qualifier("omsRemoteDatasource") DataSource omsRemoteDatasource,@Qualifier("multiDatasourceProperties") MultiDatasourceProperties properties, EntityManagerFactoryBuilder builder) {
+    public LocalContainerEntityManagerFactoryBean initRemoteEntityManagerFactory(@Qualifier("omsRemoteDatasource") DataSource omsRemoteDatasource,@Qualifier("multiDatasourceProperties") MultiDatasourceProperties properties, EntityManagerFactoryBuilder builder, JpaProperties jpaProperties) {
         Map<String, Object> datasourceProperties = genDatasourceProperties();
         datasourceProperties.putAll(properties.getRemote().getHibernate().getProperties());
+        // 开启 JDBC 批量写入（调度时批量创建任务实例），使用 IDENTITY 主键的数据库（如 MySQL）插入时 Hibernate 会自动退化为逐条写入
+        // 只作为默认值，用户通过 spring.jpa.properties 或数据源的 hibernate 配置指定时以用户配置为准
+        putIfNotConfigured(datasourceProperties, jpaProperties, AvailableSettings.STATEMENT_BATCH_SIZE, JDBC_BATCH_SIZE);
+        putIfNotConfigured(datasourceProperties, jpaProperties, AvailableSettings.ORDER_INSERTS, true);
+        putIfNotConfigured(datasourceProperties, jpaProperties, AvailableSettings.ORDER_UPDATES, true);
         return builder
                 .dataSource(omsRemoteDatasource)
                 .properties(datasourceProperties)
@@ -75,6 +84,12 @@ public class RemoteJpaConfig {
     }
 
 
+    private static void putIfNotConfigured(Map<String, Object> datasourceProperties, JpaProperties jpaProperties, String key, Object value) {
+        if (!jpaProperties.getProperties().containsKey(key)) {
+            datasourceProperties.putIfAbsent(key, value);
+        }
+    }
+
     @Primary
     @Bean(name = "remoteTransactionManager")
     public PlatformTransactionManager initRemoteTransactionManager(@Qualifier("remoteEntityManagerFactory") LocalContainerEntityManagerFactoryBean localContainerEntityManagerFactoryBean) {
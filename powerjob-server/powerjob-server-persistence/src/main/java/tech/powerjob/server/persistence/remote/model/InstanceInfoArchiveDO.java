@@ -0,0 +1,72 @@
+package tech.powerjob.server.persistence.remote.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * 任务运行日志归档表，结构与 {@link InstanceInfoDO} 一致
+ * 已结束的实例超过一定时间后从 instance_info 迁移到该表，热数据表只保留运行中和近期结束的实例
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx01_instance_info_archive", columnList = "jobId,status"),
+        @Index(name = "idx02_instance_info_archive", columnList = "appId,status"),
+        @Index(name = "idx03_instance_info_archive", columnList = "instanceId"),
+        @Index(name = "idx04_instance_info_archive", columnList = "gmtModified")
+})
+public class InstanceInfoArchiveDO {
+
+    /**
+     * 沿用 instance_info 中的主键，重复归档时覆盖写入
+     */
+    @Id
+    private Long id;
+
+    private Long jobId;
+
+    private Long appId;
+
+    private Long instanceId;
+
+    @Lob
+    @Column
+    private String jobParams;
+
+    @Lob
+    @Column
+    private String instanceParams;
+
+    private Integer type;
+
+    private Long wfInstanceId;
+
+    private Integer status;
+
+    @Lob
+    @Column
+    private String result;
+
+    private Long expectedTriggerTime;
+
+    private Long actualTriggerTime;
+
+    private Long finishedTime;
+
+    private Long lastReportTime;
+
+    private String taskTrackerAddress;
+
+    private Long runningTimes;
+
+    private Date gmtCreate;
+
+    private Date gmtModified;
+}
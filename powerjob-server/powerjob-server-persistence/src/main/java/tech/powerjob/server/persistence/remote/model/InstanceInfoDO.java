@@ -23,7 +23,8 @@ import java.util.Date;
 @Table(indexes = {
         @Index(name = "idx01_instance_info", columnList = "jobId,status"),
         @Index(name = "idx02_instance_info", columnList = "appId,status"),
-        @Index(name = "idx03_instance_info", columnList = "instanceId,status")
+        @Index(name = "idx03_instance_info", columnList = "instanceId,status"),
+        @Index(name = "idx04_instance_info", columnList = "status,gmtModified,id")
 })
 public class InstanceInfoDO {
 
@@ -22,6 +22,10 @@ public class BriefInstanceInfo {
      * 任务所属应用的ID，冗余提高查询效率
      */
     private Long instanceId;
+    /**
+     * 工作流实例ID
+     */
+    private Long wfInstanceId;
     /**
      * 总共执行的次数（用于重试判断）
      */
@@ -42,4 +46,13 @@ public class BriefInstanceInfo {
         this.instanceId = instanceId;
         this.runningTimes = runningTimes;
     }
+
+    public BriefInstanceInfo(Long appId, Long id, Long jobId, Long instanceId, Long wfInstanceId, Long runningTimes) {
+        this.appId = appId;
+        this.id = id;
+        this.jobId = jobId;
+        this.instanceId = instanceId;
+        this.wfInstanceId = wfInstanceId;
+        this.runningTimes = runningTimes;
+    }
 }
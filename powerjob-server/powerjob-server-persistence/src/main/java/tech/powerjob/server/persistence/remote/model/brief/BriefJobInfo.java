@@ -0,0 +1,38 @@
+package tech.powerjob.server.persistence.remote.model.brief;
+
+
+import lombok.Data;
+
+/**
+ * 任务简要信息（仅包含调度相关字段）
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Data
+public class BriefJobInfo {
+
+    private Long appId;
+
+    private Long id;
+    /**
+     * 任务状态
+     */
+    private Integer status;
+    /**
+     * 时间表达式类型
+     */
+    private Integer timeExpressionType;
+    /**
+     * 下一次调度时间
+     */
+    private Long nextTriggerTime;
+
+    public BriefJobInfo(Long appId, Long id, Integer status, Integer timeExpressionType, Long nextTriggerTime) {
+        this.appId = appId;
+        this.id = id;
+        this.status = status;
+        this.timeExpressionType = timeExpressionType;
+        this.nextTriggerTime = nextTriggerTime;
+    }
+}
@@ -31,4 +31,10 @@ public interface AppInfoRepository extends JpaRepository<AppInfoDO, Long> {
     @Query(value = "select id from AppInfoDO where currentServer = :currentServer")
     List<Long> listAppIdByCurrentServer(@Param("currentServer")String currentServer);
 
+    /**
+     * 查询当前负责调度的所有 server（用于 server 之间的广播）
+     */
+    @Query(value = "select distinct currentServer from AppInfoDO where currentServer is not null")
+    List<String> listDistinctCurrentServer();
+
 }
@@ -0,0 +1,30 @@
+package tech.powerjob.server.persistence.remote.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoArchiveDO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 任务运行日志归档表数据访问层
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public interface InstanceInfoArchiveRepository extends JpaRepository<InstanceInfoArchiveDO, Long>, JpaSpecificationExecutor<InstanceInfoArchiveDO> {
+
+    InstanceInfoArchiveDO findByInstanceId(long instanceId);
+
+    /**
+     * 查询超过保留时间的归档记录 ID，用于分批删除
+     * @param time 修改时间阈值
+     * @param pageable 分页（只取第一页）
+     * @return 主键列表
+     */
+    @Query(value = "select i.id from InstanceInfoArchiveDO i where i.gmtModified < ?1")
+    List<Long> findIdByGmtModifiedBefore(Date time, Pageable pageable);
+}
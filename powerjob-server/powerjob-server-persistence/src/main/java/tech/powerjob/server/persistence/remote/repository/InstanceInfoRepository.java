@@ -20,7 +20,7 @@ import java.util.List;
  * @author tjq
  * @since 2020/4/1
  */
-public interface InstanceInfoRepository extends JpaRepository<InstanceInfoDO, Long>, JpaSpecificationExecutor<InstanceInfoDO> {
+public interface InstanceInfoRepository extends JpaRepository<InstanceInfoDO, Long>, JpaSpecificationExecutor<InstanceInfoDO>, InstanceInfoRepositoryCustom {
 
     /**
      * 统计当前JOB有多少实例正在运行
@@ -82,6 +82,23 @@ public interface InstanceInfoRepository extends JpaRepository<InstanceInfoDO, Lo
     @Query(value = "update InstanceInfoDO set status = :status,  actualTriggerTime = :actualTriggerTime, taskTrackerAddress = :taskTrackerAddress, gmtModified = :modifyTime where instanceId = :instanceId and status = :oldStatus")
     int update4TriggerSucceed(@Param("instanceId") long instanceId, @Param("status") int status, @Param("actualTriggerTime") long actualTriggerTime, @Param("taskTrackerAddress") String taskTrackerAddress, @Param("modifyTime") Date modifyTime, @Param("oldStatus") int oldStatus);
 
+    /**
+     * 批量更新任务派发成功的实例（派发到同一个 TaskTracker）
+     *
+     * @param instanceIds        实例 ID 列表
+     * @param status             状态
+     * @param actualTriggerTime  实际调度时间
+     * @param taskTrackerAddress taskTracker 地址
+     * @param modifyTime         更新时间
+     * @param oldStatus          旧状态
+     * @return 更新记录数量
+     */
+    @Transactional(rollbackOn = Exception.class)
+    @Modifying
+    @CanIgnoreReturnValue
+    @Query(value = "update InstanceInfoDO set status = :status,  actualTriggerTime = :actualTriggerTime, taskTrackerAddress = :taskTrackerAddress, gmtModified = :modifyTime where instanceId in (:instanceIds) and status = :oldStatus")
+    int update4TriggerSucceedBatch(@Param("instanceIds") List<Long> instanceIds, @Param("status") int status, @Param("actualTriggerTime") long actualTriggerTime, @Param("taskTrackerAddress") String taskTrackerAddress, @Param("modifyTime") Date modifyTime, @Param("oldStatus") int oldStatus);
+
 
     @Transactional(rollbackOn = Exception.class)
     @Modifying
@@ -119,9 +136,29 @@ public interface InstanceInfoRepository extends JpaRepository<InstanceInfoDO, Lo
     @Query(value = "select new tech.powerjob.server.persistence.remote.model.brief.BriefInstanceInfo(i.appId,i.id,i.jobId,i.instanceId,i.runningTimes) from InstanceInfoDO i where i.appId in (:appIds) and i.status = :status and i.gmtModified < :time")
     List<BriefInstanceInfo> selectBriefInfoByAppIdInAndStatusAndGmtModifiedBefore(@Param("appIds") List<Long> appIds, @Param("status") int status, @Param("time") Date time, Pageable pageable);
 
+    /* ********** 基于 ID 游标的分页查询（状态检查专用），每次从上一页最后一条记录之后开始，不会重复扫描已处理的数据 ********** */
+
+    List<InstanceInfoDO> findAllByAppIdInAndStatusAndExpectedTriggerTimeLessThanAndIdGreaterThanOrderByIdAsc(List<Long> appIds, int status, long time, long lastId, Pageable pageable);
+
+    @Query(value = "select new tech.powerjob.server.persistence.remote.model.brief.BriefInstanceInfo(i.appId,i.id,i.jobId,i.instanceId) from InstanceInfoDO i where i.appId in (:appIds) and i.status = :status and i.actualTriggerTime < :time and i.id > :lastId order by i.id asc")
+    List<BriefInstanceInfo> selectBriefInfoByAppIdInAndStatusAndActualTriggerTimeLessThanAndIdGreaterThan(@Param("appIds") List<Long> appIds, @Param("status") int status, @Param("time") long time, @Param("lastId") long lastId, Pageable pageable);
+
+    @Query(value = "select new tech.powerjob.server.persistence.remote.model.brief.BriefInstanceInfo(i.appId,i.id,i.jobId,i.instanceId,i.wfInstanceId,i.runningTimes) from InstanceInfoDO i where i.appId in (:appIds) and i.status = :status and i.gmtModified < :time and i.id > :lastId order by i.id asc")
+    List<BriefInstanceInfo> selectBriefInfoByAppIdInAndStatusAndGmtModifiedBeforeAndIdGreaterThan(@Param("appIds") List<Long> appIds, @Param("status") int status, @Param("time") Date time, @Param("lastId") long lastId, Pageable pageable);
+
+    /**
+     * 查询待归档的已结束实例（基于 ID 游标分页）
+     */
+    List<InstanceInfoDO> findByStatusInAndGmtModifiedBeforeAndIdGreaterThanOrderByIdAsc(List<Integer> status, Date time, long lastId, Pageable pageable);
+
 
     InstanceInfoDO findByInstanceId(long instanceId);
 
+    List<InstanceInfoDO> findByInstanceIdIn(List<Long> instanceIds);
+
+    @Query(value = "select instanceId from InstanceInfoDO where instanceId in ?1 and status = ?2")
+    List<Long> findInstanceIdByInstanceIdInAndStatus(List<Long> instanceIds, int status);
+
     /* --数据统计-- */
 
     @Query(value = "select count(*) from InstanceInfoDO where appId = ?1 and status = ?2")
@@ -132,6 +169,12 @@ public interface InstanceInfoRepository extends JpaRepository<InstanceInfoDO, Lo
     @Query(value = "select distinct jobId from InstanceInfoDO where jobId in ?1 and status in ?2")
     List<Long> findByJobIdInAndStatusIn(List<Long> jobIds, List<Integer> status);
 
+    /**
+     * 秒级任务注册表专用，查询任务的存活实例
+     */
+    @Query(value = "select new tech.powerjob.server.persistence.remote.model.brief.BriefInstanceInfo(i.appId,i.id,i.jobId,i.instanceId) from InstanceInfoDO i where i.jobId in (:jobIds) and i.status in (:status)")
+    List<BriefInstanceInfo> selectBriefInfoByJobIdInAndStatusIn(@Param("jobIds") List<Long> jobIds, @Param("status") List<Integer> status);
+
     /**
      * 删除历史数据，JPA自带的删除居然是根据ID循环删，2000条数据删了几秒，也太拉垮了吧...
      * 结果只能用 int 接收
@@ -0,0 +1,38 @@
+package tech.powerjob.server.persistence.remote.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InstanceInfo 数据访问层中无法通过 @Query 表达的操作
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public interface InstanceInfoRepositoryCustom {
+
+    /**
+     * 批量刷新实例的最近一次上报时间与修改时间（运行中实例的状态上报合并写入），各个实例的上报时间不同，通过一条 UPDATE 完成
+     *
+     * @param instanceId2LastReportTime 实例 ID -> 最近一次上报时间
+     * @param status                    当前状态，只更新处于该状态的实例
+     * @param modifyTime                修改时间
+     * @return 更新记录数
+     */
+    int updateLastReportTimeByInstanceIdAndStatus(Map<Long, Long> instanceId2LastReportTime, int status, Date modifyTime);
+
+    /**
+     * 批量将仍处于原状态的实例置为结束状态，并返回本次更新的实例
+     * 同一事务中先锁定（select ... for update）仍处于原状态的记录，再只更新这些记录，被其他线程修改的实例不会出现在结果中
+     *
+     * @param instanceIdList 实例 ID
+     * @param originStatus   原状态
+     * @param status         目标状态
+     * @param finishedTime   结束时间
+     * @param result         执行结果
+     * @param modifyTime     修改时间
+     * @return 本次更新的实例 ID
+     */
+    List<Long> update4FinishedAndFetchUpdated(List<Long> instanceIdList, int originStatus, int status, long finishedTime, String result, Date modifyTime);
+}
@@ -0,0 +1,81 @@
+package tech.powerjob.server.persistence.remote.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link InstanceInfoRepositoryCustom} 的实现
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class InstanceInfoRepositoryCustomImpl implements InstanceInfoRepositoryCustom {
+
+    @PersistenceContext(unitName = "remotePersistenceUnit")
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public int updateLastReportTimeByInstanceIdAndStatus(Map<Long, Long> instanceId2LastReportTime, int status, Date modifyTime) {
+        if (instanceId2LastReportTime.isEmpty()) {
+            return 0;
+        }
+        // update ... set lastReportTime = case when instanceId = ? then ? ... else lastReportTime end
+        // 分支数量与 IN 列表长度均向上取整为 2 的幂次（重复最后一个实例），限制不同语句的数量，避免占满查询计划缓存
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(instanceId2LastReportTime.entrySet());
+        int branchNum = Integer.highestOneBit(entries.size() - 1) << 1;
+        branchNum = Math.max(branchNum, 1);
+        StringBuilder jpql = new StringBuilder("update InstanceInfoDO set gmtModified = :modifyTime, lastReportTime = case");
+        for (int i = 0; i < branchNum; i++) {
+            jpql.append(" when instanceId = :id").append(i).append(" then :time").append(i);
+        }
+        jpql.append(" else lastReportTime end where instanceId in (:instanceIdList) and status = :status");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        List<Long> instanceIdList = new ArrayList<>(branchNum);
+        for (int i = 0; i < branchNum; i++) {
+            Map.Entry<Long, Long> entry = entries.get(Math.min(i, entries.size() - 1));
+            query.setParameter("id" + i, entry.getKey());
+            query.setParameter("time" + i, entry.getValue());
+            instanceIdList.add(entry.getKey());
+        }
+        return query.setParameter("modifyTime", modifyTime)
+                .setParameter("instanceIdList", instanceIdList)
+                .setParameter("status", status)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public List<Long> update4FinishedAndFetchUpdated(List<Long> instanceIdList, int originStatus, int status, long finishedTime, String result, Date modifyTime) {
+        if (instanceIdList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> lockedInstanceIds = entityManager.createQuery("select i.instanceId from InstanceInfoDO i where i.instanceId in (:instanceIdList) and i.status = :originStatus", Long.class)
+                .setParameter("instanceIdList", instanceIdList)
+                .setParameter("originStatus", originStatus)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (lockedInstanceIds.isEmpty()) {
+            return lockedInstanceIds;
+        }
+        // 记录已被锁定，状态不会再被其他事务修改
+        entityManager.createQuery("update InstanceInfoDO set status = :status, finishedTime = :finishedTime, result = :result, gmtModified = :modifyTime where instanceId in (:instanceIdList) and status = :originStatus")
+                .setParameter("status", status)
+                .setParameter("finishedTime", finishedTime)
+                .setParameter("result", result)
+                .setParameter("modifyTime", modifyTime)
+                .setParameter("instanceIdList", lockedInstanceIds)
+                .setParameter("originStatus", originStatus)
+                .executeUpdate();
+        return lockedInstanceIds;
+    }
+}
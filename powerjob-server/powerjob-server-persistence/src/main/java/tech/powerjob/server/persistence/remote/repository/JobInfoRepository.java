@@ -1,13 +1,19 @@
 package tech.powerjob.server.persistence.remote.repository;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.persistence.remote.model.brief.BriefJobInfo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import javax.transaction.Transactional;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +34,46 @@ public interface JobInfoRepository extends JpaRepository<JobInfoDO, Long>, JpaSp
     @Query(value = "select id from JobInfoDO where appId in ?1 and status = ?2 and timeExpressionType in ?3")
     List<Long> findByAppIdInAndStatusAndTimeExpressionTypeIn(List<Long> appIds, int status, List<Integer> timeTypes);
 
+    /**
+     * 触发索引专用，全量装载
+     */
+    @Query(value = "select new tech.powerjob.server.persistence.remote.model.brief.BriefJobInfo(j.appId, j.id, j.status, j.timeExpressionType, j.nextTriggerTime) from JobInfoDO j where j.appId in (:appIds) and j.status = :status and j.timeExpressionType in (:timeTypes)")
+    List<BriefJobInfo> selectBriefInfoByAppIdInAndStatusAndTimeExpressionTypeIn(@Param("appIds") List<Long> appIds, @Param("status") int status, @Param("timeTypes") List<Integer> timeTypes);
+
+    /**
+     * 触发索引专用，增量同步
+     */
+    @Query(value = "select new tech.powerjob.server.persistence.remote.model.brief.BriefJobInfo(j.appId, j.id, j.status, j.timeExpressionType, j.nextTriggerTime) from JobInfoDO j where j.appId in (:appIds) and j.gmtModified > :time")
+    List<BriefJobInfo> selectBriefInfoByAppIdInAndGmtModifiedAfter(@Param("appIds") List<Long> appIds, @Param("time") Date time);
+
+    /**
+     * 批量更新下一次调度时间（调度专用，同一时刻触发的任务合并为一条语句）
+     *
+     * @param jobIds          任务 ID
+     * @param nextTriggerTime 下一次调度时间
+     * @param modifyTime      更新时间
+     * @return 更新记录数
+     */
+    @Transactional(rollbackOn = Exception.class)
+    @Modifying
+    @CanIgnoreReturnValue
+    @Query(value = "update JobInfoDO set nextTriggerTime = :nextTriggerTime, gmtModified = :modifyTime where id in (:jobIds)")
+    int updateNextTriggerTimeByIdIn(@Param("jobIds") List<Long> jobIds, @Param("nextTriggerTime") long nextTriggerTime, @Param("modifyTime") Date modifyTime);
+
+    /**
+     * 批量更新任务状态
+     *
+     * @param jobIds     任务 ID
+     * @param status     目标状态
+     * @param modifyTime 更新时间
+     * @return 更新记录数
+     */
+    @Transactional(rollbackOn = Exception.class)
+    @Modifying
+    @CanIgnoreReturnValue
+    @Query(value = "update JobInfoDO set status = :status, gmtModified = :modifyTime where id in (:jobIds)")
+    int updateStatusByIdIn(@Param("jobIds") List<Long> jobIds, @Param("status") int status, @Param("modifyTime") Date modifyTime);
+
     Page<JobInfoDO> findByAppIdAndStatusNot(Long appId, int status, Pageable pageable);
 
     Page<JobInfoDO> findByAppIdAndJobNameLikeAndStatusNot(Long appId, String condition, int status, Pageable pageable);
@@ -19,6 +19,10 @@ public class ServerURLFactory {
         return simileBuild(address, ServerType.WORKER, WORKER_PATH, WTT_HANDLER_RUN_JOB);
     }
 
+    public static URL dispatchJobBatch2Worker(String address) {
+        return simileBuild(address, ServerType.WORKER, WORKER_PATH, WTT_HANDLER_RUN_JOB_BATCH);
+    }
+
     public static URL stopInstance2Worker(String address) {
         return simileBuild(address, ServerType.WORKER, WORKER_PATH, WTT_HANDLER_STOP_INSTANCE);
     }
@@ -0,0 +1,62 @@
+package tech.powerjob.server.remote.worker;
+
+import tech.powerjob.server.common.module.WorkerInfo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 应用集群的不可变快照，由心跳批量驱动重建并整体发布
+ * 快照中的 {@link WorkerInfo} 在发布后不会再被修改（心跳到达时生成新的对象），派发、查询时可以无锁读取、放心排序
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class ClusterSnapshot {
+
+    public static final ClusterSnapshot EMPTY = new ClusterSnapshot(Collections.emptyMap(), WorkerCandidates.EMPTY, 0);
+
+    /**
+     * 地址 -> 机器信息（包含已超时但尚未清理的机器）
+     */
+    private final Map<String, WorkerInfo> address2WorkerInfo;
+    /**
+     * 候选 worker（不包含已超时的机器）
+     */
+    private final WorkerCandidates candidates;
+    /**
+     * 快照生成时间
+     */
+    private final long buildTime;
+
+    private ClusterSnapshot(Map<String, WorkerInfo> address2WorkerInfo, WorkerCandidates candidates, long buildTime) {
+        this.address2WorkerInfo = address2WorkerInfo;
+        this.candidates = candidates;
+        this.buildTime = buildTime;
+    }
+
+    /**
+     * 构建快照
+     * @param address2WorkerInfo 集群当前的机器信息
+     * @param previous 上一个快照
+     * @param buildTime 构建时间
+     * @return 快照
+     */
+    public static ClusterSnapshot build(Map<String, WorkerInfo> address2WorkerInfo, ClusterSnapshot previous, long buildTime) {
+        Map<String, WorkerInfo> copy = Collections.unmodifiableMap(new LinkedHashMap<>(address2WorkerInfo));
+        return new ClusterSnapshot(copy, WorkerCandidates.build(copy.values(), previous.candidates), buildTime);
+    }
+
+    public Map<String, WorkerInfo> getAddress2WorkerInfo() {
+        return address2WorkerInfo;
+    }
+
+    public WorkerCandidates getCandidates() {
+        return candidates;
+    }
+
+    public long getBuildTime() {
+        return buildTime;
+    }
+}
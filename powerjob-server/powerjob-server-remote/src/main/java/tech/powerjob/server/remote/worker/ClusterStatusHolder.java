@@ -33,10 +33,28 @@ public class ClusterStatusHolder {
      * 集群中所有机器的容器部署状态 containerId -> (workerAddress -> containerInfo)
      */
     private Map<Long, Map<String, DeployedContainerInfo>> containerId2Infos;
+    /**
+     * 对外发布的集群快照，心跳更新后最多每 rebuildIntervalMs 重建一次（合并同一时间段内的多次心跳）
+     */
+    private volatile ClusterSnapshot snapshot = ClusterSnapshot.EMPTY;
+
+    private volatile boolean snapshotDirty = true;
 
+    private final long rebuildIntervalMs;
+
+    private static final long DEFAULT_REBUILD_INTERVAL_MS = 1000;
+    /**
+     * 快照的最长有效期，即使没有新的心跳也需要重建，以便剔除已超时的机器
+     */
+    private static final long SNAPSHOT_MAX_AGE_MS = 10000;
 
     public ClusterStatusHolder(String appName) {
+        this(appName, DEFAULT_REBUILD_INTERVAL_MS);
+    }
+
+    ClusterStatusHolder(String appName, long rebuildIntervalMs) {
         this.appName = appName;
+        this.rebuildIntervalMs = rebuildIntervalMs;
         address2WorkerInfo = Maps.newConcurrentMap();
         containerId2Infos = Maps.newConcurrentMap();
     }
@@ -50,18 +68,23 @@ public class ClusterStatusHolder {
         String workerAddress = heartbeat.getWorkerAddress();
         long heartbeatTime = heartbeat.getHeartbeatTime();
 
-        WorkerInfo workerInfo = address2WorkerInfo.computeIfAbsent(workerAddress, ignore -> {
+        // copy-on-heartbeat：每次心跳生成新的 WorkerInfo，已发布的快照中的对象不会被修改
+        WorkerInfo workerInfo = address2WorkerInfo.compute(workerAddress, (ignore, oldInfo) -> {
+            if (oldInfo != null && heartbeatTime < oldInfo.getLastActiveTime()) {
+                return oldInfo;
+            }
             WorkerInfo wf = new WorkerInfo();
+            if (oldInfo != null) {
+                wf.setLastOverloadTime(oldInfo.getLastOverloadTime());
+            }
             wf.refresh(heartbeat);
             return wf;
         });
-        long oldTime = workerInfo.getLastActiveTime();
-        if (heartbeatTime < oldTime) {
+        if (workerInfo.getLastActiveTime() != heartbeatTime) {
             log.warn("[ClusterStatusHolder-{}] receive the expired heartbeat from {}, serverTime: {}, heartTime: {}", appName, heartbeat.getWorkerAddress(), System.currentTimeMillis(), heartbeat.getHeartbeatTime());
             return;
         }
-
-        workerInfo.refresh(heartbeat);
+        snapshotDirty = true;
 
         List<DeployedContainerInfo> containerInfos = heartbeat.getContainerInfos();
         if (!CollectionUtils.isEmpty(containerInfos)) {
@@ -73,11 +96,44 @@ public class ClusterStatusHolder {
     }
 
     /**
-     * 获取该集群所有的机器信息
+     * 获取该集群所有的机器信息（不可变快照）
      * @return 地址: 机器信息
      */
     public Map<String, WorkerInfo> getAllWorkers() {
-        return address2WorkerInfo;
+        return getSnapshot().getAddress2WorkerInfo();
+    }
+
+    /**
+     * 获取候选 worker 快照（不包含已超时的机器）
+     * @return 候选 worker 快照
+     */
+    public WorkerCandidates getCandidates() {
+        return getSnapshot().getCandidates();
+    }
+
+    /**
+     * 获取集群快照，存在未发布的心跳且距上次重建超过 rebuildIntervalMs 时重建
+     * @return 集群快照
+     */
+    private ClusterSnapshot getSnapshot() {
+        ClusterSnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (needRebuild(current, now)) {
+            synchronized (this) {
+                current = snapshot;
+                if (needRebuild(current, now)) {
+                    snapshotDirty = false;
+                    current = ClusterSnapshot.build(address2WorkerInfo, current, now);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean needRebuild(ClusterSnapshot current, long now) {
+        long age = now - current.getBuildTime();
+        return (snapshotDirty && age >= rebuildIntervalMs) || age >= SNAPSHOT_MAX_AGE_MS;
     }
 
     /**
@@ -113,6 +169,7 @@ public class ClusterStatusHolder {
         if (!timeoutAddress.isEmpty()) {
             log.info("[ClusterStatusHolder-{}] detective timeout workers({}), try to release their infos.", appName, timeoutAddress);
             timeoutAddress.forEach(address2WorkerInfo::remove);
+            snapshotDirty = true;
         }
     }
 }
@@ -0,0 +1,233 @@
+package tech.powerjob.server.remote.worker;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import lombok.EqualsAndHashCode;
+import tech.powerjob.server.common.module.WorkerInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 应用的候选 worker 快照（不可变），由心跳驱动定期重建
+ * 重建时预先计算健康分、在途实例数、加权轮询序列以及一致性哈希环，派发时的选择均无需排序、无需分配内存
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class WorkerCandidates {
+
+    /**
+     * 一致性哈希环中每台机器的虚拟节点数量
+     */
+    private static final int VIRTUAL_NODE_NUM = 64;
+    /**
+     * 加权轮询的最大权重，按健康分线性映射到 [1, MAX_WEIGHT]
+     */
+    private static final int MAX_WEIGHT = 10;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    public static final WorkerCandidates EMPTY = new WorkerCandidates(new WorkerInfo[0], null);
+
+    /**
+     * 未超时的 worker，按地址排序保证哈希环稳定
+     */
+    private final WorkerInfo[] workers;
+
+    private final int[] scores;
+    /**
+     * 心跳上报的 TaskTracker 数量
+     */
+    private final int[] taskTrackerNums;
+    /**
+     * 快照生成后由当前 server 派发的实例数量，与 taskTrackerNums 一起估算在途实例数
+     */
+    private final AtomicIntegerArray dispatchedNums;
+
+    private final int[] weightedSequence;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final long[] ringHashes;
+
+    private final int[] ringOwners;
+    /**
+     * 集群成员（地址 + tag），成员不变时沿用上一个快照的对象，可以通过引用比较判断成员是否发生变化
+     */
+    private final Membership membership;
+
+    private WorkerCandidates(WorkerInfo[] workers, WorkerCandidates previous) {
+        this.workers = workers;
+        Membership current = new Membership(workers);
+        this.membership = previous != null && previous.membership.equals(current) ? previous.membership : current;
+        int size = workers.length;
+        this.scores = new int[size];
+        this.taskTrackerNums = new int[size];
+        this.dispatchedNums = new AtomicIntegerArray(size);
+        int maxScore = 1;
+        for (int i = 0; i < size; i++) {
+            scores[i] = workers[i].getSystemMetrics() == null ? 0 : workers[i].getSystemMetrics().calculateScore();
+            taskTrackerNums[i] = workers[i].getLightTaskTrackerNum() + workers[i].getHeavyTaskTrackerNum();
+            maxScore = Math.max(maxScore, scores[i]);
+        }
+        this.weightedSequence = buildWeightedSequence(scores, maxScore);
+
+        this.ringHashes = new long[size * VIRTUAL_NODE_NUM];
+        this.ringOwners = new int[size * VIRTUAL_NODE_NUM];
+        buildRing(workers, ringHashes, ringOwners);
+    }
+
+    /**
+     * 构建快照，过滤已经超时的 worker
+     * @param allWorkers 应用的所有 worker
+     * @return 快照
+     */
+    public static WorkerCandidates build(Collection<WorkerInfo> allWorkers) {
+        return build(allWorkers, null);
+    }
+
+    /**
+     * 构建快照，过滤已经超时的 worker
+     * @param allWorkers 应用的所有 worker
+     * @param previous 上一个快照，集群成员不变时沿用其 {@link Membership}
+     * @return 快照
+     */
+    public static WorkerCandidates build(Collection<WorkerInfo> allWorkers, WorkerCandidates previous) {
+        WorkerInfo[] workers = allWorkers.stream()
+                .filter(workerInfo -> !workerInfo.timeout())
+                .sorted(Comparator.comparing(WorkerInfo::getAddress))
+                .toArray(WorkerInfo[]::new);
+        return new WorkerCandidates(workers, previous);
+    }
+
+    public int size() {
+        return workers.length;
+    }
+
+    public WorkerInfo get(int index) {
+        return workers[index];
+    }
+
+    public Membership getMembership() {
+        return membership;
+    }
+
+    /**
+     * power of two choices：随机选择两台机器，取健康分较高者
+     * @return 机器下标
+     */
+    public int selectByPowerOfTwoChoices() {
+        int a = ThreadLocalRandom.current().nextInt(workers.length);
+        int b = ThreadLocalRandom.current().nextInt(workers.length);
+        return scores[a] >= scores[b] ? a : b;
+    }
+
+    /**
+     * 最少在途实例：随机选择两台机器，取在途实例（心跳上报的 TaskTracker 数量 + 此后派发的实例数量）较少者，
+     * 避免全量扫描的同时能够以很高的概率避开繁忙的机器
+     * 选择过程不修改派发计数，选中的机器通过过滤后由调用方调用 {@link #recordDispatched(int)}
+     * @return 机器下标
+     */
+    public int selectByLeastOutstanding() {
+        int a = ThreadLocalRandom.current().nextInt(workers.length);
+        int b = ThreadLocalRandom.current().nextInt(workers.length);
+        return outstanding(a) <= outstanding(b) ? a : b;
+    }
+
+    /**
+     * 记录一次派发，计入该机器的在途实例数
+     * @param index 最终选中的机器下标
+     */
+    public void recordDispatched(int index) {
+        dispatchedNums.incrementAndGet(index);
+    }
+
+    /**
+     * 一致性哈希：相同的 key（jobId）总是派发到同一台机器，机器上下线只影响少量 key
+     * @param key 哈希 key
+     * @param attempt 第几次尝试（上一次选中的机器不可用时顺延到哈希环上的下一台机器）
+     * @return 机器下标
+     */
+    public int selectByConsistentHash(long key, int attempt) {
+        long hash = HASH_FUNCTION.hashLong(key).asLong();
+        int pos = Arrays.binarySearch(ringHashes, hash);
+        if (pos < 0) {
+            pos = -pos - 1;
+        }
+        return ringOwners[(pos + attempt * VIRTUAL_NODE_NUM) % ringOwners.length];
+    }
+
+    /**
+     * 加权轮询，权重由健康分决定
+     * @return 机器下标
+     */
+    public int selectByWeightedRoundRobin() {
+        int next = cursor.getAndIncrement() & Integer.MAX_VALUE;
+        return weightedSequence[next % weightedSequence.length];
+    }
+
+    private int outstanding(int index) {
+        return taskTrackerNums[index] + dispatchedNums.get(index);
+    }
+
+    /**
+     * 按轮次交错生成序列：第 r 轮包含所有权重不小于 r 的机器，避免同一台机器被连续选中
+     */
+    private static int[] buildWeightedSequence(int[] scores, int maxScore) {
+        int[] weights = new int[scores.length];
+        int total = 0;
+        for (int i = 0; i < scores.length; i++) {
+            weights[i] = 1 + (int) ((long) Math.max(scores[i], 0) * (MAX_WEIGHT - 1) / maxScore);
+            total += weights[i];
+        }
+        int[] sequence = new int[total];
+        int idx = 0;
+        for (int round = 1; round <= MAX_WEIGHT; round++) {
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] >= round) {
+                    sequence[idx++] = i;
+                }
+            }
+        }
+        return sequence;
+    }
+
+    private static void buildRing(WorkerInfo[] workers, long[] ringHashes, int[] ringOwners) {
+        long[][] nodes = new long[ringHashes.length][];
+        for (int i = 0; i < workers.length; i++) {
+            for (int v = 0; v < VIRTUAL_NODE_NUM; v++) {
+                long hash = HASH_FUNCTION.hashString(workers[i].getAddress() + "#" + v, StandardCharsets.UTF_8).asLong();
+                nodes[i * VIRTUAL_NODE_NUM + v] = new long[]{hash, i};
+            }
+        }
+        Arrays.sort(nodes, Comparator.comparingLong(node -> node[0]));
+        for (int i = 0; i < nodes.length; i++) {
+            ringHashes[i] = nodes[i][0];
+            ringOwners[i] = (int) nodes[i][1];
+        }
+    }
+
+    /**
+     * 集群成员，按地址排序，相同成员的快照中同一台机器的下标相同
+     */
+    @EqualsAndHashCode
+    public static final class Membership {
+
+        private final List<String> members;
+
+        private Membership(WorkerInfo[] workers) {
+            this.members = Lists.newArrayListWithCapacity(workers.length);
+            for (WorkerInfo workerInfo : workers) {
+                members.add(workerInfo.getAddress() + "#" + workerInfo.getTag());
+            }
+        }
+    }
+}
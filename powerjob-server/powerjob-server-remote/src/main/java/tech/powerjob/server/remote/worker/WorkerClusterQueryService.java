@@ -4,16 +4,19 @@ import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import tech.powerjob.common.enums.DispatchStrategy;
+import tech.powerjob.common.enums.ExecuteType;
 import tech.powerjob.common.model.DeployedContainerInfo;
 import tech.powerjob.server.common.module.WorkerInfo;
 import tech.powerjob.server.remote.worker.filter.WorkerFilter;
 import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 import tech.powerjob.server.remote.server.redirector.DesignateServer;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * 获取 worker 集群信息
@@ -25,10 +28,21 @@ import java.util.Optional;
 @Service
 public class WorkerClusterQueryService {
 
+    /**
+     * 基于候选快照选择机器时的最大尝试次数
+     */
+    private static final int MAX_SELECT_ATTEMPTS = 4;
+
+    /**
+     * 结果不可缓存的过滤器，每次派发时对机器逐一判断
+     */
     private final List<WorkerFilter> workerFilters;
 
+    private final WorkerFilterIndex workerFilterIndex;
+
     public WorkerClusterQueryService(List<WorkerFilter> workerFilters) {
-        this.workerFilters = workerFilters;
+        this.workerFilters = workerFilters.stream().filter(filter -> !filter.cacheable()).collect(Collectors.toList());
+        this.workerFilterIndex = new WorkerFilterIndex(workerFilters.stream().filter(WorkerFilter::cacheable).collect(Collectors.toList()));
     }
 
     /**
@@ -39,11 +53,29 @@ public class WorkerClusterQueryService {
      */
     public List<WorkerInfo> getSuitableWorkers(JobInfoDO jobInfo) {
 
-        List<WorkerInfo> workers = Lists.newLinkedList(getWorkerInfosByAppId(jobInfo.getAppId()).values());
-
-        workers.removeIf(workerInfo -> filterWorker(workerInfo, jobInfo));
+        ClusterStatusHolder clusterStatusHolder = getAppId2ClusterStatus().get(jobInfo.getAppId());
+        if (clusterStatusHolder == null) {
+            log.warn("[WorkerManagerService] can't find any worker for app(appId={}) yet.", jobInfo.getAppId());
+            return Collections.emptyList();
+        }
+        WorkerCandidates candidates = clusterStatusHolder.getCandidates();
+        if (candidates.size() == 0) {
+            return Collections.emptyList();
+        }
+        BitSet eligible = workerFilterIndex.getEligible(candidates, jobInfo);
 
         DispatchStrategy dispatchStrategy = DispatchStrategy.of(jobInfo.getDispatchStrategy());
+        if (dispatchStrategy.isLoadAware()) {
+            return getSuitableWorkersByCandidates(candidates, eligible, jobInfo, dispatchStrategy);
+        }
+
+        List<WorkerInfo> workers = Lists.newArrayListWithCapacity(eligible.cardinality());
+        for (int i = eligible.nextSetBit(0); i >= 0; i = eligible.nextSetBit(i + 1)) {
+            if (!filterWorker(candidates.get(i), jobInfo)) {
+                workers.add(candidates.get(i));
+            }
+        }
+
         switch (dispatchStrategy) {
             case RANDOM:
                 Collections.shuffle(workers);
@@ -62,6 +94,93 @@ public class WorkerClusterQueryService {
         return workers;
     }
 
+    /**
+     * 任务的候选 worker（过滤、指定机器后）存在且全部超载
+     * 只做过滤，不经过负载感知策略的选择过程（不影响各个 worker 的派发计数）
+     *
+     * @param jobInfo job
+     * @return 全部超载时返回 true，没有候选 worker 时返回 false
+     */
+    public boolean allSuitableWorkersOverload(JobInfoDO jobInfo) {
+        ClusterStatusHolder clusterStatusHolder = getAppId2ClusterStatus().get(jobInfo.getAppId());
+        if (clusterStatusHolder == null) {
+            return false;
+        }
+        WorkerCandidates candidates = clusterStatusHolder.getCandidates();
+        if (candidates.size() == 0) {
+            return false;
+        }
+        BitSet eligible = workerFilterIndex.getEligible(candidates, jobInfo);
+        boolean anySuitable = false;
+        for (int i = eligible.nextSetBit(0); i >= 0; i = eligible.nextSetBit(i + 1)) {
+            WorkerInfo workerInfo = candidates.get(i);
+            if (filterWorker(workerInfo, jobInfo)) {
+                continue;
+            }
+            if (!workerInfo.overload()) {
+                return false;
+            }
+            anySuitable = true;
+        }
+        return anySuitable;
+    }
+
+    /**
+     * 基于候选快照选择 TaskTracker（列表第一个元素），选择过程为 O(1)，被过滤或者超载的机器会重新选择，多次失败后退化为健康分最高的机器
+     * 单机任务只需要 TaskTracker，选中后直接返回，不再构建完整的候选列表；MapReduce、广播等任务以及选择失败时才需要过滤全部候选机器
+     */
+    private List<WorkerInfo> getSuitableWorkersByCandidates(WorkerCandidates candidates, BitSet eligible, JobInfoDO jobInfo, DispatchStrategy dispatchStrategy) {
+
+        int selected = -1;
+        for (int attempt = 0; attempt < MAX_SELECT_ATTEMPTS && selected < 0; attempt++) {
+            int index = select(candidates, dispatchStrategy, jobInfo, attempt);
+            WorkerInfo workerInfo = candidates.get(index);
+            if (eligible.get(index) && !workerInfo.overload() && !filterWorker(workerInfo, jobInfo)) {
+                selected = index;
+            }
+        }
+        if (selected >= 0) {
+            candidates.recordDispatched(selected);
+            if (ExecuteType.of(jobInfo.getExecuteType()) == ExecuteType.STANDALONE) {
+                return Collections.singletonList(candidates.get(selected));
+            }
+        }
+
+        List<WorkerInfo> workers = Lists.newArrayListWithCapacity(eligible.cardinality());
+        if (selected >= 0) {
+            workers.add(candidates.get(selected));
+        }
+        for (int i = eligible.nextSetBit(0); i >= 0; i = eligible.nextSetBit(i + 1)) {
+            if (i != selected && !filterWorker(candidates.get(i), jobInfo)) {
+                workers.add(candidates.get(i));
+            }
+        }
+        if (selected < 0 && !workers.isEmpty()) {
+            workers.sort((o1, o2) -> o2.getSystemMetrics().calculateScore() - o1.getSystemMetrics().calculateScore());
+        }
+
+        // 限定集群大小（0代表不限制）
+        if (!workers.isEmpty() && jobInfo.getMaxWorkerCount() > 0 && workers.size() > jobInfo.getMaxWorkerCount()) {
+            workers = workers.subList(0, jobInfo.getMaxWorkerCount());
+        }
+        return workers;
+    }
+
+    private static int select(WorkerCandidates candidates, DispatchStrategy dispatchStrategy, JobInfoDO jobInfo, int attempt) {
+        switch (dispatchStrategy) {
+            case POWER_OF_TWO_CHOICES:
+                return candidates.selectByPowerOfTwoChoices();
+            case LEAST_OUTSTANDING:
+                return candidates.selectByLeastOutstanding();
+            case CONSISTENT_HASH:
+                return candidates.selectByConsistentHash(jobInfo.getId(), attempt);
+            case WEIGHTED_ROUND_ROBIN:
+                return candidates.selectByWeightedRoundRobin();
+            default:
+                throw new IllegalArgumentException("unsupported load aware DispatchStrategy: " + dispatchStrategy);
+        }
+    }
+
     @DesignateServer
     public List<WorkerInfo> getAllWorkers(Long appId) {
         List<WorkerInfo> workers = Lists.newLinkedList(getWorkerInfosByAppId(appId).values());
@@ -0,0 +1,76 @@
+package tech.powerjob.server.remote.worker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.AllArgsConstructor;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.remote.worker.filter.WorkerFilter;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务维度的候选机器索引，缓存可缓存过滤器（{@link WorkerFilter#cacheable()}）的过滤结果
+ * 下标与 {@link WorkerCandidates} 中机器的下标一一对应，仅在任务的 designatedWorkers 或集群成员变化时重新计算
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class WorkerFilterIndex {
+
+    private final List<WorkerFilter> cacheableFilters;
+
+    /**
+     * jobId -> 可用的候选机器
+     */
+    private final Cache<Long, Entry> jobId2Entry = CacheBuilder.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .maximumSize(100000)
+            .build();
+
+    public WorkerFilterIndex(List<WorkerFilter> cacheableFilters) {
+        this.cacheableFilters = cacheableFilters;
+    }
+
+    /**
+     * 获取通过所有可缓存过滤器的候选机器
+     * @param candidates 候选 worker 快照
+     * @param jobInfo 任务信息
+     * @return 位图，第 i 位为 true 代表 candidates 中第 i 台机器可用（只读，调用方不可修改）
+     */
+    public BitSet getEligible(WorkerCandidates candidates, JobInfoDO jobInfo) {
+        Long jobId = jobInfo.getId();
+        Entry entry = jobId == null ? null : jobId2Entry.getIfPresent(jobId);
+        if (entry != null && entry.membership == candidates.getMembership() && Objects.equals(entry.designatedWorkers, jobInfo.getDesignatedWorkers())) {
+            return entry.eligible;
+        }
+        BitSet eligible = new BitSet(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!filter(candidates, i, jobInfo)) {
+                eligible.set(i);
+            }
+        }
+        if (jobId != null) {
+            jobId2Entry.put(jobId, new Entry(candidates.getMembership(), jobInfo.getDesignatedWorkers(), eligible));
+        }
+        return eligible;
+    }
+
+    private boolean filter(WorkerCandidates candidates, int index, JobInfoDO jobInfo) {
+        for (WorkerFilter filter : cacheableFilters) {
+            if (filter.filter(candidates.get(index), jobInfo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final WorkerCandidates.Membership membership;
+        private final String designatedWorkers;
+        private final BitSet eligible;
+    }
+}
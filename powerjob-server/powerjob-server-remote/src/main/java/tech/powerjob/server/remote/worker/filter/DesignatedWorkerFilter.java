@@ -1,5 +1,7 @@
 package tech.powerjob.server.remote.worker.filter;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -20,6 +22,13 @@ import java.util.Set;
 @Component
 public class DesignatedWorkerFilter implements WorkerFilter {
 
+    /**
+     * designatedWorkers -> 解析后的 tag 或地址集合
+     */
+    private final Cache<String, Set<String>> designatedWorkersCache = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .build();
+
     @Override
     public boolean filter(WorkerInfo workerInfo, JobInfoDO jobInfo) {
 
@@ -30,14 +39,16 @@ public class DesignatedWorkerFilter implements WorkerFilter {
             return false;
         }
 
-        Set<String> designatedWorkersSet = Sets.newHashSet(SJ.COMMA_SPLITTER.splitToList(designatedWorkers));
+        Set<String> designatedWorkersSet = designatedWorkersCache.asMap().computeIfAbsent(designatedWorkers, ignore -> Sets.newHashSet(SJ.COMMA_SPLITTER.splitToList(designatedWorkers)));
 
-        for (String tagOrAddress : designatedWorkersSet) {
-            if (tagOrAddress.equals(workerInfo.getTag()) || tagOrAddress.equals(workerInfo.getAddress())) {
-                return false;
-            }
+        if (workerInfo.getTag() != null && designatedWorkersSet.contains(workerInfo.getTag())) {
+            return false;
         }
+        return !designatedWorkersSet.contains(workerInfo.getAddress());
+    }
 
+    @Override
+    public boolean cacheable() {
         return true;
     }
 
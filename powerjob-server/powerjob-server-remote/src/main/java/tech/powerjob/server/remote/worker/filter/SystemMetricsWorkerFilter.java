@@ -18,6 +18,10 @@ public class SystemMetricsWorkerFilter implements WorkerFilter {
 
     @Override
     public boolean filter(WorkerInfo workerInfo, JobInfoDO jobInfo) {
+        // no requirement of any, the common case
+        if (!hasRequirement(jobInfo.getMinCpuCores()) && !hasRequirement(jobInfo.getMinMemorySpace()) && !hasRequirement(jobInfo.getMinDiskSpace())) {
+            return false;
+        }
         SystemMetrics metrics = workerInfo.getSystemMetrics();
         boolean filter = !metrics.available(jobInfo.getMinCpuCores(), jobInfo.getMinMemorySpace(), jobInfo.getMinDiskSpace());
         if (filter) {
@@ -25,4 +29,8 @@ public class SystemMetricsWorkerFilter implements WorkerFilter {
         }
         return filter;
     }
+
+    private static boolean hasRequirement(double value) {
+        return value > 0;
+    }
 }
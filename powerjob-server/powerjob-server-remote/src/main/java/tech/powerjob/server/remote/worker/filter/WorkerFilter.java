@@ -18,4 +18,13 @@ public interface WorkerFilter {
      * @return true will remove the worker in process list
      */
     boolean filter(WorkerInfo workerInfo, JobInfoDO jobInfoDO);
+
+    /**
+     * whether the result can be cached per job
+     * @return true only if the result depends on nothing but the worker's address/tag and the job's designatedWorkers,
+     * then it will be recalculated only when either of them changes
+     */
+    default boolean cacheable() {
+        return false;
+    }
 }
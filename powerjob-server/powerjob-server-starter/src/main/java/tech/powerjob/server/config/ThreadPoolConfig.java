@@ -1,6 +1,7 @@
 package tech.powerjob.server.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.AsyncTaskExecutor;
@@ -13,6 +14,8 @@ import tech.powerjob.server.common.RejectedExecutionHandlerFactory;
 import tech.powerjob.server.common.constants.PJThreadPool;
 import tech.powerjob.server.common.thread.NewThreadRunRejectedExecutionHandler;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * 公用线程池配置
  *
@@ -61,6 +64,22 @@ public class ThreadPoolConfig {
         return executor;
     }
 
+    /**
+     * 调度线程池，按分区并行执行调度流水线
+     * 队列长度与并发度一致，满载后由调度线程自行执行，避免任务堆积
+     */
+    @Bean(PJThreadPool.SCHEDULE_POOL)
+    public TaskExecutor initSchedulePool(@Value("${oms.schedule.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int tSize = Math.max(1, parallelism);
+        executor.setCorePoolSize(tSize);
+        executor.setMaxPoolSize(tSize);
+        executor.setQueueCapacity(tSize);
+        executor.setThreadNamePrefix("PJ-SCHEDULE-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
     /**
      * 引入 WebSocket 支持后需要手动初始化调度线程池
      */
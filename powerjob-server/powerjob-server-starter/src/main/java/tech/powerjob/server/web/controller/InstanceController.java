@@ -7,8 +7,8 @@ import tech.powerjob.server.persistence.PageResult;
 import tech.powerjob.server.persistence.StringPage;
 import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
 import tech.powerjob.server.persistence.remote.repository.AppInfoRepository;
-import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
 import tech.powerjob.server.core.service.CacheService;
+import tech.powerjob.server.core.instance.InstanceArchiveService;
 import tech.powerjob.server.core.instance.InstanceLogService;
 import tech.powerjob.server.core.instance.InstanceService;
 import tech.powerjob.server.web.request.QueryInstanceRequest;
@@ -18,10 +18,7 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.springframework.beans.BeanUtils;
-import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,6 +26,7 @@ import javax.annotation.Resource;
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.net.URL;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -54,7 +52,7 @@ public class InstanceController {
     @Resource
     private CacheService cacheService;
     @Resource
-    private InstanceInfoRepository instanceInfoRepository;
+    private InstanceArchiveService instanceArchiveService;
 
     @GetMapping("/stop")
     public ResultDTO<Void> stopInstance(Long appId,Long instanceId) {
@@ -112,9 +110,6 @@ public class InstanceController {
     @PostMapping("/list")
     public ResultDTO<PageResult<InstanceInfoVO>> list(@RequestBody QueryInstanceRequest request) {
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "gmtModified");
-        PageRequest pageable = PageRequest.of(request.getIndex(), request.getPageSize(), sort);
-
         InstanceInfoDO queryEntity = new InstanceInfoDO();
         BeanUtils.copyProperties(request, queryEntity);
         queryEntity.setType(request.getType().getV());
@@ -123,10 +118,28 @@ public class InstanceController {
             queryEntity.setStatus(InstanceStatus.valueOf(request.getStatus()).getV());
         }
 
-        Page<InstanceInfoDO> pageResult = instanceInfoRepository.findAll(Example.of(queryEntity), pageable);
+        // 开启冷热分离时同时查询归档表
+        Page<InstanceInfoDO> pageResult = instanceArchiveService.findAllWithArchive(queryEntity, request.getIndex(), request.getPageSize(), parseCursor(request.getCursor()));
         return ResultDTO.success(convertPage(pageResult));
     }
 
+    /**
+     * 解析翻页游标（{@link InstanceInfoVO#getCursor()}），只需要修改时间与主键
+     */
+    private static InstanceInfoDO parseCursor(String cursor) {
+        if (StringUtils.isEmpty(cursor)) {
+            return null;
+        }
+        String[] split = cursor.split(InstanceInfoVO.CURSOR_SEPARATOR);
+        if (split.length != 2) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        InstanceInfoDO res = new InstanceInfoDO();
+        res.setGmtModified(new Date(Long.parseLong(split[0])));
+        res.setId(Long.parseLong(split[1]));
+        return res;
+    }
+
     private PageResult<InstanceInfoVO> convertPage(Page<InstanceInfoDO> page) {
         List<InstanceInfoVO> content = page.getContent().stream()
                 .map(x -> InstanceInfoVO.from(x, cacheService.getJobName(x.getJobId()))).collect(Collectors.toList());
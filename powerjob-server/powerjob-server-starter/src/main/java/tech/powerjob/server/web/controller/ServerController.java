@@ -14,6 +14,9 @@ import tech.powerjob.common.utils.CommonUtils;
 import tech.powerjob.common.utils.NetUtils;
 import tech.powerjob.server.common.aware.ServerInfoAware;
 import tech.powerjob.server.common.module.ServerInfo;
+import tech.powerjob.server.common.timewheel.holder.InstanceTimeWheelService;
+import tech.powerjob.server.core.lock.KeyedLockManager;
+import tech.powerjob.server.monitor.MonitorService;
 import tech.powerjob.server.persistence.remote.model.AppInfoDO;
 import tech.powerjob.server.persistence.remote.repository.AppInfoRepository;
 import tech.powerjob.server.remote.server.election.ServerElectionService;
@@ -44,6 +47,10 @@ public class ServerController implements ServerInfoAware {
 
     private final WorkerClusterQueryService workerClusterQueryService;
 
+    private final KeyedLockManager keyedLockManager;
+
+    private final MonitorService monitorService;
+
     @GetMapping("/assert")
     public ResultDTO<Long> assertAppName(String appName) {
         Optional<AppInfoDO> appInfoOpt = appInfoRepository.findByAppName(appName);
@@ -77,6 +84,8 @@ public class ServerController implements ServerInfoAware {
         res.put("appIds", workerClusterQueryService.getAppId2ClusterStatus().keySet());
         if (debug) {
             res.put("appId2ClusterInfo", JSON.parseObject(JSON.toJSONString(workerClusterQueryService.getAppId2ClusterStatus())));
+            res.put("timeWheelLateness", InstanceTimeWheelService.fetchLateness().snapshot());
+            res.put("lockWaitMicros", keyedLockManager.fetchWaitStatistics());
         }
 
         try {
@@ -87,6 +96,18 @@ public class ServerController implements ServerInfoAware {
         return ResultDTO.success(res);
     }
 
+    /**
+     * 监控事件的预聚合指标，供监控系统定期采集
+     */
+    @GetMapping("/metrics")
+    public ResultDTO<JSONObject> metrics() {
+        JSONObject res = new JSONObject();
+        res.put("events", monitorService.fetchMetrics());
+        res.put("timeWheelLateness", InstanceTimeWheelService.fetchLateness().snapshot());
+        res.put("lockWaitMicros", keyedLockManager.fetchWaitStatistics());
+        return ResultDTO.success(res);
+    }
+
     @Override
     public void setServerInfo(ServerInfo serverInfo) {
         this.serverInfo = serverInfo;
@@ -33,4 +33,9 @@ public class QueryInstanceRequest {
     private Long wfInstanceId;
 
     private String status;
+    /**
+     * 翻页游标，即上一页最后一条数据的 {@link tech.powerjob.server.web.response.InstanceInfoVO#getCursor()}
+     * 查询下一页时传入，基于游标查询，避免页码较大时的深分页
+     */
+    private String cursor;
 }
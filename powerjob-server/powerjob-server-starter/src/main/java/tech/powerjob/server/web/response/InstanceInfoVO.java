@@ -15,6 +15,8 @@ import org.springframework.beans.BeanUtils;
 @Data
 public class InstanceInfoVO {
 
+    public static final String CURSOR_SEPARATOR = "_";
+
     /**
      * 任务ID（JS精度丢失）
      */
@@ -54,6 +56,10 @@ public class InstanceInfoVO {
      * 结束时间（同理，需要格式化）
      */
     private String finishedTime;
+    /**
+     * 翻页游标（修改时间_主键），查询下一页时原样传回
+     */
+    private String cursor;
 
     public static InstanceInfoVO from(InstanceInfoDO instanceInfoDo, String jobName) {
         InstanceInfoVO instanceInfoVO = new InstanceInfoVO();
@@ -82,6 +88,9 @@ public class InstanceInfoVO {
         }else {
             instanceInfoVO.setFinishedTime(DateFormatUtils.format(instanceInfoDo.getFinishedTime(), OmsConstant.TIME_PATTERN));
         }
+        if (instanceInfoDo.getGmtModified() != null && instanceInfoDo.getId() != null) {
+            instanceInfoVO.setCursor(instanceInfoDo.getGmtModified().getTime() + CURSOR_SEPARATOR + instanceInfoDo.getId());
+        }
 
         return instanceInfoVO;
     }
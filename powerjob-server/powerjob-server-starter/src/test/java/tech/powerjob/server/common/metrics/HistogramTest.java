@@ -0,0 +1,57 @@
+package tech.powerjob.server.common.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 直方图 Test
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+class HistogramTest {
+
+    @Test
+    void testPercentile() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(99));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+        log.info("[HistogramTest] snapshot: {}", histogram);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        // 第 501 个值为 500，位于 [256, 512) 区间
+        assertEquals(511, histogram.getPercentile(50));
+        // 最后一个区间的上界不超过最大值
+        assertEquals(1000, histogram.getPercentile(99.9));
+        assertEquals(0, new Histogram().getMean());
+    }
+
+    @Test
+    void testSubBucketPercentile() {
+        Histogram histogram = new Histogram(5);
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        log.info("[HistogramTest] sub bucket snapshot: {}", histogram);
+
+        // 小于 64 的数值精确统计
+        assertEquals(10, histogram.getPercentile(0.1));
+        // 其余数值的相对误差不超过 1/32
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 5000 && p50 <= 5000 * 33 / 32, String.valueOf(p50));
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p99 >= 9900 && p99 <= 9900 * 33 / 32, String.valueOf(p99));
+        assertEquals(10000, histogram.getPercentile(100));
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    }
+}
@@ -0,0 +1,174 @@
+package tech.powerjob.server.core;
+
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import tech.powerjob.common.enums.ExecuteType;
+import tech.powerjob.common.enums.ProcessorType;
+import tech.powerjob.common.enums.TimeExpressionType;
+import tech.powerjob.common.request.ServerScheduleJobReq;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 调度请求模板测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+public class ScheduleJobReqTemplateTest {
+
+    private static final List<String> WORKERS = Lists.newArrayList("127.0.0.1:27777", "127.0.0.1:27778");
+
+    @Test
+    public void testSameAsBeanCopy() {
+        JobInfoDO jobInfo = mockJobInfo();
+        ScheduleJobReqTemplate template = ScheduleJobReqTemplate.of(jobInfo);
+
+        InstanceInfoDO instanceInfo = mockInstanceInfo(null, null);
+        Assertions.assertEquals(constructByBeanCopy(jobInfo, instanceInfo, WORKERS), template.newRequest(jobInfo, instanceInfo, WORKERS));
+
+        instanceInfo = mockInstanceInfo("instance params", "instance job params");
+        ServerScheduleJobReq req = template.newRequest(jobInfo, instanceInfo, WORKERS);
+        Assertions.assertEquals(constructByBeanCopy(jobInfo, instanceInfo, WORKERS), req);
+        Assertions.assertEquals("instance job params", req.getJobParams());
+    }
+
+    /**
+     * 同一个任务既独立调度又作为工作流节点调度（时间表达式类型在内存中被改写为 WORKFLOW，修改时间不变），共用同一个模板
+     */
+    @Test
+    public void testStandaloneAndWorkflowDispatch() {
+        JobInfoDO jobInfo = mockJobInfo();
+        jobInfo.setTimeExpressionType(TimeExpressionType.FIXED_RATE.getV());
+        jobInfo.setTimeExpression("1000");
+        InstanceInfoDO instanceInfo = mockInstanceInfo(null, null);
+
+        JobInfoDO workflowJobInfo = mockJobInfo();
+        workflowJobInfo.setTimeExpressionType(TimeExpressionType.WORKFLOW.getV());
+        workflowJobInfo.setTimeExpression("1000");
+        workflowJobInfo.setGmtModified(jobInfo.getGmtModified());
+
+        // 无论先以哪种方式派发，模板都可以继续使用，且请求中的时间表达式类型与本次派发一致
+        for (JobInfoDO first : Lists.newArrayList(jobInfo, workflowJobInfo)) {
+            ScheduleJobReqTemplate template = ScheduleJobReqTemplate.of(first);
+            Assertions.assertTrue(template.matches(jobInfo));
+            Assertions.assertTrue(template.matches(workflowJobInfo));
+
+            ServerScheduleJobReq standaloneReq = template.newRequest(jobInfo, instanceInfo, WORKERS);
+            Assertions.assertEquals(TimeExpressionType.FIXED_RATE.name(), standaloneReq.getTimeExpressionType());
+            Assertions.assertEquals(constructByBeanCopy(jobInfo, instanceInfo, WORKERS), standaloneReq);
+
+            ServerScheduleJobReq workflowReq = template.newRequest(workflowJobInfo, instanceInfo, WORKERS);
+            Assertions.assertEquals(TimeExpressionType.WORKFLOW.name(), workflowReq.getTimeExpressionType());
+            Assertions.assertEquals(constructByBeanCopy(workflowJobInfo, instanceInfo, WORKERS), workflowReq);
+        }
+    }
+
+    @Test
+    public void testMatches() {
+        JobInfoDO jobInfo = mockJobInfo();
+        ScheduleJobReqTemplate template = ScheduleJobReqTemplate.of(jobInfo);
+        Assertions.assertTrue(template.matches(jobInfo));
+
+        jobInfo.setGmtModified(new Date(jobInfo.getGmtModified().getTime() + 1));
+        Assertions.assertFalse(template.matches(jobInfo));
+
+        jobInfo.setGmtModified(null);
+        Assertions.assertFalse(ScheduleJobReqTemplate.of(jobInfo).matches(jobInfo));
+    }
+
+    @Test
+    public void testPerformance() {
+        JobInfoDO jobInfo = mockJobInfo();
+        InstanceInfoDO instanceInfo = mockInstanceInfo("instance params", null);
+        ScheduleJobReqTemplate template = ScheduleJobReqTemplate.of(jobInfo);
+        int times = 200000;
+        // 预热
+        for (int i = 0; i < times; i++) {
+            constructByBeanCopy(jobInfo, instanceInfo, WORKERS);
+            template.newRequest(jobInfo, instanceInfo, WORKERS);
+        }
+        ServerScheduleJobReq[] expected = new ServerScheduleJobReq[times];
+        ServerScheduleJobReq[] actual = new ServerScheduleJobReq[times];
+        long start = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            expected[i] = constructByBeanCopy(jobInfo, instanceInfo, WORKERS);
+        }
+        long beanCopyCost = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            actual[i] = template.newRequest(jobInfo, instanceInfo, WORKERS);
+        }
+        long templateCost = System.nanoTime() - start;
+        Assertions.assertArrayEquals(expected, actual);
+        log.info("[ScheduleJobReqTemplateTest] construct {} requests, BeanUtils: {}ns/op, template: {}ns/op", times, beanCopyCost / times, templateCost / times);
+    }
+
+    /**
+     * 原有的构造方式
+     */
+    private static ServerScheduleJobReq constructByBeanCopy(JobInfoDO jobInfo, InstanceInfoDO instanceInfo, List<String> workers) {
+        ServerScheduleJobReq req = new ServerScheduleJobReq();
+        BeanUtils.copyProperties(jobInfo, req);
+        req.setJobId(jobInfo.getId());
+        if (StringUtils.isEmpty(instanceInfo.getInstanceParams())) {
+            req.setInstanceParams(null);
+        } else {
+            req.setInstanceParams(instanceInfo.getInstanceParams());
+        }
+        if (!StringUtils.isEmpty(instanceInfo.getJobParams())) {
+            req.setJobParams(instanceInfo.getJobParams());
+        }
+        req.setInstanceId(instanceInfo.getInstanceId());
+        req.setAllWorkerAddress(workers);
+        req.setMaxWorkerCount(jobInfo.getMaxWorkerCount());
+        req.setWfInstanceId(instanceInfo.getWfInstanceId());
+        req.setExecuteType(ExecuteType.of(jobInfo.getExecuteType()).name());
+        req.setProcessorType(ProcessorType.of(jobInfo.getProcessorType()).name());
+        req.setTimeExpressionType(TimeExpressionType.of(jobInfo.getTimeExpressionType()).name());
+        if (jobInfo.getInstanceTimeLimit() != null) {
+            req.setInstanceTimeoutMS(jobInfo.getInstanceTimeLimit());
+        }
+        req.setThreadConcurrency(jobInfo.getConcurrency());
+        return req;
+    }
+
+    private static JobInfoDO mockJobInfo() {
+        JobInfoDO jobInfo = new JobInfoDO();
+        jobInfo.setId(1L);
+        jobInfo.setAppId(1L);
+        jobInfo.setJobParams("job params");
+        jobInfo.setTimeExpressionType(TimeExpressionType.CRON.getV());
+        jobInfo.setTimeExpression("0 * * * * ? *");
+        jobInfo.setExecuteType(ExecuteType.MAP_REDUCE.getV());
+        jobInfo.setProcessorType(ProcessorType.BUILT_IN.getV());
+        jobInfo.setProcessorInfo("tech.powerjob.samples.MapReduceProcessor");
+        jobInfo.setMaxInstanceNum(1);
+        jobInfo.setConcurrency(5);
+        jobInfo.setInstanceTimeLimit(60000L);
+        jobInfo.setTaskRetryNum(2);
+        jobInfo.setMaxWorkerCount(3);
+        jobInfo.setAlarmConfig("{\"alertThreshold\":1}");
+        jobInfo.setLogConfig("{\"type\":1}");
+        jobInfo.setGmtModified(new Date());
+        return jobInfo;
+    }
+
+    private static InstanceInfoDO mockInstanceInfo(String instanceParams, String jobParams) {
+        InstanceInfoDO instanceInfo = new InstanceInfoDO();
+        instanceInfo.setInstanceId(10086L);
+        instanceInfo.setJobId(1L);
+        instanceInfo.setWfInstanceId(100L);
+        instanceInfo.setInstanceParams(instanceParams);
+        instanceInfo.setJobParams(jobParams);
+        return instanceInfo;
+    }
+}
@@ -0,0 +1,37 @@
+package tech.powerjob.server.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 令牌桶测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class TokenBucketTest {
+
+    @Test
+    public void testTokenBucket() {
+        TokenBucket tokenBucket = new TokenBucket(10, 0);
+        // 初始积攒 1 秒的令牌
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(tokenBucket.tryAcquire(0));
+        }
+        Assertions.assertFalse(tokenBucket.tryAcquire(0));
+        Assertions.assertFalse(tokenBucket.tryAcquire(50));
+        Assertions.assertTrue(tokenBucket.tryAcquire(100));
+        // 长时间空闲后最多积攒 1 秒的令牌
+        Assertions.assertEquals(10, tokenBucket.available(60000));
+        // 时间回拨时不补充令牌
+        Assertions.assertEquals(10, tokenBucket.available(1000));
+    }
+
+    @Test
+    public void testLowRate() {
+        TokenBucket tokenBucket = new TokenBucket(0.5, 0);
+        Assertions.assertTrue(tokenBucket.tryAcquire(0));
+        Assertions.assertFalse(tokenBucket.tryAcquire(1000));
+        Assertions.assertTrue(tokenBucket.tryAcquire(2000));
+    }
+}
@@ -0,0 +1,117 @@
+package tech.powerjob.server.core.instance;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * instance_info 与归档表合并分页测试
+ * 两张表由内存中按 (gmtModified, id) 倒序排列的列表代替
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class InstanceArchivePagingTest {
+
+    private static final Comparator<InstanceInfoDO> ORDER = Comparator.comparing(InstanceInfoDO::getGmtModified)
+            .thenComparing(InstanceInfoDO::getId)
+            .reversed();
+
+    @Test
+    public void testPageBoundaryAcrossTables() {
+        List<InstanceInfoDO> hot = Lists.newArrayList();
+        List<InstanceInfoDO> archived = Lists.newArrayList();
+        // 修改时间两两相同，需要按主键区分先后；两张表的数据交错分布，页边界落在不同的表之间
+        for (int i = 0; i < 23; i++) {
+            InstanceInfoDO instanceInfo = instance(100L - i, 10000L - (i / 2) * 10);
+            if (i < 5 || i % 3 == 0) {
+                hot.add(instanceInfo);
+            } else {
+                archived.add(instanceInfo);
+            }
+        }
+        for (int pageSize = 1; pageSize <= 8; pageSize++) {
+            assertAllPages(hot, archived, pageSize);
+        }
+    }
+
+    @Test
+    public void testEmptyTables() {
+        List<InstanceInfoDO> some = Lists.newArrayList();
+        for (int i = 0; i < 7; i++) {
+            some.add(instance(100L - i, 10000L - i));
+        }
+        assertAllPages(Collections.emptyList(), Collections.emptyList(), 3);
+        assertAllPages(some, Collections.emptyList(), 3);
+        assertAllPages(Collections.emptyList(), some, 3);
+
+        // 超出范围的页码
+        Assertions.assertTrue(InstanceArchiveService.fetchByOffset(offsetFinder(some), offsetFinder(Collections.emptyList()), some.size(), 0, 9, 3).isEmpty());
+        Assertions.assertTrue(InstanceArchiveService.fetchAfterCursor(cursorFinder(some), cursorFinder(Collections.emptyList()), some.get(some.size() - 1), 3).isEmpty());
+    }
+
+    /**
+     * 按页码与按游标逐页查询，结果都应与合并后整体排序的结果一致
+     */
+    private static void assertAllPages(List<InstanceInfoDO> hot, List<InstanceInfoDO> archived, int pageSize) {
+        hot.sort(ORDER);
+        archived.sort(ORDER);
+        List<InstanceInfoDO> expected = Lists.newArrayList(hot);
+        expected.addAll(archived);
+        expected.sort(ORDER);
+        List<Long> expectedIds = ids(expected);
+
+        List<InstanceInfoDO> byOffset = Lists.newArrayList();
+        for (long offset = 0; offset < expected.size(); offset += pageSize) {
+            List<InstanceInfoDO> page = InstanceArchiveService.fetchByOffset(offsetFinder(hot), offsetFinder(archived), hot.size(), archived.size(), offset, pageSize);
+            Assertions.assertEquals(Math.min(pageSize, expected.size() - offset), page.size());
+            byOffset.addAll(page);
+        }
+        Assertions.assertEquals(expectedIds, ids(byOffset));
+
+        // 第一页按页码查询，之后基于上一页最后一条数据翻页
+        List<InstanceInfoDO> byCursor = Lists.newArrayList();
+        List<InstanceInfoDO> page = InstanceArchiveService.fetchByOffset(offsetFinder(hot), offsetFinder(archived), hot.size(), archived.size(), 0, pageSize);
+        while (!page.isEmpty()) {
+            byCursor.addAll(page);
+            page = InstanceArchiveService.fetchAfterCursor(cursorFinder(hot), cursorFinder(archived), page.get(page.size() - 1), pageSize);
+        }
+        Assertions.assertEquals(expectedIds, ids(byCursor));
+    }
+
+    private static Function<Pageable, List<InstanceInfoDO>> offsetFinder(List<InstanceInfoDO> table) {
+        return pageable -> {
+            int from = (int) Math.min(pageable.getOffset(), table.size());
+            return table.subList(from, Math.min(from + pageable.getPageSize(), table.size()));
+        };
+    }
+
+    private static BiFunction<InstanceInfoDO, Integer, List<InstanceInfoDO>> cursorFinder(List<InstanceInfoDO> table) {
+        return (cursor, limit) -> table.stream()
+                .filter(instance -> ORDER.compare(instance, cursor) > 0)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static InstanceInfoDO instance(Long id, long gmtModified) {
+        InstanceInfoDO instanceInfo = new InstanceInfoDO();
+        instanceInfo.setId(id);
+        instanceInfo.setInstanceId(id * 1000);
+        instanceInfo.setGmtModified(new Date(gmtModified));
+        return instanceInfo;
+    }
+
+    private static List<Long> ids(List<InstanceInfoDO> instances) {
+        return instances.stream().map(InstanceInfoDO::getId).collect(Collectors.toList());
+    }
+}
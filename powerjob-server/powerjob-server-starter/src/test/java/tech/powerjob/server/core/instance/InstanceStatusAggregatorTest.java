@@ -0,0 +1,158 @@
+package tech.powerjob.server.core.instance;
+
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.powerjob.common.enums.InstanceStatus;
+import tech.powerjob.common.request.TaskTrackerReportInstanceStatusReq;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 运行中实例状态上报合并测试
+ * 数据库由内存中的实例表代替，只实现合并写入用到的两个方法
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class InstanceStatusAggregatorTest {
+
+    private static final String TASK_TRACKER = "127.0.0.1:27777";
+
+    private final Map<Long, InstanceInfoDO> instanceId2Info = Maps.newConcurrentMap();
+
+    private InstanceStatusAggregator aggregator;
+
+    @BeforeEach
+    public void init() {
+        instanceId2Info.clear();
+        // 不开启后台刷新，由测试手动调用 flush
+        aggregator = new InstanceStatusAggregator(false, 5000, mockRepository());
+    }
+
+    @Test
+    public void testAbsorbAndFlush() {
+        InstanceInfoDO instanceInfo = running(1L, 100);
+        aggregator.track(1L, TASK_TRACKER, 100);
+
+        Assertions.assertTrue(aggregator.absorb(report(1L, InstanceStatus.RUNNING, 200)));
+        // 合并后尚未写库
+        Assertions.assertEquals(100L, instanceInfo.getLastReportTime());
+
+        aggregator.flush();
+        Assertions.assertEquals(200L, instanceInfo.getLastReportTime());
+        Assertions.assertNotNull(instanceInfo.getGmtModified());
+    }
+
+    @Test
+    public void testTerminalReportUntrack() {
+        running(1L, 100);
+        aggregator.track(1L, TASK_TRACKER, 100);
+
+        // 终态上报不合并，与 InstanceManager#updateStatus 一致，同步处理前移除
+        TaskTrackerReportInstanceStatusReq terminal = report(1L, InstanceStatus.SUCCEED, 200);
+        Assertions.assertFalse(aggregator.absorb(terminal));
+        aggregator.untrack(1L);
+
+        // 之后的 RUNNING 上报也不再合并
+        Assertions.assertFalse(aggregator.absorb(report(1L, InstanceStatus.RUNNING, 300)));
+    }
+
+    @Test
+    public void testStaleReportDropped() {
+        InstanceInfoDO instanceInfo = running(1L, 100);
+        aggregator.track(1L, TASK_TRACKER, 100);
+
+        Assertions.assertTrue(aggregator.absorb(report(1L, InstanceStatus.RUNNING, 300)));
+        // 乱序到达的旧上报直接丢弃，不会覆盖较新的上报时间
+        Assertions.assertTrue(aggregator.absorb(report(1L, InstanceStatus.RUNNING, 200)));
+        aggregator.flush();
+        Assertions.assertEquals(300L, instanceInfo.getLastReportTime());
+
+        // 来自其他 TaskTracker 的上报不合并
+        TaskTrackerReportInstanceStatusReq other = report(1L, InstanceStatus.RUNNING, 400);
+        other.setSourceAddress("127.0.0.1:27778");
+        Assertions.assertFalse(aggregator.absorb(other));
+    }
+
+    @Test
+    public void testOnlyUntrackInstancesNoLongerRunning() {
+        InstanceInfoDO first = running(1L, 100);
+        InstanceInfoDO second = running(2L, 100);
+        aggregator.track(1L, TASK_TRACKER, 100);
+        aggregator.track(2L, TASK_TRACKER, 100);
+
+        Assertions.assertTrue(aggregator.absorb(report(1L, InstanceStatus.RUNNING, 200)));
+        Assertions.assertTrue(aggregator.absorb(report(2L, InstanceStatus.RUNNING, 200)));
+        // 实例 2 已经被其他 server 修改为失败
+        second.setStatus(InstanceStatus.FAILED.getV());
+        aggregator.flush();
+
+        Assertions.assertEquals(200L, first.getLastReportTime());
+        Assertions.assertEquals(100L, second.getLastReportTime());
+        Assertions.assertTrue(aggregator.absorb(report(1L, InstanceStatus.RUNNING, 300)));
+        Assertions.assertFalse(aggregator.absorb(report(2L, InstanceStatus.RUNNING, 300)));
+    }
+
+    private InstanceInfoDO running(Long instanceId, long lastReportTime) {
+        InstanceInfoDO instanceInfo = new InstanceInfoDO();
+        instanceInfo.setInstanceId(instanceId);
+        instanceInfo.setStatus(InstanceStatus.RUNNING.getV());
+        instanceInfo.setTaskTrackerAddress(TASK_TRACKER);
+        instanceInfo.setLastReportTime(lastReportTime);
+        instanceId2Info.put(instanceId, instanceInfo);
+        return instanceInfo;
+    }
+
+    private static TaskTrackerReportInstanceStatusReq report(Long instanceId, InstanceStatus status, long reportTime) {
+        TaskTrackerReportInstanceStatusReq req = new TaskTrackerReportInstanceStatusReq();
+        req.setInstanceId(instanceId);
+        req.setInstanceStatus(status.getV());
+        req.setReportTime(reportTime);
+        req.setSourceAddress(TASK_TRACKER);
+        return req;
+    }
+
+    @SuppressWarnings("unchecked")
+    private InstanceInfoRepository mockRepository() {
+        return (InstanceInfoRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{InstanceInfoRepository.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "updateLastReportTimeByInstanceIdAndStatus": {
+                    Map<Long, Long> instanceId2ReportTime = (Map<Long, Long>) args[0];
+                    int status = (int) args[1];
+                    int updated = 0;
+                    for (Map.Entry<Long, Long> entry : instanceId2ReportTime.entrySet()) {
+                        InstanceInfoDO instanceInfo = instanceId2Info.get(entry.getKey());
+                        if (instanceInfo != null && instanceInfo.getStatus() == status) {
+                            instanceInfo.setLastReportTime(entry.getValue());
+                            instanceInfo.setGmtModified((Date) args[2]);
+                            updated++;
+                        }
+                    }
+                    return updated;
+                }
+                case "findInstanceIdByInstanceIdInAndStatus": {
+                    int status = (int) args[1];
+                    return ((List<Long>) args[0]).stream()
+                            .filter(instanceId -> instanceId2Info.containsKey(instanceId) && instanceId2Info.get(instanceId).getStatus() == status)
+                            .collect(Collectors.toList());
+                }
+                case "toString":
+                    return "InstanceInfoRepository(memory)";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
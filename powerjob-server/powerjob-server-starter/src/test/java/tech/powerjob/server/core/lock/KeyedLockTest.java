@@ -0,0 +1,107 @@
+package tech.powerjob.server.core.lock;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.powerjob.common.enums.TimeExpressionType;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 本地锁与 key 提取器测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class KeyedLockTest {
+
+    @Test
+    public void testKeyedLock() {
+        KeyedLock keyedLock = new KeyedLock(16);
+
+        ReentrantLock lock = keyedLock.acquire(10086L);
+        Assertions.assertSame(lock, keyedLock.acquire(10086L));
+        // 不同的 key 不会共用同一把锁
+        Set<ReentrantLock> locks = new HashSet<>();
+        for (long id = 1; id <= 1024; id++) {
+            locks.add(keyedLock.acquire(id));
+        }
+        Assertions.assertEquals(1024, locks.size());
+        Assertions.assertFalse(locks.contains(lock));
+
+        for (long id = 1; id <= 1024; id++) {
+            keyedLock.release(id);
+        }
+        keyedLock.release(10086L);
+        Assertions.assertEquals(1, keyedLock.size());
+        keyedLock.release(10086L);
+        Assertions.assertEquals(0, keyedLock.size());
+    }
+
+    /**
+     * 两个线程以相反的顺序嵌套获取同类型不同 key 的锁，只要 key 不同就不会相互等待
+     */
+    @Test
+    public void testNestedLockWithoutDeadlock() throws Exception {
+        KeyedLock keyedLock = new KeyedLock(16);
+        int round = 10000;
+        CountDownLatch latch = new CountDownLatch(2);
+        Thread t1 = new Thread(() -> nestedLock(keyedLock, 1L, 2L, round, latch));
+        Thread t2 = new Thread(() -> nestedLock(keyedLock, 3L, 4L, round, latch));
+        t1.start();
+        t2.start();
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, keyedLock.size());
+    }
+
+    private static void nestedLock(KeyedLock keyedLock, long outer, long inner, int round, CountDownLatch latch) {
+        for (int i = 0; i < round; i++) {
+            long a = i % 2 == 0 ? outer : inner;
+            long b = i % 2 == 0 ? inner : outer;
+            ReentrantLock lockA = keyedLock.acquire(a);
+            lockA.lock();
+            try {
+                ReentrantLock lockB = keyedLock.acquire(b);
+                lockB.lock();
+                lockB.unlock();
+                keyedLock.release(b);
+            } finally {
+                lockA.unlock();
+                keyedLock.release(a);
+            }
+        }
+        latch.countDown();
+    }
+
+    @Test
+    public void testLockKeyExtractor() throws Exception {
+        Method method = KeyedLockTest.class.getDeclaredMethod("mockDispatch", JobInfoDO.class, Long.class);
+
+        LockKeyExtractor simple = LockKeyExtractor.compile(method, "#instanceId");
+        Assertions.assertEquals(2L, simple.extract(new Object[]{null, 2L}));
+
+        LockKeyExtractor expression = LockKeyExtractor.compile(method, "#jobInfo.getMaxInstanceNum() > 0 || T(tech.powerjob.common.enums.TimeExpressionType).FREQUENT_TYPES.contains(#jobInfo.getTimeExpressionType()) ? #jobInfo.getId() : #instanceId");
+        JobInfoDO jobInfo = new JobInfoDO();
+        jobInfo.setId(1L);
+        jobInfo.setMaxInstanceNum(0);
+        jobInfo.setTimeExpressionType(TimeExpressionType.CRON.getV());
+        // 多次执行，覆盖 SpEL 编译后的路径
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(2L, expression.extract(new Object[]{jobInfo, 2L}));
+        }
+        jobInfo.setMaxInstanceNum(1);
+        Assertions.assertEquals(1L, expression.extract(new Object[]{jobInfo, 2L}));
+
+        // 无法解析时使用默认 key
+        Assertions.assertEquals(1L, LockKeyExtractor.compile(method, "#instanceId").extract(new Object[]{jobInfo, null}));
+    }
+
+    @SuppressWarnings("unused")
+    private void mockDispatch(JobInfoDO jobInfo, Long instanceId) {
+    }
+}
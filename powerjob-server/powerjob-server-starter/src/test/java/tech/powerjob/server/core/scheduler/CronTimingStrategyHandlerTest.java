@@ -1,5 +1,10 @@
 package tech.powerjob.server.core.scheduler;
 
+import com.cronutils.model.CronType;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.model.time.ExecutionTime;
+import com.cronutils.parser.CronParser;
+import com.google.common.base.Stopwatch;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.time.DateFormatUtils;
@@ -9,7 +14,10 @@ import org.junit.jupiter.api.Test;
 import tech.powerjob.common.OmsConstant;
 import tech.powerjob.server.core.scheduler.auxiliary.impl.CronTimingStrategyHandler;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.List;
@@ -68,6 +76,36 @@ public class CronTimingStrategyHandlerTest {
         }
     }
 
+    /**
+     * 对比每次解析表达式与使用编译缓存的耗时，并校验两者的计算结果一致
+     */
+    @Test
+    public void testPerformance() {
+        CronParser cronParser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(CronType.QUARTZ));
+        int round = 2000;
+        long referenceTime = System.currentTimeMillis();
+        Long[] expected = new Long[CRON_LIST.size()];
+
+        Stopwatch sw = Stopwatch.createStarted();
+        for (int i = 0; i < round; i++) {
+            for (int j = 0; j < CRON_LIST.size(); j++) {
+                expected[j] = ExecutionTime.forCron(cronParser.parse(CRON_LIST.get(j)))
+                        .nextExecution(ZonedDateTime.ofInstant(Instant.ofEpochMilli(referenceTime), ZoneId.systemDefault()))
+                        .map(dateTime -> dateTime.toEpochSecond() * 1000)
+                        .orElse(null);
+            }
+        }
+        log.info("[CronPerformance] parse every time, {} calculations cost: {}", round * CRON_LIST.size(), sw.stop());
+
+        sw = Stopwatch.createStarted();
+        for (int i = 0; i < round; i++) {
+            for (int j = 0; j < CRON_LIST.size(); j++) {
+                Assertions.assertEquals(expected[j], cronTimingStrategyHandler.calculateNextTriggerTime(referenceTime, CRON_LIST.get(j), null, null));
+            }
+        }
+        log.info("[CronPerformance] with compiled cache, {} calculations cost: {}", round * CRON_LIST.size(), sw.stop());
+    }
+
     @Test
     public void test01() {
         // cron 的有效区间小于 lifecycle
@@ -1,16 +1,19 @@
 package tech.powerjob.server.core.scheduler;
 
+import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import tech.powerjob.common.enums.TimeExpressionType;
 import tech.powerjob.common.exception.PowerJobException;
 import tech.powerjob.server.core.scheduler.auxiliary.TimingStrategyHandler;
 import tech.powerjob.server.core.scheduler.auxiliary.impl.*;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Echo009
@@ -87,4 +90,56 @@ public class TimingStrategyServiceTest {
         List<String> triggerTimes = timingStrategyService.calculateNextTriggerTimes(TimeExpressionType.CRON, "0 0 7 8-14,22-28 * 2", start.toEpochSecond(ZoneOffset.of("+8")) * 1000, end.toEpochSecond(ZoneOffset.of("+8")) * 1000);
         Assertions.assertNotNull(triggerTimes);
     }
+
+    @Test
+    public void testBatchCron() {
+        long now = System.currentTimeMillis();
+        List<JobInfoDO> jobInfos = new ArrayList<>();
+        String[] expressions = {"0 * * * * ?", "0 0/5 * * * ?", "0 15 11 ? * MON-FRI"};
+        for (long i = 0; i < 30; i++) {
+            JobInfoDO jobInfo = new JobInfoDO();
+            jobInfo.setId(i);
+            jobInfo.setTimeExpression(expressions[(int) (i % expressions.length)]);
+            jobInfo.setNextTriggerTime(now + 10000);
+            jobInfos.add(jobInfo);
+        }
+        JobInfoDO invalidJob = new JobInfoDO();
+        invalidJob.setId(-1L);
+        invalidJob.setTimeExpression("invalid");
+        jobInfos.add(invalidJob);
+
+        Map<Long, Long> jobId2NextTriggerTime = timingStrategyService.calculateNextTriggerTimes(TimeExpressionType.CRON, jobInfos);
+        Assertions.assertEquals(30, jobId2NextTriggerTime.size());
+        Assertions.assertFalse(jobId2NextTriggerTime.containsKey(-1L));
+        for (JobInfoDO jobInfo : jobInfos.subList(0, 30)) {
+            Long expected = timingStrategyService.calculateNextTriggerTime(jobInfo.getNextTriggerTime(), TimeExpressionType.CRON, jobInfo.getTimeExpression(), null, null);
+            Assertions.assertEquals(expected, jobId2NextTriggerTime.get(jobInfo.getId()));
+        }
+    }
+
+    @Test
+    public void testTriggerWindow() {
+        long now = System.currentTimeMillis();
+        JobInfoDO jobInfo = new JobInfoDO();
+        jobInfo.setId(1L);
+        jobInfo.setTimeExpression("0/5 * * * * ?");
+        jobInfo.setNextTriggerTime(now + 10000);
+
+        TriggerWindow triggerWindow = timingStrategyService.calculateTriggerWindows(TimeExpressionType.CRON, Lists.newArrayList(jobInfo), 60000).get(1L);
+        // 每 5 秒一次，60 秒的窗口内共 12 次触发
+        Assertions.assertEquals(12, triggerWindow.getLookaheadTimes().size());
+        Long preTriggerTime = jobInfo.getNextTriggerTime();
+        for (Long triggerTime : triggerWindow.getLookaheadTimes()) {
+            Assertions.assertEquals(timingStrategyService.calculateNextTriggerTime(preTriggerTime, TimeExpressionType.CRON, jobInfo.getTimeExpression(), null, null), triggerTime);
+            preTriggerTime = triggerTime;
+        }
+        Assertions.assertEquals(timingStrategyService.calculateNextTriggerTime(preTriggerTime, TimeExpressionType.CRON, jobInfo.getTimeExpression(), null, null), triggerWindow.getWindowEnd());
+
+        // 生命周期在窗口内结束时，最后一次触发时间作为窗口结束时间
+        jobInfo.setLifecycle("{\"end\":" + (now + 30000) + "}");
+        triggerWindow = timingStrategyService.calculateTriggerWindows(TimeExpressionType.CRON, Lists.newArrayList(jobInfo), 60000).get(1L);
+        Assertions.assertNotNull(triggerWindow.getWindowEnd());
+        Assertions.assertTrue(triggerWindow.getWindowEnd() <= now + 30000);
+        triggerWindow.getLookaheadTimes().forEach(triggerTime -> Assertions.assertTrue(triggerTime < now + 30000));
+    }
 }
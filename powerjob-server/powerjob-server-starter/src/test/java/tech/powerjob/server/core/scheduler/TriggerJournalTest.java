@@ -0,0 +1,115 @@
+package tech.powerjob.server.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+import tech.powerjob.server.common.utils.OmsFileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 待触发实例日志测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+class TriggerJournalTest {
+
+    @Test
+    void testRecoverAndCompact() throws Exception {
+        File file = new File(OmsFileUtils.genTemporaryWorkPath(), "trigger.journal");
+        try {
+            // 最多 16 条记录，写满后触发压缩
+            TriggerJournal journal = new TriggerJournal(file, 16);
+            for (long i = 1; i <= 20; i++) {
+                journal.append(i, 1000 + i);
+                if (i % 2 == 0) {
+                    journal.markTriggered(i - 1);
+                }
+            }
+            journal.markTriggered(20);
+            journal.close();
+
+            // 模拟重启
+            TriggerJournal recovered = new TriggerJournal(file, 16);
+            Map<Long, Long> pending = recovered.fetchPending();
+            assertEquals(9, pending.size());
+            for (long i = 2; i < 20; i += 2) {
+                assertEquals(1000 + i, pending.get(i));
+            }
+            recovered.close();
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".lock").delete();
+            file.getParentFile().delete();
+        }
+    }
+
+    @Test
+    void testExclusiveOpen() throws Exception {
+        File file = new File(OmsFileUtils.genTemporaryWorkPath(), "trigger.journal");
+        try {
+            TriggerJournal journal = new TriggerJournal(file, 16);
+            journal.append(1, 1001);
+            // 同一份日志不允许被重复打开
+            assertThrows(IOException.class, () -> new TriggerJournal(file, 16));
+            journal.close();
+
+            TriggerJournal reopened = new TriggerJournal(file, 16);
+            assertEquals(1001L, reopened.fetchPending().get(1L));
+            reopened.close();
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".lock").delete();
+            file.getParentFile().delete();
+        }
+    }
+
+    @Test
+    void testConcurrentAppend() throws Exception {
+        File file = new File(OmsFileUtils.genTemporaryWorkPath(), "trigger.journal");
+        try {
+            // 容量小于写入量，并发写入期间多次压缩
+            TriggerJournal journal = new TriggerJournal(file, 1024);
+            int threadNum = 8;
+            int perThread = 2000;
+            ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadNum; t++) {
+                long base = (long) t * perThread;
+                futures.add(pool.submit(() -> {
+                    for (long i = base + 1; i <= base + perThread; i++) {
+                        journal.append(i, 1000 + i);
+                        // 每个线程只保留最后 10 个未触发的实例
+                        if (i <= base + perThread - 10) {
+                            journal.markTriggered(i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+            assertEquals(threadNum * 10, journal.fetchPending().size());
+            journal.close();
+
+            TriggerJournal recovered = new TriggerJournal(file, 1024);
+            Map<Long, Long> pending = recovered.fetchPending();
+            assertEquals(threadNum * 10, pending.size());
+            pending.forEach((instanceId, expectTriggerTime) -> assertEquals(1000 + instanceId, expectTriggerTime));
+            recovered.close();
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".lock").delete();
+            file.getParentFile().delete();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package tech.powerjob.server.monitor;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 监控事件环形队列 Test
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+class EventRingBufferTest {
+
+    @Test
+    void testOfferAndDrain() {
+        EventRingBuffer<Integer> ringBuffer = new EventRingBuffer<>(3);
+        assertEquals(4, ringBuffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.offer(i));
+        }
+        // 队列已满时丢弃
+        assertFalse(ringBuffer.offer(4));
+        assertEquals(4, ringBuffer.size());
+
+        List<Integer> drained = Lists.newArrayList();
+        assertEquals(3, ringBuffer.drain(drained::add, 3));
+        assertEquals(Lists.newArrayList(0, 1, 2), drained);
+
+        // 释放的槽位可以继续写入，且保持先进先出
+        assertTrue(ringBuffer.offer(5));
+        assertEquals(2, ringBuffer.drain(drained::add, 10));
+        assertEquals(Lists.newArrayList(0, 1, 2, 3, 5), drained);
+        assertEquals(0, ringBuffer.drain(drained::add, 10));
+    }
+
+    @Test
+    void testConcurrentProducers() throws Exception {
+        int producerNum = 4;
+        int eventPerProducer = 100000;
+        EventRingBuffer<Integer> ringBuffer = new EventRingBuffer<>(1024);
+        CountDownLatch latch = new CountDownLatch(producerNum);
+        for (int i = 0; i < producerNum; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < eventPerProducer; j++) {
+                    while (!ringBuffer.offer(j)) {
+                        Thread.yield();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicLong sum = new AtomicLong();
+        while (latch.getCount() > 0 || ringBuffer.size() > 0) {
+            ringBuffer.drain(v -> {
+                sum.addAndGet(v);
+                consumed.incrementAndGet();
+            }, 256);
+        }
+
+        // 不丢失、不重复
+        assertEquals(producerNum * eventPerProducer, consumed.get());
+        assertEquals((long) producerNum * eventPerProducer * (eventPerProducer - 1) / 2, sum.get());
+    }
+}
@@ -0,0 +1,70 @@
+package tech.powerjob.server.remote.worker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.powerjob.common.model.SystemMetrics;
+import tech.powerjob.common.request.WorkerHeartbeat;
+import tech.powerjob.server.common.module.WorkerInfo;
+
+import java.util.Map;
+
+/**
+ * 集群快照测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class ClusterStatusHolderTest {
+
+    @Test
+    public void testCopyOnHeartbeat() {
+        ClusterStatusHolder holder = new ClusterStatusHolder("test", 0);
+        long now = System.currentTimeMillis();
+        holder.updateStatus(mockHeartbeat("127.0.0.1:27777", now, 10));
+
+        Map<String, WorkerInfo> snapshot = holder.getAllWorkers();
+        WorkerInfo workerInfo = snapshot.get("127.0.0.1:27777");
+        Assertions.assertEquals(10, workerInfo.getLightTaskTrackerNum());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.remove("127.0.0.1:27777"));
+
+        holder.updateStatus(mockHeartbeat("127.0.0.1:27777", now + 1, 20));
+        holder.updateStatus(mockHeartbeat("127.0.0.1:27778", now + 1, 30));
+        // 已发布的快照以及其中的对象不受新心跳影响
+        Assertions.assertEquals(1, snapshot.size());
+        Assertions.assertEquals(10, workerInfo.getLightTaskTrackerNum());
+
+        Map<String, WorkerInfo> newSnapshot = holder.getAllWorkers();
+        Assertions.assertEquals(2, newSnapshot.size());
+        Assertions.assertEquals(20, newSnapshot.get("127.0.0.1:27777").getLightTaskTrackerNum());
+        Assertions.assertEquals(2, holder.getCandidates().size());
+
+        // 过期的心跳被忽略
+        holder.updateStatus(mockHeartbeat("127.0.0.1:27777", now - 1, 40));
+        Assertions.assertEquals(20, holder.getAllWorkers().get("127.0.0.1:27777").getLightTaskTrackerNum());
+    }
+
+    @Test
+    public void testCoalesceHeartbeats() {
+        ClusterStatusHolder holder = new ClusterStatusHolder("test", 60000);
+        long now = System.currentTimeMillis();
+        holder.updateStatus(mockHeartbeat("127.0.0.1:27777", now, 10));
+        Map<String, WorkerInfo> snapshot = holder.getAllWorkers();
+
+        // 重建间隔内的心跳合并到下一次重建，读取到的仍是同一个快照
+        for (int i = 0; i < 100; i++) {
+            holder.updateStatus(mockHeartbeat("127.0.0.1:" + (28000 + i), now, i));
+        }
+        Assertions.assertSame(snapshot, holder.getAllWorkers());
+    }
+
+    private static WorkerHeartbeat mockHeartbeat(String address, long heartbeatTime, int lightTaskTrackerNum) {
+        WorkerHeartbeat heartbeat = new WorkerHeartbeat();
+        heartbeat.setWorkerAddress(address);
+        heartbeat.setAppName("test");
+        heartbeat.setAppId(1L);
+        heartbeat.setHeartbeatTime(heartbeatTime);
+        heartbeat.setSystemMetrics(new SystemMetrics());
+        heartbeat.setLightTaskTrackerNum(lightTaskTrackerNum);
+        return heartbeat;
+    }
+}
@@ -0,0 +1,94 @@
+package tech.powerjob.server.remote.worker;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.powerjob.common.model.SystemMetrics;
+import tech.powerjob.server.common.module.WorkerInfo;
+
+import java.util.List;
+
+/**
+ * 候选 worker 快照测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class WorkerCandidatesTest {
+
+    @Test
+    public void testConsistentHash() {
+        WorkerCandidates candidates = WorkerCandidates.build(mockWorkers(10));
+        WorkerCandidates reduced = WorkerCandidates.build(mockWorkers(9));
+
+        int moved = 0;
+        int keyNum = 10000;
+        for (long jobId = 0; jobId < keyNum; jobId++) {
+            String address = candidates.get(candidates.selectByConsistentHash(jobId, 0)).getAddress();
+            // 同一个 key 总是选中同一台机器
+            Assertions.assertEquals(address, candidates.get(candidates.selectByConsistentHash(jobId, 0)).getAddress());
+            if (!address.equals(reduced.get(reduced.selectByConsistentHash(jobId, 0)).getAddress())) {
+                moved++;
+            }
+        }
+        // 下线一台机器，只有原本属于该机器的 key（约 1/10）需要迁移
+        Assertions.assertTrue(moved < keyNum / 5, "moved: " + moved);
+    }
+
+    @Test
+    public void testWeightedRoundRobin() {
+        List<WorkerInfo> workers = mockWorkers(2);
+        workers.get(0).getSystemMetrics().setScore(100);
+        workers.get(1).getSystemMetrics().setScore(10);
+        WorkerCandidates candidates = WorkerCandidates.build(workers);
+
+        int[] counts = new int[2];
+        for (int i = 0; i < 1100; i++) {
+            counts[candidates.selectByWeightedRoundRobin()]++;
+        }
+        Assertions.assertEquals(1000, counts[0]);
+        Assertions.assertEquals(100, counts[1]);
+    }
+
+    @Test
+    public void testLeastOutstanding() {
+        List<WorkerInfo> workers = mockWorkers(2);
+        workers.get(0).setHeavyTaskTrackerNum(100);
+        WorkerCandidates candidates = WorkerCandidates.build(workers);
+
+        int[] counts = new int[2];
+        for (int i = 0; i < 100; i++) {
+            int index = candidates.selectByLeastOutstanding();
+            candidates.recordDispatched(index);
+            counts[index]++;
+        }
+        // 只有两次随机都选中繁忙的机器时才会派发给它
+        Assertions.assertTrue(counts[1] > counts[0]);
+    }
+
+    @Test
+    public void testTimeoutWorkerExcluded() {
+        List<WorkerInfo> workers = mockWorkers(3);
+        workers.get(1).setLastActiveTime(0);
+        WorkerCandidates candidates = WorkerCandidates.build(workers);
+        Assertions.assertEquals(2, candidates.size());
+        Assertions.assertEquals(0, WorkerCandidates.EMPTY.size());
+    }
+
+    /**
+     * 生成指定数量的在线 worker（同包测试共用）
+     */
+    static List<WorkerInfo> mockWorkers(int num) {
+        List<WorkerInfo> workers = Lists.newArrayList();
+        for (int i = 0; i < num; i++) {
+            WorkerInfo workerInfo = new WorkerInfo();
+            workerInfo.setAddress("192.168.1." + i + ":27777");
+            workerInfo.setLastActiveTime(System.currentTimeMillis());
+            SystemMetrics systemMetrics = new SystemMetrics();
+            systemMetrics.setScore(10);
+            workerInfo.setSystemMetrics(systemMetrics);
+            workers.add(workerInfo);
+        }
+        return workers;
+    }
+}
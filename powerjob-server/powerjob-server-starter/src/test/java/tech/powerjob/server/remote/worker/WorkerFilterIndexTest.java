@@ -0,0 +1,57 @@
+package tech.powerjob.server.remote.worker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.powerjob.server.common.module.WorkerInfo;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.remote.worker.filter.DesignatedWorkerFilter;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 候选机器索引测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+public class WorkerFilterIndexTest {
+
+    @Test
+    public void testEligible() {
+        WorkerFilterIndex index = new WorkerFilterIndex(Collections.singletonList(new DesignatedWorkerFilter()));
+        List<WorkerInfo> workers = WorkerCandidatesTest.mockWorkers(4);
+        workers.get(3).setTag("gpu");
+        WorkerCandidates candidates = WorkerCandidates.build(workers);
+
+        JobInfoDO jobInfo = new JobInfoDO();
+        jobInfo.setId(1L);
+        jobInfo.setDesignatedWorkers("192.168.1.0:27777,gpu");
+
+        BitSet eligible = index.getEligible(candidates, jobInfo);
+        Assertions.assertEquals(2, eligible.cardinality());
+        Assertions.assertTrue(eligible.get(0));
+        Assertions.assertTrue(eligible.get(3));
+        // 任务配置与集群成员均未变化，直接使用缓存
+        Assertions.assertSame(eligible, index.getEligible(candidates, jobInfo));
+
+        // 心跳重建快照但成员不变，沿用缓存
+        WorkerCandidates rebuilt = WorkerCandidates.build(WorkerCandidatesTest.mockWorkers(4), candidates);
+        Assertions.assertNotSame(candidates.getMembership(), rebuilt.getMembership());
+        workers = WorkerCandidatesTest.mockWorkers(4);
+        workers.get(3).setTag("gpu");
+        rebuilt = WorkerCandidates.build(workers, candidates);
+        Assertions.assertSame(candidates.getMembership(), rebuilt.getMembership());
+        Assertions.assertSame(eligible, index.getEligible(rebuilt, jobInfo));
+
+        // 任务配置变化，重新计算
+        jobInfo.setDesignatedWorkers("");
+        Assertions.assertEquals(4, index.getEligible(rebuilt, jobInfo).cardinality());
+
+        // 集群成员变化，重新计算
+        jobInfo.setDesignatedWorkers("192.168.1.0:27777");
+        WorkerCandidates reduced = WorkerCandidates.build(WorkerCandidatesTest.mockWorkers(4).subList(1, 4), rebuilt);
+        Assertions.assertEquals(0, index.getEligible(reduced, jobInfo).cardinality());
+    }
+}
@@ -1,5 +1,6 @@
 package tech.powerjob.server.test;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import tech.powerjob.server.common.timewheel.HashedWheelTimer;
 import tech.powerjob.server.common.timewheel.TimerFuture;
@@ -10,6 +11,7 @@ import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -81,6 +83,99 @@ public class HashedWheelTimerTest {
         Thread.sleep(90);
     }
 
+    /**
+     * 多线程并发提交任务时的吞吐量（1 ~ 64 个生产者线程）
+     */
+    @Test
+    public void testConcurrentSchedule() throws Exception {
+        int taskNum = 128000;
+        for (int threadNum = 1; threadNum <= 64; threadNum *= 2) {
+            HashedWheelTimer timer = new HashedWheelTimer(1, 4096, 4);
+            int taskNumPerThread = taskNum / threadNum;
+            int scheduleNum = taskNumPerThread * threadNum;
+            AtomicLong scheduled = new AtomicLong();
+            CountDownLatch executed = new CountDownLatch(scheduleNum);
+            CountDownLatch startLatch = new CountDownLatch(1);
+            CountDownLatch finishLatch = new CountDownLatch(threadNum);
+            for (int i = 0; i < threadNum; i++) {
+                new Thread(() -> {
+                    try {
+                        startLatch.await();
+                        for (int j = 0; j < taskNumPerThread; j++) {
+                            if (timer.schedule(executed::countDown, ThreadLocalRandom.current().nextLong(10, 1000), TimeUnit.MILLISECONDS) != null) {
+                                scheduled.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException ignore) {
+                    } finally {
+                        finishLatch.countDown();
+                    }
+                }).start();
+            }
+            Stopwatch sw = Stopwatch.createStarted();
+            startLatch.countDown();
+            finishLatch.await();
+            log.info("[ConcurrentSchedule] producer threads: {}, schedule {} tasks cost: {}", threadNum, scheduleNum, sw);
+            // 所有任务均提交成功，并且全部到期执行
+            Assertions.assertEquals(scheduleNum, scheduled.get());
+            Assertions.assertTrue(executed.await(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(timer.stop().isEmpty());
+        }
+    }
+
+    /**
+     * 指针线程只在有任务到期时被唤醒，统计触发延迟分布
+     */
+    @Test
+    public void testLateness() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(1, 4096, 4);
+        int taskNum = 200;
+        CountDownLatch latch = new CountDownLatch(taskNum);
+        for (int i = 0; i < taskNum; i++) {
+            timer.schedule(latch::countDown, ThreadLocalRandom.current().nextLong(10, 1000), TimeUnit.MILLISECONDS);
+        }
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        log.info("[Lateness] {}", timer.getLateness());
+        Assertions.assertTrue(timer.getLateness().getCount() == taskNum);
+        timer.stop();
+    }
+
+    /**
+     * 持续提交远期任务时，已经到期的任务仍然按时触发
+     */
+    @Test
+    public void testDueTaskNotStarvedByScheduling() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(1, 4096, 4);
+        long expect = System.currentTimeMillis() + 50;
+        AtomicLong firedTime = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(() -> {
+            firedTime.set(System.currentTimeMillis());
+            latch.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+
+        // 多个调度线程持续提交远期任务，直到上面的任务触发
+        long deadline = System.currentTimeMillis() + 2000;
+        List<Thread> producers = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            Thread producer = new Thread(() -> {
+                while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+                    timer.schedule(() -> {}, 60000, TimeUnit.MILLISECONDS);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        long deviation = firedTime.get() - expect;
+        log.info("[DueTaskNotStarved] deviation: {}ms", deviation);
+        Assertions.assertTrue(deviation < 200, "deviation: " + deviation);
+        timer.stop();
+    }
+
     @Test
     public void testLongDelayTask() throws Exception {
         for (long i = 0; i < 10; i++) {
@@ -0,0 +1,154 @@
+package tech.powerjob.server.test;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.powerjob.server.common.timewheel.HashedWheelTimer;
+import tech.powerjob.server.common.timewheel.HierarchicalWheelTimer;
+import tech.powerjob.server.common.timewheel.Timer;
+import tech.powerjob.server.common.timewheel.TimerFuture;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分层时间轮测试
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+public class HierarchicalWheelTimerTest {
+
+    @Test
+    public void testScheduleAndCancel() throws Exception {
+
+        // 每层只有 8 格，500ms 内的任务会跨越多层时间轮
+        HierarchicalWheelTimer timer = new HierarchicalWheelTimer(1, 8, 4);
+
+        int taskNum = 1000;
+        AtomicLong executeNum = new AtomicLong();
+        AtomicLong earlyNum = new AtomicLong();
+        List<TimerFuture> futures = Lists.newArrayList();
+        for (int i = 0; i < taskNum; i++) {
+            long delay = ThreadLocalRandom.current().nextLong(1, 500);
+            long expect = System.currentTimeMillis() + delay;
+            futures.add(timer.schedule(() -> {
+                executeNum.incrementAndGet();
+                if (System.currentTimeMillis() < expect) {
+                    earlyNum.incrementAndGet();
+                }
+            }, delay, TimeUnit.MILLISECONDS));
+        }
+
+        long cancelNum = 0;
+        for (int i = 0; i < taskNum; i += 2) {
+            if (futures.get(i).cancel()) {
+                cancelNum++;
+            }
+        }
+
+        // 等待所有未取消的任务执行完毕
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executeNum.get() < taskNum - cancelNum && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(taskNum - cancelNum, executeNum.get());
+        Assertions.assertEquals(0, earlyNum.get());
+        Assertions.assertTrue(timer.stop().isEmpty());
+    }
+
+    /**
+     * 不启用线程池时任务在指针线程中执行，执行期间不影响其他线程添加任务
+     */
+    @Test
+    public void testScheduleNotBlockedByRunningTask() throws Exception {
+        HierarchicalWheelTimer timer = new HierarchicalWheelTimer(1, 8, 0);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        timer.schedule(() -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(running.await(1, TimeUnit.SECONDS));
+
+        Stopwatch sw = Stopwatch.createStarted();
+        for (int i = 0; i < 100; i++) {
+            timer.schedule(() -> {}, ThreadLocalRandom.current().nextLong(100, 10000), TimeUnit.MILLISECONDS);
+        }
+        long cost = sw.elapsed(TimeUnit.MILLISECONDS);
+        release.countDown();
+        Assertions.assertTrue(cost < 1000, "schedule cost: " + cost);
+        timer.stop();
+    }
+
+    @Test
+    public void testStop() {
+        HierarchicalWheelTimer timer = new HierarchicalWheelTimer(1, 64, 0);
+        for (int i = 0; i < 100; i++) {
+            String name = "task-" + i;
+            timer.schedule(() -> log.info("{} should not run", name), ThreadLocalRandom.current().nextLong(60000, 3600000), TimeUnit.MILLISECONDS);
+        }
+        Assertions.assertEquals(100, timer.stop().size());
+    }
+
+    /**
+     * 与 HashedWheelTimer 对比插入、取消吞吐量以及触发误差，同时校验取消与触发的正确性
+     */
+    @Test
+    public void testPerformance() throws Exception {
+        compare("HashedWheelTimer", new HashedWheelTimer(1, 4096, 4));
+        compare("HierarchicalWheelTimer", new HierarchicalWheelTimer(1, 512, 4));
+    }
+
+    private static void compare(String name, Timer timer) throws Exception {
+
+        int taskNum = 200000;
+        List<TimerFuture> futures = Lists.newArrayListWithCapacity(taskNum);
+        AtomicLong cancelledExecuteNum = new AtomicLong();
+        Stopwatch sw = Stopwatch.createStarted();
+        for (int i = 0; i < taskNum; i++) {
+            futures.add(timer.schedule(cancelledExecuteNum::incrementAndGet, ThreadLocalRandom.current().nextLong(60000, 3600000), TimeUnit.MILLISECONDS));
+        }
+        long scheduleCost = sw.elapsed(TimeUnit.MILLISECONDS);
+
+        sw.reset().start();
+        long cancelNum = futures.stream().filter(TimerFuture::cancel).count();
+        long cancelCost = sw.elapsed(TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(taskNum, cancelNum);
+
+        int jitterTaskNum = 500;
+        CountDownLatch latch = new CountDownLatch(jitterTaskNum);
+        AtomicLong totalDeviation = new AtomicLong();
+        AtomicLong maxDeviation = new AtomicLong();
+        AtomicLong minDeviation = new AtomicLong(Long.MAX_VALUE);
+        for (int i = 0; i < jitterTaskNum; i++) {
+            long delay = ThreadLocalRandom.current().nextLong(10, 1000);
+            long expect = System.currentTimeMillis() + delay;
+            timer.schedule(() -> {
+                long deviation = System.currentTimeMillis() - expect;
+                totalDeviation.addAndGet(deviation);
+                maxDeviation.accumulateAndGet(deviation, Math::max);
+                minDeviation.accumulateAndGet(deviation, Math::min);
+                latch.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        log.info("[{}] schedule {} tasks cost {}ms, cancel cost {}ms, avg deviation: {}ms, max deviation: {}ms",
+                name, taskNum, scheduleCost, cancelCost, totalDeviation.get() / jitterTaskNum, maxDeviation.get());
+        // 任务不会提前触发，已取消的任务不会执行，也不会残留在时间轮中
+        Assertions.assertTrue(minDeviation.get() >= 0);
+        Assertions.assertTrue(timer.stop().isEmpty());
+        Assertions.assertEquals(0, cancelledExecuteNum.get());
+    }
+}
@@ -0,0 +1,124 @@
+package tech.powerjob.server.test;
+
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+import tech.powerjob.common.enums.InstanceStatus;
+import tech.powerjob.common.enums.TimeExpressionType;
+import tech.powerjob.server.common.constants.SwitchableStatus;
+import tech.powerjob.server.core.instance.InstanceService;
+import tech.powerjob.server.persistence.remote.model.InstanceInfoDO;
+import tech.powerjob.server.persistence.remote.model.JobInfoDO;
+import tech.powerjob.server.persistence.remote.repository.InstanceInfoRepository;
+import tech.powerjob.server.persistence.remote.repository.JobInfoRepository;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 调度写库性能测试：逐条创建实例 + 逐条刷新任务 vs 批量创建实例 + 批量刷新任务
+ * 分别统计 1k/10k/50k 个到期任务下的耗时以及 SQL 语句数量，校验两种方式的写入结果，结束后清理测试数据
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ScheduleBatchWriteTest {
+
+    private static final long APP_ID = 99999L;
+
+    @Resource
+    private InstanceService instanceService;
+    @Resource
+    private JobInfoRepository jobInfoRepository;
+    @Resource
+    private InstanceInfoRepository instanceInfoRepository;
+    @Resource
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testPerformance() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        // 清理之前遗留的实例
+        cleanUp(Collections.emptyList());
+
+        try {
+            for (int jobNum : new int[]{1000, 10000, 50000}) {
+                List<JobInfoDO> jobInfos = prepareJobs(jobNum);
+                try {
+                    long nextTriggerTime = System.currentTimeMillis() + 60000;
+
+                    statistics.clear();
+                    long start = System.currentTimeMillis();
+                    jobInfos.forEach(jobInfo -> instanceService.create(jobInfo.getId(), jobInfo.getAppId(), jobInfo.getJobParams(), null, null, jobInfo.getNextTriggerTime()));
+                    instanceInfoRepository.flush();
+                    jobInfos.forEach(jobInfo -> {
+                        JobInfoDO updatedJobInfo = new JobInfoDO();
+                        BeanUtils.copyProperties(jobInfo, updatedJobInfo);
+                        updatedJobInfo.setNextTriggerTime(nextTriggerTime);
+                        updatedJobInfo.setGmtModified(new Date());
+                        jobInfoRepository.save(updatedJobInfo);
+                    });
+                    long oneByOneStatements = statistics.getPrepareStatementCount();
+                    log.info("[ScheduleBatchWriteTest] [one by one] jobNum: {}, cost: {}ms, statements: {}", jobNum, System.currentTimeMillis() - start, oneByOneStatements);
+                    Assertions.assertEquals(jobNum, instanceInfoRepository.countByAppIdAndStatus(APP_ID, InstanceStatus.WAITING_DISPATCH.getV()));
+
+                    statistics.clear();
+                    start = System.currentTimeMillis();
+                    Map<Long, InstanceInfoDO> jobId2Instance = instanceService.batchCreate(jobInfos);
+                    Lists.partition(jobInfos, 500).forEach(partJobs -> jobInfoRepository.updateNextTriggerTimeByIdIn(partJobs.stream().map(JobInfoDO::getId).collect(Collectors.toList()), nextTriggerTime + 60000, new Date()));
+                    long batchStatements = statistics.getPrepareStatementCount();
+                    log.info("[ScheduleBatchWriteTest] [batch] jobNum: {}, cost: {}ms, statements: {}", jobNum, System.currentTimeMillis() - start, batchStatements);
+
+                    Assertions.assertEquals(jobNum, jobId2Instance.size());
+                    Assertions.assertEquals(jobNum * 2L, instanceInfoRepository.countByAppIdAndStatus(APP_ID, InstanceStatus.WAITING_DISPATCH.getV()));
+                    jobInfoRepository.findAllById(jobInfos.stream().map(JobInfoDO::getId).collect(Collectors.toList()))
+                            .forEach(jobInfo -> Assertions.assertEquals(nextTriggerTime + 60000, jobInfo.getNextTriggerTime()));
+                    Assertions.assertTrue(batchStatements < oneByOneStatements);
+                } finally {
+                    cleanUp(jobInfos);
+                }
+            }
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private void cleanUp(List<JobInfoDO> jobInfos) {
+        InstanceInfoDO probe = new InstanceInfoDO();
+        probe.setAppId(APP_ID);
+        Lists.partition(instanceInfoRepository.findAll(Example.of(probe)), 1000).forEach(instanceInfoRepository::deleteAllInBatch);
+        Lists.partition(jobInfos, 1000).forEach(jobInfoRepository::deleteAllInBatch);
+    }
+
+    private List<JobInfoDO> prepareJobs(int jobNum) {
+        Date now = new Date();
+        List<JobInfoDO> jobInfos = Lists.newArrayListWithCapacity(jobNum);
+        for (int i = 0; i < jobNum; i++) {
+            JobInfoDO jobInfo = new JobInfoDO();
+            jobInfo.setAppId(APP_ID);
+            jobInfo.setJobName("schedule-batch-write-test-" + i);
+            jobInfo.setStatus(SwitchableStatus.ENABLE.getV());
+            jobInfo.setTimeExpressionType(TimeExpressionType.CRON.getV());
+            jobInfo.setTimeExpression("0 * * * * ? ");
+            jobInfo.setNextTriggerTime(now.getTime());
+            jobInfo.setGmtCreate(now);
+            jobInfo.setGmtModified(now);
+            jobInfos.add(jobInfo);
+        }
+        return jobInfoRepository.saveAll(jobInfos);
+    }
+}
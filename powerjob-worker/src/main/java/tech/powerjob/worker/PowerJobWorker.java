@@ -17,6 +17,7 @@ import tech.powerjob.remote.framework.engine.impl.PowerJobRemoteEngine;
 import tech.powerjob.worker.actors.ProcessorTrackerActor;
 import tech.powerjob.worker.actors.TaskTrackerActor;
 import tech.powerjob.worker.actors.WorkerActor;
+import tech.powerjob.worker.background.DispatchReceiptReporter;
 import tech.powerjob.worker.background.OmsLogHandler;
 import tech.powerjob.worker.background.WorkerHealthReporter;
 import tech.powerjob.worker.background.discovery.PowerJobServerDiscoveryService;
@@ -117,6 +118,8 @@ public class PowerJobWorker {
             // 初始化日志系统
             OmsLogHandler omsLogHandler = new OmsLogHandler(workerRuntime.getWorkerAddress(), workerRuntime.getTransporter(), serverDiscoveryService);
             workerRuntime.setOmsLogHandler(omsLogHandler);
+            DispatchReceiptReporter dispatchReceiptReporter = new DispatchReceiptReporter(workerRuntime.getWorkerAddress(), workerRuntime.getTransporter());
+            workerRuntime.setDispatchReceiptReporter(dispatchReceiptReporter);
 
             // 初始化存储
             TaskPersistenceService taskPersistenceService = new TaskPersistenceService(workerRuntime.getWorkerConfig().getStoreStrategy());
@@ -128,6 +131,7 @@ public class PowerJobWorker {
             // 初始化定时任务
             workerRuntime.getExecutorManager().getCoreExecutor().scheduleAtFixedRate(new WorkerHealthReporter(workerRuntime), 0, config.getHealthReportInterval(), TimeUnit.SECONDS);
             workerRuntime.getExecutorManager().getCoreExecutor().scheduleWithFixedDelay(omsLogHandler.logSubmitter, 0, 5, TimeUnit.SECONDS);
+            workerRuntime.getExecutorManager().getCoreExecutor().scheduleWithFixedDelay(dispatchReceiptReporter, 0, 10, TimeUnit.MILLISECONDS);
 
             log.info("[PowerJobWorker] PowerJobWorker initialized successfully, using time: {}, congratulations!", stopwatch);
         }catch (Exception e) {
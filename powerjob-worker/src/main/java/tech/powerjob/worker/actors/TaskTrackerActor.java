@@ -2,10 +2,12 @@ package tech.powerjob.worker.actors;
 
 import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import tech.powerjob.common.enums.ExecuteType;
 import tech.powerjob.common.enums.TimeExpressionType;
 import tech.powerjob.common.model.InstanceDetail;
 import tech.powerjob.common.request.ServerQueryInstanceStatusReq;
+import tech.powerjob.common.request.ServerScheduleJobBatchReq;
 import tech.powerjob.common.request.ServerScheduleJobReq;
 import tech.powerjob.common.request.ServerStopInstanceReq;
 import tech.powerjob.common.response.AskResponse;
@@ -122,6 +124,10 @@ public class TaskTrackerActor {
     public void onReceiveServerScheduleJobReq(ServerScheduleJobReq req) {
         log.debug("[TaskTrackerActor] server schedule job by request: {}.", req);
         Long instanceId = req.getInstanceId();
+        // server 需要回执时，收到请求即登记（重复的请求同样回执，避免 server 继续重新派发）
+        if (StringUtils.isNotEmpty(req.getReceiptAddress()) && workerRuntime.getDispatchReceiptReporter() != null) {
+            workerRuntime.getDispatchReceiptReporter().receipt(req.getReceiptAddress(), instanceId);
+        }
         // 区分轻量级任务模型以及重量级任务模型
         if (isLightweightTask(req)) {
             final LightTaskTracker taskTracker = LightTaskTrackerManager.getTaskTracker(instanceId);
@@ -157,6 +163,21 @@ public class TaskTrackerActor {
         }
     }
 
+    /**
+     * 服务器批量任务调度处理器，逐个处理，单个任务失败不影响其他任务
+     */
+    @Handler(path = WTT_HANDLER_RUN_JOB_BATCH)
+    public void onReceiveServerScheduleJobBatchReq(ServerScheduleJobBatchReq req) {
+        log.debug("[TaskTrackerActor] server schedule {} jobs by batch request.", req.getRequests().size());
+        for (ServerScheduleJobReq scheduleJobReq : req.getRequests()) {
+            try {
+                onReceiveServerScheduleJobReq(scheduleJobReq);
+            } catch (Exception e) {
+                log.error("[TaskTrackerActor] process server schedule job request(instanceId={}) failed.", scheduleJobReq.getInstanceId(), e);
+            }
+        }
+    }
+
     /**
      * ProcessorTracker 心跳处理器
      */
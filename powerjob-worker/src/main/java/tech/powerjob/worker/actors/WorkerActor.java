@@ -43,6 +43,10 @@ public class WorkerActor {
     public void onReceiveServerScheduleJobReq(ServerScheduleJobReq req) {
         taskTrackerActor.onReceiveServerScheduleJobReq(req);
     }
+    @Handler(path = WTT_HANDLER_RUN_JOB_BATCH)
+    public void onReceiveServerScheduleJobBatchReq(ServerScheduleJobBatchReq req) {
+        taskTrackerActor.onReceiveServerScheduleJobBatchReq(req);
+    }
     @Handler(path = WTT_HANDLER_STOP_INSTANCE)
     public void onReceiveServerStopInstanceReq(ServerStopInstanceReq req) {
         taskTrackerActor.onReceiveServerStopInstanceReq(req);
@@ -0,0 +1,74 @@
+package tech.powerjob.worker.background;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+import tech.powerjob.common.request.WorkerDispatchReceiptReq;
+import tech.powerjob.remote.framework.transporter.Transporter;
+import tech.powerjob.worker.common.utils.TransportUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 调度请求回执上报，按 server 地址合并后定期批量发送
+ *
+ * @author tjq
+ * @since 2026/10/15
+ */
+@Slf4j
+public class DispatchReceiptReporter implements Runnable {
+
+    /**
+     * 单次上报的最大回执数量
+     */
+    private static final int MAX_BATCH_SIZE = 512;
+
+    private final String workerAddress;
+
+    private final Transporter transporter;
+
+    private final Map<String, Queue<Long>> server2InstanceIds = Maps.newConcurrentMap();
+
+    public DispatchReceiptReporter(String workerAddress, Transporter transporter) {
+        this.workerAddress = workerAddress;
+        this.transporter = transporter;
+    }
+
+    /**
+     * 登记回执，在下一次上报时发送
+     * @param serverAddress 接收回执的 server 地址
+     * @param instanceId 任务实例ID
+     */
+    public void receipt(String serverAddress, Long instanceId) {
+        server2InstanceIds.computeIfAbsent(serverAddress, ignore -> new ConcurrentLinkedQueue<>()).offer(instanceId);
+    }
+
+    @Override
+    public void run() {
+        server2InstanceIds.forEach((serverAddress, instanceIds) -> {
+            List<Long> batch = Lists.newArrayList();
+            Long instanceId;
+            while ((instanceId = instanceIds.poll()) != null) {
+                batch.add(instanceId);
+                if (batch.size() >= MAX_BATCH_SIZE) {
+                    report(serverAddress, batch);
+                    batch = Lists.newArrayList();
+                }
+            }
+            if (!batch.isEmpty()) {
+                report(serverAddress, batch);
+            }
+        });
+    }
+
+    private void report(String serverAddress, List<Long> instanceIds) {
+        try {
+            TransportUtils.reportDispatchReceipt(new WorkerDispatchReceiptReq(workerAddress, instanceIds), serverAddress, transporter);
+        } catch (Exception e) {
+            log.warn("[DispatchReceiptReporter] report dispatch receipt to server({}) failed: {}", serverAddress, instanceIds, e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package tech.powerjob.worker.common;
 import lombok.Data;
 import tech.powerjob.common.model.WorkerAppInfo;
 import tech.powerjob.remote.framework.transporter.Transporter;
+import tech.powerjob.worker.background.DispatchReceiptReporter;
 import tech.powerjob.worker.background.OmsLogHandler;
 import tech.powerjob.worker.background.discovery.ServerDiscoveryService;
 import tech.powerjob.worker.core.executor.ExecutorManager;
@@ -45,6 +46,8 @@ public class WorkerRuntime {
 
     private OmsLogHandler omsLogHandler;
 
+    private DispatchReceiptReporter dispatchReceiptReporter;
+
     private ServerDiscoveryService serverDiscoveryService;
 
     private TaskPersistenceService taskPersistenceService;
@@ -64,6 +64,11 @@ public class TransportUtils {
         transporter.tell(url, req);
     }
 
+    public static void reportDispatchReceipt(WorkerDispatchReceiptReq req, String address, Transporter transporter) {
+        final URL url = easyBuildUrl(ServerType.SERVER, S4W_PATH, S4W_HANDLER_REPORT_DISPATCH_RECEIPT, address);
+        transporter.tell(url, req);
+    }
+
     public static boolean reliablePtReportTask(ProcessorReportTaskStatusReq req, String address, WorkerRuntime workerRuntime) {
         try {
             return reliableAsk(ServerType.WORKER, WTT_PATH, WTT_HANDLER_REPORT_TASK_STATUS, address, req, workerRuntime.getTransporter()).isSuccess();